@@ -1,6 +1,5 @@
 package com.barbershop;
 
-import com.barbershop.features.appointment.model.Appointment;
 import com.barbershop.features.appointment.model.enums.AppointmentStatus;
 import com.barbershop.features.appointment.repository.AppointmentRepository;
 import org.slf4j.Logger;
@@ -11,7 +10,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * Servicio programado para gestionar automáticamente el estado de las citas.
@@ -40,40 +38,17 @@ public class ScheduledAppointmentService {
         try {
             LocalDateTime now = LocalDateTime.now();
             
-            // Buscar todas las citas que están SCHEDULED o CONFIRMED y cuya hora de finalización ya pasó
-            List<Appointment> missedAppointments = appointmentRepository.findMissedAppointments(now);
+            // Un único UPDATE condicional sobre las citas SCHEDULED o CONFIRMED cuya hora de finalización ya pasó;
+            // los estados de origen salen de la tabla de transiciones de AppointmentStatus
+            int updatedCount = appointmentRepository.transitionMissedAppointments(
+                AppointmentStatus.sourcesOf(AppointmentStatus.NO_SHOW), AppointmentStatus.NO_SHOW, now);
             
-            if (missedAppointments.isEmpty()) {
+            if (updatedCount == 0) {
                 logger.info("No se encontraron citas perdidas para marcar como NO_SHOW");
                 return;
             }
             
-            logger.info("Se encontraron {} citas perdidas para marcar como NO_SHOW", missedAppointments.size());
-            
-            int updatedCount = 0;
-            for (Appointment appointment : missedAppointments) {
-                try {
-                    // Actualizar el estado a NO_SHOW
-                    appointment.setStatus(AppointmentStatus.NO_SHOW);
-                    appointment.setUpdatedAt(now);
-                    
-                    appointmentRepository.save(appointment);
-                    updatedCount++;
-                    
-                    logger.debug("Cita {} marcada como NO_SHOW - Cliente: {}, Barbero: {}, Fecha: {}", 
-                        appointment.getAppointmentId(),
-                        appointment.getClientId(),
-                        appointment.getBarberId(),
-                        appointment.getAppointmentDatetimeStart());
-                        
-                } catch (Exception e) {
-                    logger.error("Error al actualizar la cita {} a NO_SHOW: {}", 
-                        appointment.getAppointmentId(), e.getMessage(), e);
-                }
-            }
-            
-            logger.info("Proceso completado exitosamente. {} de {} citas actualizadas a NO_SHOW", 
-                updatedCount, missedAppointments.size());
+            logger.info("Proceso completado exitosamente. {} citas actualizadas a NO_SHOW", updatedCount);
                 
         } catch (Exception e) {
             logger.error("Error durante el proceso de verificación de citas perdidas: {}", e.getMessage(), e);
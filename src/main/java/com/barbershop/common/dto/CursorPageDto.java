@@ -0,0 +1,29 @@
+package com.barbershop.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Página obtenida por cursor: no incluye el total de elementos")
+public class CursorPageDto<T> {
+
+    @Schema(description = "Elementos de la página")
+    private List<T> content;
+
+    @Schema(description = "Cantidad de elementos de la página", example = "20")
+    private int size;
+
+    @Schema(description = "Indica si existen más elementos después de esta página", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Cursor opaco para solicitar la página siguiente; nulo si no hay más elementos")
+    private String nextCursor;
+}
@@ -10,6 +10,8 @@ import com.barbershop.features.auth.exception.UserNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -76,6 +78,23 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * Maneja InvalidDataAccessApiUsageException (p. ej. un identificador que no es un UUID válido).
+     */
+    @ExceptionHandler(InvalidDataAccessApiUsageException.class)
+    public ResponseEntity<ApiResponseDto<String>> handleInvalidDataAccessApiUsageException(
+            InvalidDataAccessApiUsageException ex, HttpServletRequest request) {
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(
+                ApiResponseDto.<String>builder()
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .message("Error de argumentos inválidos: " + ex.getMostSpecificCause().getMessage() + ".")
+                        .timestamp(LocalDateTime.now())
+                        .path(request.getRequestURI())
+                        .build()
+        );
+    }
+
     /**
      * Maneja EntityNotFoundException (entidad no encontrada).
      */
@@ -282,6 +301,24 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * Maneja OptimisticLockingFailureException (el recurso cambió desde que se leyó).
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponseDto<String>> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex, HttpServletRequest request) {
+
+        log.warn("Conflicto de concurrencia en {}: {}", request.getRequestURI(), ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                ApiResponseDto.<String>builder()
+                        .status(HttpStatus.CONFLICT.value())
+                        .message("El recurso fue modificado por otra operación. Vuelva a consultarlo e intente de nuevo.")
+                        .timestamp(LocalDateTime.now())
+                        .path(request.getRequestURI())
+                        .build()
+        );
+    }
+
     /**
      * Maneja BusinessLogicException (error de lógica de negocio).
      */
@@ -0,0 +1,205 @@
+package com.barbershop.common.service;
+
+import com.barbershop.common.exception.BusinessLogicException;
+import com.barbershop.config.IdempotencyProperties;
+import com.barbershop.shared.util.SecurityUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Almacén en memoria de respuestas asociadas a claves de idempotencia.
+ * Un reintento con la misma clave y el mismo cuerpo devuelve la respuesta original sin volver
+ * a ejecutar la operación; si la original aún está en curso, el duplicado espera su resultado.
+ * Las claves se aíslan por usuario autenticado y operación. Al superar el máximo de claves se
+ * descartan primero las vencidas y luego las más antiguas ya completadas.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final IdempotencyProperties idempotencyProperties;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * Resultado de una ejecución idempotente
+     * @param value Respuesta de la operación
+     * @param replayed true si la respuesta proviene de una ejecución anterior
+     */
+    public record Result<T>(T value, boolean replayed) {
+    }
+
+    private static final class Entry {
+        private final byte[] fingerprint;
+        private final long createdAt = System.nanoTime();
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private Entry(byte[] fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    /**
+     * Ejecuta la operación una sola vez por clave de idempotencia
+     * @param operation Identificador de la operación (por ejemplo "POST /api/v1/payments")
+     * @param key Clave enviada por el cliente; si es nula se ejecuta sin idempotencia
+     * @param request Cuerpo de la solicitud, usado para detectar reutilizaciones de la clave
+     * @param action Operación a ejecutar
+     * @return Respuesta de la operación, original o reproducida
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(String operation, String key, Object request, Supplier<T> action) {
+        if (key == null) {
+            return new Result<>(action.get(), false);
+        }
+        if (key.isBlank() || key.length() > idempotencyProperties.getMaxKeyLength()) {
+            throw new IllegalArgumentException("El header " + IDEMPOTENCY_KEY_HEADER + " debe tener entre 1 y "
+                    + idempotencyProperties.getMaxKeyLength() + " caracteres");
+        }
+
+        String storeKey = SecurityUtils.getCurrentUserId() + "|" + operation + "|" + key;
+        byte[] fingerprint = fingerprint(request);
+        Entry created = new Entry(fingerprint);
+
+        while (true) {
+            long now = System.currentTimeMillis();
+            Entry existing = entries.putIfAbsent(storeKey, created);
+
+            if (existing == null) {
+                if (entries.size() > idempotencyProperties.getMaxEntries()) {
+                    enforceMaxEntries();
+                }
+                return new Result<>(run(storeKey, created, action), false);
+            }
+            if (existing.expiresAt <= now) {
+                if (entries.replace(storeKey, existing, created)) {
+                    return new Result<>(run(storeKey, created, action), false);
+                }
+                continue;
+            }
+            if (!Arrays.equals(existing.fingerprint, fingerprint)) {
+                throw new BusinessLogicException("La clave de idempotencia ya fue utilizada con una solicitud diferente");
+            }
+
+            log.info("Solicitud duplicada para la clave de idempotencia {} en {}, se reutiliza la respuesta original", key, operation);
+            return new Result<>((T) await(existing), true);
+        }
+    }
+
+    /**
+     * Elimina las claves vencidas
+     * Se ejecuta cada 10 minutos
+     */
+    @Scheduled(fixedRate = 600000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        int removed = before - entries.size();
+        if (removed > 0) {
+            log.debug("Claves de idempotencia vencidas eliminadas: {}", removed);
+        }
+    }
+
+    /**
+     * Cantidad de claves almacenadas
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Reduce el almacén por debajo del máximo de claves: primero las vencidas y, si no basta,
+     * las más antiguas ya completadas. Se libera un 10% adicional para no ordenar en cada inserción
+     */
+    private void enforceMaxEntries() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            evictExpired();
+            int maxEntries = idempotencyProperties.getMaxEntries();
+            int excess = entries.size() - maxEntries;
+            if (excess <= 0) {
+                return;
+            }
+
+            int toEvict = excess + maxEntries / 10;
+            int evicted = 0;
+            for (Map.Entry<String, Entry> oldest : entries.entrySet().stream()
+                    .filter(candidate -> candidate.getValue().result.isDone())
+                    .sorted(Comparator.comparingLong(candidate -> candidate.getValue().createdAt))
+                    .limit(toEvict)
+                    .toList()) {
+                if (entries.remove(oldest.getKey(), oldest.getValue())) {
+                    evicted++;
+                }
+            }
+            log.warn("Almacén de idempotencia lleno ({} claves), se descartaron las {} más antiguas", maxEntries, evicted);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private <T> T run(String storeKey, Entry entry, Supplier<T> action) {
+        try {
+            T value = action.get();
+            entry.expiresAt = System.currentTimeMillis() + idempotencyProperties.getTtl();
+            entry.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            // Las ejecuciones fallidas no se conservan: el cliente puede reintentar con la misma clave
+            entries.remove(storeKey, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(Entry entry) {
+        try {
+            return entry.result.get(idempotencyProperties.getWaitTimeout(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Error en la solicitud original", e.getCause());
+        } catch (TimeoutException e) {
+            throw new BusinessLogicException("La solicitud original con esta clave de idempotencia aún se está procesando");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera de la solicitud original interrumpida", e);
+        }
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular la huella de la solicitud", e);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.barbershop.common.service;
+
+import com.barbershop.common.util.ExportFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Motor de exportación en streaming.
+ * Recorre el resultado con un cursor de solo avance (fetch size acotado dentro de una transacción
+ * de solo lectura, requisito de PostgreSQL para no cargar todo el resultado) y escribe cada fila
+ * directamente en la respuesta, sin entidades ni contexto de persistencia.
+ * Las consultas deben llevar un ORDER BY para que el mismo filtro exporte siempre el mismo orden.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StreamingExportService {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Construye la respuesta HTTP que exporta el resultado de una consulta
+     * @param fileName Nombre base del archivo descargado
+     * @param format Formato de salida
+     * @param sql Consulta SQL con alias en camelCase para las columnas
+     * @param params Parámetros posicionales de la consulta
+     * @return Respuesta que escribe las filas a medida que se leen
+     */
+    public ResponseEntity<StreamingResponseBody> export(String fileName, ExportFormat format, String sql, List<Object> params) {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            long start = System.currentTimeMillis();
+
+            Long rows = transaction.execute(status -> {
+                RowWriter rowWriter = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+                return jdbcTemplate.query(cursor(sql, params), rowWriter);
+            });
+
+            writer.flush();
+            log.info("Exportación {} finalizada: {} filas en {} ms", fileName, rows, System.currentTimeMillis() - start);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName + "-" + LocalDate.now() + "." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    private static PreparedStatementCreator cursor(String sql, List<Object> params) {
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            return statement;
+        };
+    }
+
+    /**
+     * Escribe el encabezado a partir de los metadatos (también sin filas) y cada fila a medida que llega del cursor
+     */
+    private abstract static class RowWriter implements ResultSetExtractor<Long> {
+
+        protected final Writer writer;
+        protected String[] columns;
+        protected long rowCount;
+
+        RowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public Long extractData(ResultSet rs) throws SQLException {
+            try {
+                ResultSetMetaData metaData = rs.getMetaData();
+                columns = new String[metaData.getColumnCount()];
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = metaData.getColumnLabel(i + 1);
+                }
+                writeHeader();
+                while (rs.next()) {
+                    writeRow(rs);
+                    if (++rowCount % FLUSH_EVERY_ROWS == 0) {
+                        writer.flush();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al escribir la exportación", e);
+            }
+            return finish();
+        }
+
+        long finish() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al escribir la exportación", e);
+            }
+            return rowCount;
+        }
+
+        protected abstract void writeHeader() throws IOException;
+
+        protected abstract void writeRow(ResultSet rs) throws SQLException, IOException;
+
+        protected static Object normalize(Object value) {
+            if (value instanceof Timestamp timestamp) {
+                return timestamp.toLocalDateTime();
+            }
+            if (value instanceof java.sql.Date date) {
+                return date.toLocalDate();
+            }
+            return value;
+        }
+    }
+
+    private static final class CsvRowWriter extends RowWriter {
+
+        CsvRowWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        protected void writeHeader() throws IOException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeValue(columns[i]);
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        protected void writeRow(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = normalize(rs.getObject(i + 1));
+                if (value != null) {
+                    writeValue(value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString());
+                }
+            }
+            writer.write('\n');
+        }
+
+        private void writeValue(String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+    }
+
+    private static final class NdjsonRowWriter extends RowWriter {
+
+        private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) {
+            super(writer);
+            try {
+                this.generator = JSON_FACTORY.createGenerator(writer);
+                this.generator.setRootValueSeparator(null);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al iniciar la exportación", e);
+            }
+        }
+
+        @Override
+        protected void writeHeader() {
+            // NDJSON no tiene encabezado: cada línea lleva los nombres de campo
+        }
+
+        @Override
+        protected void writeRow(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                Object value = normalize(rs.getObject(i + 1));
+                generator.writeFieldName(columns[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+                    generator.writeNumber(((Number) value).longValue());
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+
+        @Override
+        long finish() {
+            try {
+                generator.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al escribir la exportación", e);
+            }
+            return super.finish();
+        }
+    }
+}
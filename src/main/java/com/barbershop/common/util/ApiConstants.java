@@ -10,6 +10,7 @@ public class ApiConstants {
     public static final String CHECK_EMAIL_URL = "/check-email";
     public static final String FORGOT_PASSWORD_URL = "/forgot-password";
     public static final String RESET_PASSWORD_URL = "/reset-password";
+    public static final String REFRESH_TOKEN_URL = "/refresh-token";
 
     // User API URLs
     public static final String USER_API_BASE_URL = "/user";
@@ -0,0 +1,111 @@
+package com.barbershop.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de tamaño fijo para cadenas de texto.
+ * Responde "definitivamente no existe" o "posiblemente existe"; nunca produce falsos negativos
+ * para los valores que fueron agregados. Es seguro para uso concurrente.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    private BloomFilter(long bitCount, int hashFunctions) {
+        this.bitCount = bitCount;
+        this.hashFunctions = hashFunctions;
+        this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+    }
+
+    /**
+     * Crea un filtro dimensionado para la cantidad de elementos y tasa de falsos positivos indicadas
+     * @param expectedInsertions Cantidad de elementos esperados
+     * @param falsePositiveRate Tasa de falsos positivos deseada (entre 0 y 1)
+     * @return Filtro vacío
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("La cantidad de elementos esperados debe ser mayor a cero");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("La tasa de falsos positivos debe estar entre 0 y 1");
+        }
+        long bitCount = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bitCount = Math.max(64, Math.min(bitCount, (long) Integer.MAX_VALUE * 64));
+        int hashFunctions = (int) Math.max(1, Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        return new BloomFilter(bitCount, hashFunctions);
+    }
+
+    /**
+     * Agrega un valor al filtro
+     * @param value Valor a agregar
+     */
+    public void put(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = Math.floorMod(h1 + (long) i * h2, bitCount);
+            setBit(index);
+        }
+    }
+
+    /**
+     * Verifica si un valor posiblemente fue agregado
+     * @param value Valor a verificar
+     * @return false si el valor definitivamente no fue agregado, true si posiblemente sí
+     */
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long getBitCount() {
+        return bitCount;
+    }
+
+    int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    /**
+     * Hash FNV-1a de 64 bits con mezcla final para repartir mejor los bits altos y bajos
+     */
+    private static long hash64(String value) {
+        byte[] data = value.getBytes(StandardCharsets.UTF_8);
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : data) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= (hash >>> 33);
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= (hash >>> 33);
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= (hash >>> 33);
+        return hash;
+    }
+}
@@ -0,0 +1,104 @@
+package com.barbershop.common.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Campos solicitados con el parámetro fields= (sparse fieldset) para un DTO de respuesta.
+ * La selección se guarda en la petición para que la serialización JSON omita el resto de campos
+ * y los servicios la usan para no cargar las relaciones que no se pidieron.
+ */
+public final class FieldSelection {
+
+    /** Identificador del filtro Jackson declarado con @JsonFilter en los DTOs que admiten la selección */
+    public static final String FILTER_ID = "fieldSelection";
+
+    public static final String REQUEST_ATTRIBUTE = FieldSelection.class.getName();
+
+    private static final String ID_ALIAS = "id";
+
+    private static final FieldSelection ALL = new FieldSelection(Object.class, Collections.emptySet());
+
+    private final Class<?> dtoType;
+    private final Set<String> fields;
+
+    private FieldSelection(Class<?> dtoType, Set<String> fields) {
+        this.dtoType = dtoType;
+        this.fields = fields;
+    }
+
+    /**
+     * Selección que incluye todos los campos
+     */
+    public static FieldSelection all() {
+        return ALL;
+    }
+
+    /**
+     * Interpreta la lista de campos separada por comas
+     * @param fields Valor del parámetro; null o vacío para todos los campos
+     * @param dtoType DTO de respuesta cuyos campos se seleccionan
+     * @param idField Campo identificador del DTO, al que equivale el alias "id"
+     * @return Selección validada contra los campos del DTO
+     */
+    public static FieldSelection parse(String fields, Class<?> dtoType, String idField) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        Set<String> available = Arrays.stream(dtoType.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(Field::getName)
+                .collect(Collectors.toSet());
+
+        Set<String> selected = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String field = name.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (ID_ALIAS.equals(field)) {
+                field = idField;
+            }
+            if (!available.contains(field)) {
+                throw new IllegalArgumentException("Campo desconocido en fields: " + name.trim());
+            }
+            selected.add(field);
+        }
+        return selected.isEmpty() ? ALL : new FieldSelection(dtoType, Collections.unmodifiableSet(selected));
+    }
+
+    /**
+     * Interpreta la selección y la registra en la petición para la serialización de la respuesta
+     */
+    public static FieldSelection fromRequest(String fields, Class<?> dtoType, String idField, HttpServletRequest request) {
+        FieldSelection selection = parse(fields, dtoType, idField);
+        if (!selection.isAll()) {
+            request.setAttribute(REQUEST_ATTRIBUTE, selection);
+        }
+        return selection;
+    }
+
+    public boolean isAll() {
+        return fields.isEmpty();
+    }
+
+    public boolean includes(String field) {
+        return isAll() || fields.contains(field);
+    }
+
+    public Class<?> getDtoType() {
+        return dtoType;
+    }
+
+    public Set<String> getFields() {
+        return fields;
+    }
+}
@@ -0,0 +1,129 @@
+package com.barbershop.common.util;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Codifica y decodifica cursores opacos para la paginación por keyset.
+ * El cursor guarda el campo y la dirección de ordenamiento junto con los valores (campo, id)
+ * del último elemento, por lo que solo es válido con el mismo ordenamiento con el que se generó.
+ */
+public final class KeysetCursor {
+
+    private static final String VERSION = "v1";
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Genera el cursor de la página siguiente
+     * @param window Ventana obtenida con el ordenamiento indicado
+     * @param sortField Campo de ordenamiento de la entidad
+     * @param direction Dirección de ordenamiento
+     * @return Cursor opaco, o null si no hay más elementos
+     */
+    public static String next(Window<?> window, String sortField, Sort.Direction direction) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        ScrollPosition position = window.positionAt(window.size() - 1);
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            return null;
+        }
+
+        StringBuilder payload = new StringBuilder(VERSION).append('\n')
+                .append(sortField).append('\n')
+                .append(direction.name());
+        for (Map.Entry<String, Object> key : keyset.getKeys().entrySet()) {
+            payload.append('\n').append(key.getKey()).append('=').append(format(key.getValue()));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Obtiene la posición desde la cual continuar
+     * @param cursor Cursor recibido; null o vacío para la primera página
+     * @param sortField Campo de ordenamiento de la entidad
+     * @param direction Dirección de ordenamiento
+     * @param entityClass Entidad consultada, usada para restaurar el tipo de cada valor
+     * @return Posición de inicio o de continuación
+     */
+    public static KeysetScrollPosition decode(String cursor, String sortField, Sort.Direction direction, Class<?> entityClass) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String[] lines = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n");
+            if (lines.length < 4 || !VERSION.equals(lines[0])) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            if (!lines[1].equals(sortField) || !lines[2].equals(direction.name())) {
+                throw new IllegalArgumentException("El cursor no corresponde al ordenamiento solicitado");
+            }
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int i = 3; i < lines.length; i++) {
+                int separator = lines[i].indexOf('=');
+                String name = lines[i].substring(0, separator);
+                keys.put(name, parse(lines[i].substring(separator + 1), fieldType(entityClass, name)));
+            }
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            throw new IllegalStateException("La paginación por cursor requiere campos de ordenamiento no nulos");
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof Enum<?> enumValue) {
+            return enumValue.name();
+        }
+        return value.toString();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object parse(String value, Class<?> type) {
+        if (type == String.class) {
+            return value;
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal(value);
+        }
+        if (type.isEnum()) {
+            return Enum.valueOf((Class<? extends Enum>) type, value);
+        }
+        throw new IllegalArgumentException("Tipo no soportado en el cursor: " + type.getSimpleName());
+    }
+
+    private static Class<?> fieldType(Class<?> entityClass, String name) {
+        for (Class<?> type = entityClass; type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(name);
+                return field.getType();
+            } catch (NoSuchFieldException e) {
+                // Buscar en la clase padre
+            }
+        }
+        throw new IllegalArgumentException("Campo desconocido en el cursor: " + name);
+    }
+}
@@ -0,0 +1,116 @@
+package com.barbershop.common.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Cuenta las sentencias SQL ejecutadas por el hilo actual mientras hay una medición activa.
+ * Lo alimentan el StatementInspector y el listener de sesión de Hibernate; fuera de una
+ * medición (tareas programadas, arranque) no registra nada.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    // Listas IN de distinto tamaño y espacios en blanco no cuentan como sentencias distintas
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * Inicia una medición en el hilo actual y devuelve la anterior, que debe pasarse a {@link #stop(Stats)}
+     */
+    public static Stats start() {
+        Stats previous = CURRENT.get();
+        CURRENT.set(new Stats());
+        return previous;
+    }
+
+    /**
+     * Termina la medición actual, restaura la anterior (sumándole lo contado) y devuelve el resultado
+     */
+    public static Stats stop(Stats previous) {
+        Stats stats = CURRENT.get();
+        if (previous != null) {
+            if (stats != null) {
+                previous.merge(stats);
+            }
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+        return stats != null ? stats : new Stats();
+    }
+
+    /**
+     * Medición en curso del hilo actual, o null si no hay ninguna
+     */
+    public static Stats current() {
+        return CURRENT.get();
+    }
+
+    public static void recordStatement(String sql) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(normalize(sql));
+        }
+    }
+
+    public static void recordJdbcTime(long nanos) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.jdbcNanos += nanos;
+        }
+    }
+
+    static String normalize(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return PARAMETER_LIST.matcher(shape).replaceAll("?");
+    }
+
+    /**
+     * Resultado de una medición: total de sentencias, tiempo JDBC y repeticiones por forma de sentencia
+     */
+    public static final class Stats {
+
+        private final Map<String, Integer> statements = new HashMap<>();
+        private int statementCount;
+        private long jdbcNanos;
+
+        private void record(String shape) {
+            statementCount++;
+            statements.merge(shape, 1, Integer::sum);
+        }
+
+        private void merge(Stats other) {
+            statementCount += other.statementCount;
+            jdbcNanos += other.jdbcNanos;
+            other.statements.forEach((shape, count) -> statements.merge(shape, count, Integer::sum));
+        }
+
+        public int getStatementCount() {
+            return statementCount;
+        }
+
+        public long getJdbcTimeMillis() {
+            return jdbcNanos / 1_000_000;
+        }
+
+        public Map<String, Integer> getStatements() {
+            return Map.copyOf(statements);
+        }
+
+        /**
+         * Forma de sentencia que más se repitió, o null si no hubo sentencias
+         */
+        public Map.Entry<String, Integer> getMostRepeated() {
+            return statements.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                    .orElse(null);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.barbershop.common.util;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.usertype.EnhancedUserType;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Mapea identificadores String a columnas uuid nativas.
+ * Las entidades, DTOs y repositorios siguen trabajando con String; la conversión
+ * ocurre solo al leer y escribir en JDBC.
+ * Implementa EnhancedUserType porque con PostgreSQL Hibernate prepara al arrancar la carga de
+ * varias entidades por id con un parámetro array, y para ello exige un formateador de literales.
+ */
+public class UuidStringType implements EnhancedUserType<String> {
+
+    @Override
+    public int getSqlType() {
+        return SqlTypes.UUID;
+    }
+
+    @Override
+    public Class<String> returnedClass() {
+        return String.class;
+    }
+
+    @Override
+    public boolean equals(String x, String y) {
+        return Objects.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(String x) {
+        return Objects.hashCode(x);
+    }
+
+    @Override
+    public String nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner)
+            throws SQLException {
+        UUID value = rs.getObject(position, UUID.class);
+        return value == null ? null : value.toString();
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, String value, int index, SharedSessionContractImplementor session)
+            throws SQLException {
+        if (value == null) {
+            st.setNull(index, Types.OTHER);
+            return;
+        }
+        st.setObject(index, parse(value), Types.OTHER);
+    }
+
+    @Override
+    public String deepCopy(String value) {
+        return value;
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public Serializable disassemble(String value) {
+        return value;
+    }
+
+    @Override
+    public String assemble(Serializable cached, Object owner) {
+        return (String) cached;
+    }
+
+    @Override
+    public String toSqlLiteral(String value) {
+        return "'" + parse(value) + "'";
+    }
+
+    @Override
+    public String toString(String value) {
+        return value;
+    }
+
+    @Override
+    public String fromStringValue(CharSequence sequence) {
+        return parse(sequence.toString()).toString();
+    }
+
+    private static UUID parse(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("El identificador '" + value + "' no tiene un formato válido");
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.barbershop.common.util;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Genera identificadores UUID versión 7 (RFC 9562).
+ * Los primeros 48 bits son el instante en milisegundos, por lo que los identificadores
+ * nuevos se insertan al final de los índices B-tree en lugar de en posiciones aleatorias.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return generate();
+    }
+
+    /**
+     * Genera un nuevo UUIDv7
+     * @return Identificador ordenado por tiempo
+     */
+    public static UUID generate() {
+        long timestamp = System.currentTimeMillis();
+        long randA = RANDOM.nextInt(1 << 12);
+        long randB = RANDOM.nextLong();
+
+        long mostSigBits = (timestamp << 16) | (0x7L << 12) | randA;
+        long leastSigBits = (randB & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
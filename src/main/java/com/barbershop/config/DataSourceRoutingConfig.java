@@ -0,0 +1,60 @@
+package com.barbershop.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configura el DataSource con enrutamiento a réplicas de lectura.
+ * Solo se activa con app.datasource.routing.enabled=true; el principal se construye con spring.datasource.*
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             DataSourceRoutingProperties routingProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        // El builder no aplica spring.datasource.hikari.*; se replica la reescritura de INSERT por lotes
+        primary.addDataSourceProperty("reWriteBatchedInserts", "true");
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (DataSourceRoutingProperties.Replica replica : routingProperties.getReplicas()) {
+            if (!StringUtils.hasText(replica.getUrl())) {
+                continue;
+            }
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + replicas.size());
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword());
+            dataSource.setReadOnly(true);
+            // La réplica puede no estar disponible al iniciar; la comprobación de salud la incorpora después
+            dataSource.setInitializationFailTimeout(-1);
+            replicas.add(dataSource);
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas,
+                routingProperties.getMaxReplicationLag(), routingProperties.getStickyWindow());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,61 @@
+package com.barbershop.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Propiedades del enrutamiento de transacciones de solo lectura hacia réplicas
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class DataSourceRoutingProperties {
+
+    /**
+     * Habilita el enrutamiento; si está deshabilitado todo va al DataSource principal
+     */
+    private boolean enabled = false;
+
+    /**
+     * Réplicas de lectura; se usan en turnos rotativos
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Retraso máximo de replicación tolerado, en milisegundos. Una réplica más atrasada no recibe lecturas
+     */
+    private long maxReplicationLag = 5_000;
+
+    /**
+     * Intervalo entre comprobaciones de salud y retraso de las réplicas, en milisegundos
+     */
+    private long healthCheckInterval = 10_000;
+
+    /**
+     * Tiempo tras una transacción de escritura de un usuario durante el cual sus lecturas van al principal,
+     * en milisegundos
+     */
+    private long stickyWindow = 5_000;
+
+    @Data
+    public static class Replica {
+        /**
+         * URL JDBC de la réplica
+         */
+        private String url;
+
+        /**
+         * Usuario; si no se indica se usa el del DataSource principal
+         */
+        private String username;
+
+        /**
+         * Contraseña; si no se indica se usa la del DataSource principal
+         */
+        private String password;
+    }
+}
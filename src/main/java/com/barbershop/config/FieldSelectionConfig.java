@@ -0,0 +1,23 @@
+package com.barbershop.config;
+
+import com.barbershop.common.util.FieldSelection;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra el filtro Jackson de {@link FieldSelection} con todos los campos por defecto, de modo que los DTOs
+ * anotados con @JsonFilter se serialicen completos salvo cuando {@link FieldSelectionResponseBodyAdvice}
+ * aplica la selección de la petición.
+ */
+@Configuration
+public class FieldSelectionConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionFilterCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .addFilter(FieldSelection.FILTER_ID, SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
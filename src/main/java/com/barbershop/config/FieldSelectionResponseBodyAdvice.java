@@ -0,0 +1,56 @@
+package com.barbershop.config;
+
+import com.barbershop.common.util.FieldSelection;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Aplica a la respuesta JSON la selección de campos registrada en la petición por {@link FieldSelection#fromRequest}.
+ * Solo se recortan los objetos del DTO seleccionado; los demás objetos anidados se escriben completos.
+ */
+@RestControllerAdvice
+public class FieldSelectionResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        Object attribute = servletRequest.getServletRequest().getAttribute(FieldSelection.REQUEST_ATTRIBUTE);
+        if (attribute instanceof FieldSelection selection && !selection.isAll()) {
+            bodyContainer.setFilters(new SimpleFilterProvider()
+                    .addFilter(FieldSelection.FILTER_ID, new SelectedFieldsFilter(selection)));
+        }
+    }
+
+    private static final class SelectedFieldsFilter extends SimpleBeanPropertyFilter {
+
+        private final FieldSelection selection;
+
+        private SelectedFieldsFilter(FieldSelection selection) {
+            this.selection = selection;
+        }
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator generator, SerializerProvider provider,
+                                     PropertyWriter writer) throws Exception {
+            if (!selection.getDtoType().isInstance(pojo) || selection.includes(writer.getName())) {
+                writer.serializeAsField(pojo, generator, provider);
+            } else if (!generator.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, generator, provider);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.barbershop.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Propiedades de configuración de las claves de idempotencia (header Idempotency-Key)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Tiempo durante el cual se conserva la respuesta de una clave, en milisegundos
+     */
+    private long ttl = 86_400_000;
+
+    /**
+     * Cantidad máxima de claves almacenadas
+     */
+    private int maxEntries = 50_000;
+
+    /**
+     * Tiempo máximo que una solicitud duplicada espera a que termine la original, en milisegundos
+     */
+    private long waitTimeout = 30_000;
+
+    /**
+     * Longitud máxima aceptada para la clave
+     */
+    private int maxKeyLength = 255;
+}
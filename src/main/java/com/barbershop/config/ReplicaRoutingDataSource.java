@@ -0,0 +1,159 @@
+package com.barbershop.config;
+
+import com.barbershop.shared.util.SecurityUtils;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envía las transacciones de solo lectura a una réplica sana y todo lo demás al principal.
+ * Una réplica deja de recibir lecturas si falla la comprobación de salud o su retraso supera el
+ * máximo configurado; si no queda ninguna, las lecturas vuelven al principal. Tras una transacción
+ * de escritura, las lecturas del mismo usuario se mantienen en el principal durante una ventana corta
+ * para que vea sus propios cambios.
+ * Debe envolverse en un LazyConnectionDataSourceProxy para que la conexión se obtenga cuando la
+ * transacción ya está marcada como de solo lectura.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+
+    // Sin WAL pendiente de aplicar el retraso es cero aunque el principal lleve tiempo sin escrituras
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0)
+                   END""";
+
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxReplicationLag;
+    private final long stickyWindow;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources,
+                                    long maxReplicationLag, long stickyWindow) {
+        this.primary = primary;
+        this.replicas = replicaDataSources.stream().map(Replica::new).toList();
+        this.maxReplicationLag = maxReplicationLag;
+        this.stickyWindow = stickyWindow;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(replicaKey(i), replicas.get(i).dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+
+        String userId = SecurityUtils.getCurrentUserId();
+        long now = System.currentTimeMillis();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null) {
+                lastWriteByUser.put(userId, now);
+            }
+            return PRIMARY;
+        }
+
+        if (userId != null) {
+            Long lastWrite = lastWriteByUser.get(userId);
+            if (lastWrite != null && now - lastWrite < stickyWindow) {
+                return PRIMARY;
+            }
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            if (replicas.get(index).available) {
+                return replicaKey(index);
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Comprueba la salud y el retraso de cada réplica y descarta las marcas de escritura vencidas
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.routing.health-check-interval:10000}")
+    public void checkReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            boolean wasAvailable = replica.available;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(HEALTH_CHECK_TIMEOUT_SECONDS);
+                try (ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                    rs.next();
+                    long lag = rs.getLong(1);
+                    replica.available = lag <= maxReplicationLag;
+                    if (wasAvailable && !replica.available) {
+                        log.warn("Réplica {} excluida de las lecturas: retraso de {} ms", replicaKey(i), lag);
+                    }
+                }
+            } catch (Exception e) {
+                replica.available = false;
+                if (wasAvailable) {
+                    log.warn("Réplica {} excluida de las lecturas: {}", replicaKey(i), e.getMessage());
+                }
+            }
+            if (!wasAvailable && replica.available) {
+                log.info("Réplica {} disponible nuevamente para lecturas", replicaKey(i));
+            }
+        }
+
+        long expiredBefore = System.currentTimeMillis() - stickyWindow;
+        lastWriteByUser.values().removeIf(lastWrite -> lastWrite < expiredBefore);
+    }
+
+    @Override
+    public void close() {
+        closeIfPooled(primary);
+        replicas.forEach(replica -> closeIfPooled(replica.dataSource));
+    }
+
+    private static void closeIfPooled(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            hikari.close();
+        }
+    }
+
+    private static String replicaKey(int index) {
+        return "replica-" + index;
+    }
+
+    private static final class Replica {
+        private final DataSource dataSource;
+        // Hasta la primera comprobación no se envían lecturas a la réplica
+        private volatile boolean available = false;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
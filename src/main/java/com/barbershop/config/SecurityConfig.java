@@ -2,10 +2,10 @@ package com.barbershop.config;
 
 import com.barbershop.features.auth.security.JwtAuthenticationFilter;
 import com.barbershop.features.auth.security.JwtEntryPoint;
+import com.barbershop.features.auth.security.RoutePolicyRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -23,6 +23,7 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final AuthenticationProvider authProvider;
     private final JwtEntryPoint jwtEntryPoint;
+    private final RoutePolicyRegistry routePolicyRegistry;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -31,13 +32,7 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authRequest ->
                         authRequest
-                                .requestMatchers("/api/v1/auth/sign-in", "/api/v1/auth/sign-up", "/api/v1/auth/reset-password", "/api/v1/auth/forgot-password", "/api/v1/auth/check-email", "/api/v1/auth/check-auth").permitAll()
-                                .requestMatchers(HttpMethod.GET, "/api/v1/services/all").permitAll()
-                                .requestMatchers(HttpMethod.GET, "/api/v1/barbers", "/api/v1/users", "/api/v1/barbershops", "/api/v1/barbershops/operating-hours").permitAll()
-                                .requestMatchers(HttpMethod.GET, "/api/v1/barbers/count/active", "/api/v1/users/count/active").permitAll()
-                                .requestMatchers(HttpMethod.GET, "/api/v1/appointments/availability", "/api/v1/appointments/availability/day", "/api/v1/appointments/availability/barbers").permitAll()
-                                .requestMatchers("/v3/api-docs/**", "/swagger-ui.html", "/swagger-ui/**", "/swagger-resources/**", "/webjars/**").permitAll()
-                                .requestMatchers("/api/v1/health").permitAll()
+                                .requestMatchers(routePolicyRegistry.permitAllMatcher()).permitAll()
                                 .anyRequest().authenticated()
                 )
                 .sessionManagement(sessionManager ->
@@ -0,0 +1,24 @@
+package com.barbershop.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra en Hibernate el inspector de sentencias y el listener de tiempos JDBC usados por
+ * {@link SqlStatementBudgetFilter}. Se desactiva con app.sql-monitor.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sql-monitor", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMonitorConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlMonitorHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingSessionListener.class.getName());
+        };
+    }
+}
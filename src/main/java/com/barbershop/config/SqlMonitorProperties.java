@@ -0,0 +1,34 @@
+package com.barbershop.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Propiedades del presupuesto de sentencias SQL por petición HTTP
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.sql-monitor")
+public class SqlMonitorProperties {
+
+    /**
+     * Activa el conteo de sentencias por petición
+     */
+    private boolean enabled = true;
+
+    /**
+     * Máximo de sentencias por petición antes de registrar un aviso
+     */
+    private int maxStatements = 30;
+
+    /**
+     * Máximo de repeticiones de una misma sentencia antes de registrar un posible N+1
+     */
+    private int maxRepeatedStatements = 5;
+
+    /**
+     * Devuelve los contadores en las cabeceras X-SQL-* de la respuesta
+     */
+    private boolean exposeHeaders = false;
+}
@@ -0,0 +1,123 @@
+package com.barbershop.config;
+
+import com.barbershop.common.util.SqlStatementCounter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+
+/**
+ * Mide las sentencias SQL de cada petición HTTP (incluidas las del filtro de seguridad) y registra
+ * un aviso cuando se supera el presupuesto o una misma sentencia se repite, síntoma habitual de N+1.
+ * Con app.sql-monitor.expose-headers=true devuelve los contadores en cabeceras X-SQL-*.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.sql-monitor", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    static final String STATEMENT_COUNT_HEADER = "X-SQL-Statement-Count";
+    static final String JDBC_TIME_HEADER = "X-SQL-Time-Ms";
+    static final String MAX_REPEATED_HEADER = "X-SQL-Max-Repeated";
+
+    private final SqlMonitorProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter.Stats previous = SqlStatementCounter.start();
+        HttpServletResponse target = properties.isExposeHeaders() ? new StatsHeaderResponse(response) : response;
+        SqlStatementCounter.Stats stats;
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            stats = SqlStatementCounter.stop(previous);
+        }
+
+        // Respuestas sin cuerpo: las cabeceras aún pueden escribirse al terminar
+        if (properties.isExposeHeaders() && !response.isCommitted()) {
+            writeHeaders(response, stats);
+        }
+        checkBudget(request, stats);
+    }
+
+    private void checkBudget(HttpServletRequest request, SqlStatementCounter.Stats stats) {
+        Map.Entry<String, Integer> mostRepeated = stats.getMostRepeated();
+        boolean overBudget = stats.getStatementCount() > properties.getMaxStatements();
+        boolean repeated = mostRepeated != null && mostRepeated.getValue() > properties.getMaxRepeatedStatements();
+
+        if (overBudget) {
+            log.warn("{} {} ejecutó {} sentencias SQL ({} ms JDBC), presupuesto: {}",
+                    request.getMethod(), request.getRequestURI(), stats.getStatementCount(),
+                    stats.getJdbcTimeMillis(), properties.getMaxStatements());
+        }
+        if (repeated) {
+            log.warn("{} {} repitió {} veces la misma sentencia, posible N+1: {}",
+                    request.getMethod(), request.getRequestURI(), mostRepeated.getValue(), mostRepeated.getKey());
+        }
+        if (!overBudget && !repeated) {
+            log.debug("{} {} ejecutó {} sentencias SQL ({} ms JDBC)",
+                    request.getMethod(), request.getRequestURI(), stats.getStatementCount(), stats.getJdbcTimeMillis());
+        }
+    }
+
+    private static void writeHeaders(HttpServletResponse response, SqlStatementCounter.Stats stats) {
+        Map.Entry<String, Integer> mostRepeated = stats.getMostRepeated();
+        response.setHeader(STATEMENT_COUNT_HEADER, String.valueOf(stats.getStatementCount()));
+        response.setHeader(JDBC_TIME_HEADER, String.valueOf(stats.getJdbcTimeMillis()));
+        response.setHeader(MAX_REPEATED_HEADER, String.valueOf(mostRepeated != null ? mostRepeated.getValue() : 0));
+    }
+
+    /**
+     * Escribe las cabeceras justo antes de empezar el cuerpo, cuando el controlador ya terminó su trabajo.
+     * Las sentencias que se ejecuten durante la serialización solo aparecen en el log.
+     */
+    private static class StatsHeaderResponse extends HttpServletResponseWrapper {
+
+        private boolean headersWritten;
+
+        StatsHeaderResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        private void writeHeadersOnce() {
+            SqlStatementCounter.Stats stats = SqlStatementCounter.current();
+            if (!headersWritten && stats != null && !isCommitted()) {
+                writeHeaders((HttpServletResponse) getResponse(), stats);
+            }
+            headersWritten = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeadersOnce();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeadersOnce();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeadersOnce();
+            super.flushBuffer();
+        }
+    }
+}
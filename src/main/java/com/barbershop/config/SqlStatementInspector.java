@@ -0,0 +1,16 @@
+package com.barbershop.config;
+
+import com.barbershop.common.util.SqlStatementCounter;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Registra en {@link SqlStatementCounter} cada sentencia que Hibernate prepara, sin modificarla
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementCounter.recordStatement(sql);
+        return sql;
+    }
+}
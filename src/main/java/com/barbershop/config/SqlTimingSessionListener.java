@@ -0,0 +1,40 @@
+package com.barbershop.config;
+
+import com.barbershop.common.util.SqlStatementCounter;
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Suma a {@link SqlStatementCounter} el tiempo de ejecución JDBC de sentencias y lotes.
+ * Hibernate crea una instancia por sesión (hibernate.session.events.auto), por eso necesita constructor vacío.
+ */
+public class SqlTimingSessionListener extends BaseSessionEventListener {
+
+    private long executeStart = -1;
+    private long batchStart = -1;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        if (executeStart >= 0) {
+            SqlStatementCounter.recordJdbcTime(System.nanoTime() - executeStart);
+            executeStart = -1;
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        if (batchStart >= 0) {
+            SqlStatementCounter.recordJdbcTime(System.nanoTime() - batchStart);
+            batchStart = -1;
+        }
+    }
+}
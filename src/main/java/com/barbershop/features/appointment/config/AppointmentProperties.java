@@ -0,0 +1,39 @@
+package com.barbershop.features.appointment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Propiedades de configuración para el módulo de citas
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.appointment")
+public class AppointmentProperties {
+
+    /**
+     * Configuración del mantenimiento de particiones mensuales de la tabla de citas
+     */
+    private Partitioning partitioning = new Partitioning();
+
+    @Data
+    public static class Partitioning {
+        /**
+         * Habilita la creación y separación programada de particiones
+         */
+        private boolean enabled = true;
+
+        /**
+         * Cantidad de meses futuros que deben tener partición creada
+         */
+        private int monthsAhead = 3;
+
+        /**
+         * Meses completos que se conservan adjuntos; las particiones más antiguas se separan.
+         * 0 desactiva la separación. Las citas de particiones separadas dejan de ser visibles
+         * para la aplicación, incluidas las referenciadas por pagos.
+         */
+        private int detachAfterMonths = 0;
+    }
+}
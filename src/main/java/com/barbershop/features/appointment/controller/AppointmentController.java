@@ -1,10 +1,17 @@
 package com.barbershop.features.appointment.controller;
 
 import com.barbershop.common.dto.ApiResponseDto;
+import com.barbershop.common.dto.CursorPageDto;
+import com.barbershop.common.service.IdempotencyService;
+import com.barbershop.common.util.ExportFormat;
+import com.barbershop.common.util.FieldSelection;
 import com.barbershop.features.appointment.dto.AppointmentResponseDto;
 import com.barbershop.features.appointment.dto.AvailabilityResponseDto;
 import com.barbershop.features.appointment.dto.BarbersAvailabilityResponseDto;
+import com.barbershop.features.appointment.dto.BatchStatusTransitionResultDto;
 import com.barbershop.features.appointment.dto.DayAvailabilityResponseDto;
+import com.barbershop.features.appointment.dto.request.AppointmentSearchRequestDto;
+import com.barbershop.features.appointment.dto.request.BatchStatusTransitionRequestDto;
 import com.barbershop.features.appointment.dto.request.CreateAppointmentRequestDto;
 import com.barbershop.features.appointment.dto.request.UpdateAppointmentRequestDto;
 import com.barbershop.features.appointment.model.enums.AppointmentStatus;
@@ -20,11 +27,14 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -37,7 +47,12 @@ import java.util.List;
 @Tag(name = "Citas", description = "Operaciones relacionadas con la gestión de citas")
 public class    AppointmentController {
 
+    // Aviso (RFC 7234, código 299) para las actualizaciones sin versión, que se aplican como última escritura
+    private static final String MISSING_VERSION_WARNING =
+            "299 - \"Actualizar una cita sin version es obsoleto; envie la version leida para detectar conflictos\"";
+
     private final AppointmentService appointmentService;
+    private final IdempotencyService idempotencyService;
 
     // ========== ENDPOINTS CRUD BÁSICOS ==========
 
@@ -50,6 +65,7 @@ public class    AppointmentController {
      * - CLIENT: Solo puede crear citas para sí mismo
      *
      * @param request Datos de la nueva cita a crear
+     * @param idempotencyKey Clave opcional para que los reintentos devuelvan la cita original
      * @param httpRequest Request HTTP para extraer el token de autenticación
      * @return Respuesta con los datos de la cita creada
      */
@@ -71,12 +87,18 @@ public class    AppointmentController {
     @PostMapping
     public ResponseEntity<ApiResponseDto<AppointmentResponseDto>> createAppointment(
             @Valid @RequestBody CreateAppointmentRequestDto request,
+            @Parameter(description = "Clave única del intento de creación; los reintentos con la misma clave devuelven la respuesta original")
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             HttpServletRequest httpRequest) {
         
         String token = extractTokenFromRequest(httpRequest);
-        ApiResponseDto<AppointmentResponseDto> response = appointmentService.createAppointment(request, token);
+        IdempotencyService.Result<ApiResponseDto<AppointmentResponseDto>> result = idempotencyService.execute(
+                "POST /api/v1/appointments", idempotencyKey, request,
+                () -> appointmentService.createAppointment(request, token));
         
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IdempotencyService.IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.value());
     }
 
     /**
@@ -166,6 +188,49 @@ public class    AppointmentController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Exporta el historial de citas en streaming (CSV o NDJSON)
+     *
+     * Permisos de acceso:
+     * - ADMIN: Puede exportar todas las citas del sistema
+     * - BARBER: Sin acceso a este endpoint
+     * - CLIENT: Sin acceso a este endpoint
+     *
+     * @param from Fecha y hora inicial (inclusive) de las citas a exportar
+     * @param to Fecha y hora final (exclusiva) de las citas a exportar
+     * @param format Formato de salida
+     * @param httpRequest Request HTTP para extraer el token de autenticación
+     * @return Archivo con una fila por cita, enviado a medida que se lee
+     */
+    @Operation(
+            summary = "Exportar citas",
+            description = "<strong>Permisos:</strong><br/>" +
+                         "• <strong>ADMIN:</strong> Puede exportar todas las citas del sistema<br/>" +
+                         "• <strong>BARBER:</strong> Sin acceso a este endpoint<br/>" +
+                         "• <strong>CLIENT:</strong> Sin acceso a este endpoint",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Exportación de citas generada exitosamente",
+                            content = {@Content(mediaType = "text/csv"), @Content(mediaType = "application/x-ndjson")}
+                    )
+            }
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @Parameter(description = "Fecha y hora inicial (inclusive)", example = "2024-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Fecha y hora final (exclusiva)", example = "2025-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Formato de salida (CSV o NDJSON)", example = "CSV")
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            HttpServletRequest httpRequest) {
+        
+        String token = extractTokenFromRequest(httpRequest);
+        return appointmentService.exportAppointments(from, to, format, token);
+    }
+
     /**
      * Actualiza los datos de una cita existente
      *
@@ -188,7 +253,13 @@ public class    AppointmentController {
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "Cita actualizada exitosamente",
+                            description = "Cita actualizada exitosamente. Sin versión en la petición se aplica la última escritura " +
+                                         "y se responde con el encabezado Warning: ese uso es obsoleto",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponseDto.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "La cita fue modificada después de leerla; se debe volver a consultar y reintentar",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponseDto.class))
                     )
             }
@@ -204,6 +275,9 @@ public class    AppointmentController {
         String token = extractTokenFromRequest(httpRequest);
         ApiResponseDto<AppointmentResponseDto> response = appointmentService.updateAppointment(appointmentId, request, token);
         
+        if (request.getVersion() == null) {
+            return ResponseEntity.ok().header(HttpHeaders.WARNING, MISSING_VERSION_WARNING).body(response);
+        }
         return ResponseEntity.ok(response);
     }
 
@@ -229,6 +303,10 @@ public class    AppointmentController {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Cita eliminada exitosamente"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "La cita tiene pagos completados o reembolsados"
                     )
             }
     )
@@ -352,6 +430,217 @@ public class    AppointmentController {
         return ResponseEntity.ok(response);
     }
 
+    // ========== ENDPOINTS DE PAGINACIÓN POR CURSOR ==========
+
+    /**
+     * Obtiene todas las citas paginadas por cursor, sin conteo total
+     *
+     * Permisos de acceso:
+     * - ADMIN: Acceso completo a todas las citas del sistema
+     * - BARBER: Sin acceso a este endpoint
+     * - CLIENT: Sin acceso a este endpoint
+     *
+     * @param cursor Cursor devuelto por la página anterior (vacío para la primera)
+     * @param size Tamaño de página (máximo 100)
+     * @param sortBy Campo por el cual ordenar
+     * @param sortDir Dirección del ordenamiento (asc/desc)
+     * @param fields Campos a incluir en cada cita (opcional)
+     * @param httpRequest Request HTTP para extraer el token de autenticación
+     * @return Respuesta con la página de citas y el cursor de la siguiente
+     */
+    @Operation(
+            summary = "Obtener todas las citas por cursor",
+            description = "<strong>Permisos:</strong><br/>" +
+                         "• <strong>ADMIN:</strong> Acceso completo a todas las citas del sistema<br/>" +
+                         "• <strong>BARBER:</strong> Sin acceso a este endpoint<br/>" +
+                         "• <strong>CLIENT:</strong> Sin acceso a este endpoint",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Citas obtenidas exitosamente",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponseDto.class))
+                    )
+            }
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/all/cursor")
+    public ResponseEntity<ApiResponseDto<CursorPageDto<AppointmentResponseDto>>> getAllAppointmentsByCursor(
+            @Parameter(description = "Cursor de la página siguiente")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo por el cual ordenar", example = "appointmentDatetimeStart")
+            @RequestParam(defaultValue = "appointmentDatetimeStart") String sortBy,
+            @Parameter(description = "Dirección del ordenamiento (asc/desc)", example = "desc")
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @Parameter(description = "Campos a incluir separados por comas (p. ej. id,appointmentDateTime,status); vacío para todos")
+            @RequestParam(required = false) String fields,
+            HttpServletRequest httpRequest) {
+        
+        String token = extractTokenFromRequest(httpRequest);
+        FieldSelection selection = FieldSelection.fromRequest(fields, AppointmentResponseDto.class, "appointmentId", httpRequest);
+        ApiResponseDto<CursorPageDto<AppointmentResponseDto>> response = appointmentService.getAllAppointmentsByCursor(cursor, size, sortBy, sortDir, selection, token);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Busca citas combinando filtros opcionales, paginadas por cursor y ordenadas por fecha de inicio
+     *
+     * Permisos de acceso:
+     * - ADMIN: Puede buscar en todas las citas
+     * - BARBER: Solo obtiene citas asignadas a él
+     * - CLIENT: Solo obtiene sus propias citas
+     *
+     * @param filter Filtros opcionales, cursor y tamaño de página
+     * @param fields Campos a incluir en cada cita (opcional)
+     * @param httpRequest Request HTTP para extraer el token de autenticación
+     * @return Respuesta con la página de citas y el cursor siguiente
+     */
+    @Operation(
+            summary = "Buscar citas",
+            description = "Combina filtros opcionales (barbero, cliente, barbería, servicio, estados, rango de fechas y rango de precios) " +
+                         "en una sola consulta paginada por cursor (máximo 100 citas por página).<br/>" +
+                         "<strong>Permisos:</strong><br/>" +
+                         "• <strong>ADMIN:</strong> Puede buscar en todas las citas<br/>" +
+                         "• <strong>BARBER:</strong> Solo obtiene citas asignadas a él<br/>" +
+                         "• <strong>CLIENT:</strong> Solo obtiene sus propias citas",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Citas obtenidas exitosamente",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponseDto.class))
+                    )
+            }
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponseDto<CursorPageDto<AppointmentResponseDto>>> searchAppointments(
+            @Valid @ParameterObject AppointmentSearchRequestDto filter,
+            @Parameter(description = "Campos a incluir separados por comas (p. ej. id,appointmentDateTime,status); vacío para todos")
+            @RequestParam(required = false) String fields,
+            HttpServletRequest httpRequest) {
+
+        String token = extractTokenFromRequest(httpRequest);
+        FieldSelection selection = FieldSelection.fromRequest(fields, AppointmentResponseDto.class, "appointmentId", httpRequest);
+        ApiResponseDto<CursorPageDto<AppointmentResponseDto>> response = appointmentService.searchAppointments(filter, selection, token);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Obtiene las citas de un cliente paginadas por cursor, sin conteo total
+     *
+     * Permisos de acceso:
+     * - ADMIN: Puede ver citas de cualquier cliente
+     * - BARBER: Sin acceso a este endpoint
+     * - CLIENT: Solo puede ver sus propias citas
+     *
+     * @param clientId ID único del cliente
+     * @param cursor Cursor devuelto por la página anterior (vacío para la primera)
+     * @param size Tamaño de página (máximo 100)
+     * @param sortBy Campo por el cual ordenar
+     * @param sortDir Dirección del ordenamiento (asc/desc)
+     * @param fields Campos a incluir en cada cita (opcional)
+     * @param httpRequest Request HTTP para extraer el token de autenticación
+     * @return Respuesta con la página de citas y el cursor de la siguiente
+     */
+    @Operation(
+            summary = "Obtener citas por cliente por cursor",
+            description = "<strong>Permisos:</strong><br/>" +
+                         "• <strong>ADMIN:</strong> Puede ver citas de cualquier cliente<br/>" +
+                         "• <strong>BARBER:</strong> Sin acceso a este endpoint<br/>" +
+                         "• <strong>CLIENT:</strong> Solo puede ver sus propias citas",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Citas del cliente obtenidas exitosamente",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponseDto.class))
+                    )
+            }
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/by-client/cursor")
+    public ResponseEntity<ApiResponseDto<CursorPageDto<AppointmentResponseDto>>> getAppointmentsByClientByCursor(
+            @Parameter(description = "ID del cliente", required = true)
+            @RequestParam String clientId,
+            @Parameter(description = "Cursor de la página siguiente")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo por el cual ordenar", example = "appointmentDatetimeStart")
+            @RequestParam(defaultValue = "appointmentDatetimeStart") String sortBy,
+            @Parameter(description = "Dirección del ordenamiento (asc/desc)", example = "desc")
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @Parameter(description = "Campos a incluir separados por comas (p. ej. id,appointmentDateTime,status); vacío para todos")
+            @RequestParam(required = false) String fields,
+            HttpServletRequest httpRequest) {
+        
+        String token = extractTokenFromRequest(httpRequest);
+        FieldSelection selection = FieldSelection.fromRequest(fields, AppointmentResponseDto.class, "appointmentId", httpRequest);
+        ApiResponseDto<CursorPageDto<AppointmentResponseDto>> response = appointmentService.getAppointmentsByClientByCursor(clientId, cursor, size, sortBy, sortDir, selection, token);
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Obtiene las citas de un barbero paginadas por cursor, sin conteo total
+     *
+     * Permisos de acceso:
+     * - ADMIN: Puede ver citas de cualquier barbero (debe proporcionar barberId)
+     * - BARBER: Solo puede ver sus propias citas (puede proporcionar userId o barberId)
+     * - CLIENT: Sin acceso a este endpoint
+     *
+     * @param barberId ID único del barbero (opcional para barberos, requerido para admins)
+     * @param userId ID del usuario (opcional, usado para barberos que envían su userId)
+     * @param cursor Cursor devuelto por la página anterior (vacío para la primera)
+     * @param size Tamaño de página (máximo 100)
+     * @param sortBy Campo por el cual ordenar
+     * @param sortDir Dirección del ordenamiento (asc/desc)
+     * @param fields Campos a incluir en cada cita (opcional)
+     * @param httpRequest Request HTTP para extraer el token de autenticación
+     * @return Respuesta con la página de citas y el cursor de la siguiente
+     */
+    @Operation(
+            summary = "Obtener citas por barbero por cursor",
+            description = "<strong>Permisos:</strong><br/>" +
+                         "• <strong>ADMIN:</strong> Puede ver citas de cualquier barbero (debe proporcionar barberId)<br/>" +
+                         "• <strong>BARBER:</strong> Solo puede ver sus propias citas (puede proporcionar userId o barberId)<br/>" +
+                         "• <strong>CLIENT:</strong> Sin acceso a este endpoint",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Citas del barbero obtenidas exitosamente",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponseDto.class))
+                    )
+            }
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/by-barber/cursor")
+    public ResponseEntity<ApiResponseDto<CursorPageDto<AppointmentResponseDto>>> getAppointmentsByBarberByCursor(
+            @Parameter(description = "ID del barbero (opcional para barberos, requerido para admins)")
+            @RequestParam(required = false) String barberId,
+            @Parameter(description = "ID del usuario (opcional, usado para barberos)")
+            @RequestParam(required = false) String userId,
+            @Parameter(description = "Cursor de la página siguiente")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo por el cual ordenar", example = "appointmentDatetimeStart")
+            @RequestParam(defaultValue = "appointmentDatetimeStart") String sortBy,
+            @Parameter(description = "Dirección del ordenamiento (asc/desc)", example = "desc")
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @Parameter(description = "Campos a incluir separados por comas (p. ej. id,appointmentDateTime,status); vacío para todos")
+            @RequestParam(required = false) String fields,
+            HttpServletRequest httpRequest) {
+        
+        String token = extractTokenFromRequest(httpRequest);
+        FieldSelection selection = FieldSelection.fromRequest(fields, AppointmentResponseDto.class, "appointmentId", httpRequest);
+        ApiResponseDto<CursorPageDto<AppointmentResponseDto>> response = appointmentService.getAppointmentsByBarberByCursor(barberId, userId, cursor, size, sortBy, sortDir, selection, token);
+        
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Obtiene todas las citas filtradas por estado específico con paginación
      *
@@ -600,7 +889,53 @@ public class    AppointmentController {
         
         String token = extractTokenFromRequest(httpRequest);
         ApiResponseDto<AppointmentResponseDto> response = appointmentService.completeAppointment(appointmentId, token);
-        
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Confirma o completa varias citas en una sola operación (cierre del día)
+     *
+     * Permisos de acceso:
+     * - ADMIN: Puede actualizar cualquier cita
+     * - BARBER: Solo puede actualizar citas asignadas a él; las demás se informan como rechazadas
+     * - CLIENT: Sin acceso a este endpoint
+     *
+     * @param request IDs de las citas y estado destino (CONFIRMED o COMPLETED)
+     * @param httpRequest Request HTTP para extraer el token de autenticación
+     * @return Respuesta con el resultado de cada cita
+     */
+    @Operation(
+            summary = "Cambiar el estado de varias citas",
+            description = "Aplica el mismo estado (CONFIRMED o COMPLETED) a una lista de citas y devuelve el resultado de cada una. " +
+                         "Las citas que no existen, no pertenecen al barbero, no admiten la transición o cambiaron entre medias " +
+                         "se informan como no actualizadas sin afectar al resto. Los IDs se devuelven en forma canónica (minúsculas).<br/>" +
+                         "<strong>Permisos:</strong><br/>" +
+                         "• <strong>ADMIN:</strong> Puede actualizar cualquier cita<br/>" +
+                         "• <strong>BARBER:</strong> Solo puede actualizar citas asignadas a él<br/>" +
+                         "• <strong>CLIENT:</strong> Sin acceso a este endpoint",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Lote procesado; el detalle indica qué citas se actualizaron",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponseDto.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Algún ID de cita no es un UUID válido o el estado destino no se admite por lotes",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponseDto.class))
+                    )
+            }
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @PatchMapping("/status/batch")
+    public ResponseEntity<ApiResponseDto<List<BatchStatusTransitionResultDto>>> transitionAppointmentsStatus(
+            @Valid @RequestBody BatchStatusTransitionRequestDto request,
+            HttpServletRequest httpRequest) {
+
+        String token = extractTokenFromRequest(httpRequest);
+        ApiResponseDto<List<BatchStatusTransitionResultDto>> response = appointmentService.transitionAppointmentsStatus(request, token);
+
         return ResponseEntity.ok(response);
     }
 
@@ -1,9 +1,11 @@
 package com.barbershop.features.appointment.dto;
 
+import com.barbershop.common.util.FieldSelection;
 import com.barbershop.features.appointment.model.enums.AppointmentStatus;
 import com.barbershop.features.barber.dto.BarberResponseDto;
 import com.barbershop.features.service.dto.ServiceResponseDto;
 import com.barbershop.features.user.dto.UserResponseDto;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
@@ -12,6 +14,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
+@JsonFilter(FieldSelection.FILTER_ID)
 @Schema(description = "DTO de respuesta para información de la cita")
 public class AppointmentResponseDto {
 
@@ -51,6 +54,9 @@ public class AppointmentResponseDto {
     @Schema(description = "Fecha de última actualización de la cita", example = "2024-01-15T10:30:00")
     private LocalDateTime updatedAt;
 
+    @Schema(description = "Versión de la cita, aumenta con cada modificación", example = "3")
+    private Long version;
+
     @Schema(description = "Información del barbero asignado")
     private BarberResponseDto barber;
 
@@ -0,0 +1,34 @@
+package com.barbershop.features.appointment.dto;
+
+import com.barbershop.features.appointment.model.enums.AppointmentStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado del cambio de estado de una cita dentro de una operación por lotes
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado del cambio de estado de una cita dentro de un lote")
+public class BatchStatusTransitionResultDto {
+
+    @Schema(description = "ID de la cita", example = "550e8400-e29b-41d4-a716-446655440000")
+    private String appointmentId;
+
+    @Schema(description = "Indica si el estado se actualizó", example = "true")
+    private boolean updated;
+
+    @Schema(description = "Estado de la cita antes de la operación (null si no se encontró)", example = "CONFIRMED")
+    private AppointmentStatus previousStatus;
+
+    @Schema(description = "Estado de la cita tras la operación (null si no se encontró)", example = "COMPLETED")
+    private AppointmentStatus status;
+
+    @Schema(description = "Motivo cuando la cita no se actualizó", example = "Transición de estado inválida: de CANCELLED a COMPLETED")
+    private String message;
+}
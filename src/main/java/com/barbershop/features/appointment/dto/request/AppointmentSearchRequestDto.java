@@ -0,0 +1,62 @@
+package com.barbershop.features.appointment.dto.request;
+
+import com.barbershop.features.appointment.model.enums.AppointmentStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+@Schema(description = "Filtros opcionales para la búsqueda de citas paginada por cursor")
+public class AppointmentSearchRequestDto {
+
+    @Schema(description = "ID del barbero", example = "550e8400-e29b-41d4-a716-446655440000")
+    private String barberId;
+
+    @Schema(description = "ID del cliente", example = "550e8400-e29b-41d4-a716-446655440000")
+    private String clientId;
+
+    @Schema(description = "ID de la barbería", example = "550e8400-e29b-41d4-a716-446655440000")
+    private String barbershopId;
+
+    @Schema(description = "ID del servicio", example = "550e8400-e29b-41d4-a716-446655440000")
+    private String serviceId;
+
+    @Schema(description = "Estados de la cita (cualquiera de ellos)", example = "[\"SCHEDULED\", \"CONFIRMED\"]")
+    private Set<AppointmentStatus> status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    @Schema(description = "Inicio de la cita desde (inclusive)", example = "2024-02-12T00:00:00")
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    @Schema(description = "Inicio de la cita hasta (exclusivo)", example = "2024-02-19T00:00:00")
+    private LocalDateTime to;
+
+    @DecimalMin(value = "0.0", message = "El precio mínimo no puede ser negativo")
+    @Schema(description = "Precio mínimo (inclusive)", example = "10.00")
+    private BigDecimal minPrice;
+
+    @DecimalMin(value = "0.0", message = "El precio máximo no puede ser negativo")
+    @Schema(description = "Precio máximo (inclusive)", example = "50.00")
+    private BigDecimal maxPrice;
+
+    @Schema(description = "Cursor de la página anterior (vacío para la primera página)")
+    private String cursor;
+
+    @Min(value = 1, message = "El tamaño de página debe ser al menos 1")
+    @Max(value = 100, message = "El tamaño de página no puede exceder 100")
+    @Schema(description = "Tamaño de página (máximo 100)", example = "20")
+    private int size = 20;
+
+    @Pattern(regexp = "(?i)asc|desc", message = "La dirección de ordenamiento debe ser asc o desc")
+    @Schema(description = "Dirección del ordenamiento por fecha de inicio", example = "asc")
+    private String sortDir = "asc";
+}
@@ -0,0 +1,26 @@
+package com.barbershop.features.appointment.dto.request;
+
+import com.barbershop.features.appointment.model.enums.AppointmentStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "DTO para cambiar el estado de varias citas en una sola operación")
+public class BatchStatusTransitionRequestDto {
+
+    @NotEmpty(message = "Debe indicar al menos una cita")
+    @Size(max = 100, message = "No se pueden procesar más de 100 citas por solicitud")
+    @Schema(description = "IDs de las citas a actualizar",
+            example = "[\"550e8400-e29b-41d4-a716-446655440000\"]")
+    private List<@NotBlank(message = "El ID de la cita no puede estar vacío") String> appointmentIds;
+
+    @NotNull(message = "El estado destino es obligatorio")
+    @Schema(description = "Estado destino (CONFIRMED o COMPLETED)", example = "COMPLETED")
+    private AppointmentStatus targetStatus;
+}
@@ -37,4 +37,10 @@ public class UpdateAppointmentRequestDto {
     @Schema(description = "Nuevas notas adicionales para la cita", 
             example = "Cliente prefiere corte clásico")
     private String notes;
+
+    @PositiveOrZero(message = "La versión de la cita no puede ser negativa")
+    @Schema(description = "Versión de la cita leída por el cliente; si otra operación la modificó después se rechaza la actualización. " +
+            "Sin versión se aplica la última escritura: es un comportamiento obsoleto que se responde con el encabezado Warning",
+            example = "3")
+    private Long version;
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.barbershop.features.appointment.mapper;
 
+import com.barbershop.common.util.FieldSelection;
 import com.barbershop.features.appointment.dto.AppointmentResponseDto;
 import com.barbershop.features.appointment.dto.request.CreateAppointmentRequestDto;
 import com.barbershop.features.appointment.dto.request.UpdateAppointmentRequestDto;
@@ -45,6 +46,7 @@ public interface AppointmentMapper {
     @Mapping(target = "barber", ignore = true)
     @Mapping(target = "service", ignore = true)
     @Mapping(target = "payments", ignore = true)
+    @Mapping(target = "version", ignore = true) // Lo gestiona Hibernate; el del DTO solo se compara en el servicio
     void updateEntity(@MappingTarget Appointment entity, UpdateAppointmentRequestDto dto);
 
     @Mapping(target = "userId", source = "clientId")
@@ -56,6 +58,24 @@ public interface AppointmentMapper {
     @Mapping(target = "service", source = "service")
     AppointmentResponseDto toResponseDto(Appointment entity);
 
+    /**
+     * Igual que {@link #toResponseDto(Appointment)} pero solo con los campos seleccionados;
+     * las relaciones no seleccionadas no se leen, así que no se inicializan
+     */
+    @Mapping(target = "userId", source = "clientId")
+    @Mapping(target = "appointmentDateTime", source = "appointmentDatetimeStart")
+    @Mapping(target = "price", source = "priceAtBooking")
+    @Mapping(target = "durationMinutes", ignore = true)
+    @Mapping(target = "user", source = "client")
+    @Mapping(target = "barber", source = "barber")
+    @Mapping(target = "service", source = "service")
+    AppointmentResponseDto toResponseDto(Appointment entity, @Context FieldSelection fields);
+
+    @Condition
+    default boolean isSelected(@TargetPropertyName String property, @Context FieldSelection fields) {
+        return fields.includes(property);
+    }
+
     @IterableMapping(elementTargetType = AppointmentResponseDto.class)
     java.util.List<AppointmentResponseDto> toResponseDtoList(java.util.List<Appointment> entities);
 }
\ No newline at end of file
@@ -1,12 +1,16 @@
 package com.barbershop.features.appointment.model;
 
+import com.barbershop.common.util.UuidStringType;
+import com.barbershop.common.util.UuidV7Generator;
 import com.barbershop.features.appointment.model.enums.AppointmentStatus;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Type;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
@@ -21,19 +25,25 @@ import java.util.List;
 public class Appointment implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @Type(UuidStringType.class)
     @Column(name = "appointment_id")
     private String appointmentId;
 
+    @Type(UuidStringType.class)
     @Column(name = "barbershop_id", nullable = false)
     private String barbershopId;
 
+    @Type(UuidStringType.class)
     @Column(name = "client_id", nullable = false)
     private String clientId;
 
+    @Type(UuidStringType.class)
     @Column(name = "barber_id", nullable = false)
     private String barberId;
 
+    @Type(UuidStringType.class)
     @Column(name = "service_id", nullable = false)
     private String serviceId;
 
@@ -61,6 +71,11 @@ public class Appointment implements Serializable {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // Bloqueo optimista: las transiciones de estado lo comprueban con un UPDATE condicional
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Relaciones
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id", insertable = false, updatable = false)
@@ -74,6 +89,7 @@ public class Appointment implements Serializable {
     @JoinColumn(name = "service_id", insertable = false, updatable = false)
     private com.barbershop.features.service.model.Service service;
 
-    @OneToMany(mappedBy = "appointment", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    // Sin cascada: AppointmentService.deleteAppointment decide qué pagos se pueden eliminar con la cita
+    @OneToMany(mappedBy = "appointment", fetch = FetchType.LAZY)
     private List<com.barbershop.features.payment.model.Payment> payments;
 }
\ No newline at end of file
@@ -1,10 +1,38 @@
 package com.barbershop.features.appointment.model.enums;
 
+import java.util.Arrays;
+import java.util.List;
+
 public enum AppointmentStatus {
     SCHEDULED,
     CONFIRMED,
     IN_PROGRESS,
     COMPLETED,
     CANCELLED,
-    NO_SHOW
-}
\ No newline at end of file
+    NO_SHOW;
+
+    /**
+     * Indica si una cita en este estado puede pasar al estado indicado
+     * @param newStatus Estado destino
+     * @return true si la transición es válida
+     */
+    public boolean canTransitionTo(AppointmentStatus newStatus) {
+        return switch (this) {
+            case SCHEDULED -> newStatus == CONFIRMED || newStatus == IN_PROGRESS || newStatus == CANCELLED || newStatus == NO_SHOW;
+            case CONFIRMED -> newStatus == IN_PROGRESS || newStatus == COMPLETED || newStatus == CANCELLED || newStatus == NO_SHOW;
+            case IN_PROGRESS -> newStatus == COMPLETED || newStatus == CANCELLED;
+            case COMPLETED, CANCELLED, NO_SHOW -> false; // Estados finales
+        };
+    }
+
+    /**
+     * Estados desde los que se puede llegar al estado indicado
+     * @param newStatus Estado destino
+     * @return Estados de origen válidos según {@link #canTransitionTo(AppointmentStatus)}
+     */
+    public static List<AppointmentStatus> sourcesOf(AppointmentStatus newStatus) {
+        return Arrays.stream(values())
+                .filter(status -> status.canTransitionTo(newStatus))
+                .toList();
+    }
+}
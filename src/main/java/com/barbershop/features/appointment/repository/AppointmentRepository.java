@@ -4,23 +4,34 @@ import com.barbershop.features.appointment.model.Appointment;
 import com.barbershop.features.appointment.model.enums.AppointmentStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 import java.util.Optional;
 
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, String> {
+public interface AppointmentRepository extends JpaRepository<Appointment, String>, JpaSpecificationExecutor<Appointment> {
+
+    // Los listados que se mapean a AppointmentResponseDto cargan cliente, barbero y servicio en la misma consulta
+    @Override
+    @EntityGraph(attributePaths = {"client", "barber", "service"})
+    Page<Appointment> findAll(Pageable pageable);
 
     // Consultas básicas por cliente
     @Query("SELECT a FROM Appointment a WHERE a.clientId = :clientId ORDER BY a.appointmentDatetimeStart DESC")
     List<Appointment> findByClientId(@Param("clientId") String clientId);
 
     @Query("SELECT a FROM Appointment a WHERE a.clientId = :clientId ORDER BY a.appointmentDatetimeStart DESC")
+    @EntityGraph(attributePaths = {"client", "barber", "service"})
     Page<Appointment> findByClientId(@Param("clientId") String clientId, Pageable pageable);
 
     // Consultas básicas por barbero
@@ -28,6 +39,7 @@ public interface AppointmentRepository extends JpaRepository<Appointment, String
     List<Appointment> findByBarberId(@Param("barberId") String barberId);
 
     @Query("SELECT a FROM Appointment a WHERE a.barberId = :barberId ORDER BY a.appointmentDatetimeStart DESC")
+    @EntityGraph(attributePaths = {"client", "barber", "service"})
     Page<Appointment> findByBarberId(@Param("barberId") String barberId, Pageable pageable);
 
     // Consultas básicas por barbería
@@ -42,6 +54,7 @@ public interface AppointmentRepository extends JpaRepository<Appointment, String
     List<Appointment> findByStatus(@Param("status") AppointmentStatus status);
 
     @Query("SELECT a FROM Appointment a WHERE a.status = :status ORDER BY a.appointmentDatetimeStart DESC")
+    @EntityGraph(attributePaths = {"client", "barber", "service"})
     Page<Appointment> findByStatus(@Param("status") AppointmentStatus status, Pageable pageable);
 
     // Consultas por cliente y estado
@@ -86,19 +99,12 @@ public interface AppointmentRepository extends JpaRepository<Appointment, String
     @Query("SELECT a FROM Appointment a WHERE a.clientId = :clientId AND a.appointmentDatetimeStart BETWEEN :startDate AND :endDate ORDER BY a.appointmentDatetimeStart ASC")
     Page<Appointment> findByClientIdAndDateRange(@Param("clientId") String clientId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate, Pageable pageable);
 
-    // Consultas para validar conflictos de horarios
-    @Query("SELECT a FROM Appointment a WHERE a.barberId = :barberId AND a.status IN ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS') AND ((a.appointmentDatetimeStart < :endTime AND a.appointmentDatetimeEnd > :startTime))")
-    List<Appointment> findConflictingAppointments(@Param("barberId") String barberId, @Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
-
-    @Query("SELECT a FROM Appointment a WHERE a.barberId = :barberId AND a.appointmentId != :appointmentId AND a.status IN ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS') AND ((a.appointmentDatetimeStart < :endTime AND a.appointmentDatetimeEnd > :startTime))")
-    List<Appointment> findConflictingAppointmentsExcluding(@Param("barberId") String barberId, @Param("appointmentId") String appointmentId, @Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
-
-    // Consultas para citas del día
-    @Query("SELECT a FROM Appointment a WHERE a.barberId = :barberId AND DATE(a.appointmentDatetimeStart) = DATE(:date) ORDER BY a.appointmentDatetimeStart ASC")
-    List<Appointment> findByBarberIdAndDate(@Param("barberId") String barberId, @Param("date") LocalDateTime date);
+    // Consultas para citas del día (rango [inicio, fin) para poder usar los índices sobre la fecha de inicio)
+    @Query("SELECT a FROM Appointment a WHERE a.barberId = :barberId AND a.appointmentDatetimeStart >= :startOfDay AND a.appointmentDatetimeStart < :endOfDay ORDER BY a.appointmentDatetimeStart ASC")
+    List<Appointment> findByBarberIdAndDate(@Param("barberId") String barberId, @Param("startOfDay") LocalDateTime startOfDay, @Param("endOfDay") LocalDateTime endOfDay);
 
-    @Query("SELECT a FROM Appointment a WHERE a.clientId = :clientId AND DATE(a.appointmentDatetimeStart) = DATE(:date) ORDER BY a.appointmentDatetimeStart ASC")
-    List<Appointment> findByClientIdAndDate(@Param("clientId") String clientId, @Param("date") LocalDateTime date);
+    @Query("SELECT a FROM Appointment a WHERE a.clientId = :clientId AND a.appointmentDatetimeStart >= :startOfDay AND a.appointmentDatetimeStart < :endOfDay ORDER BY a.appointmentDatetimeStart ASC")
+    List<Appointment> findByClientIdAndDate(@Param("clientId") String clientId, @Param("startOfDay") LocalDateTime startOfDay, @Param("endOfDay") LocalDateTime endOfDay);
 
     // Consultas con joins para información completa
     @Query("SELECT a FROM Appointment a JOIN FETCH a.client JOIN FETCH a.barber JOIN FETCH a.service WHERE a.appointmentId = :appointmentId")
@@ -123,17 +129,19 @@ public interface AppointmentRepository extends JpaRepository<Appointment, String
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.barbershopId = :barbershopId AND a.status = :status")
     long countByBarbershopIdAndStatus(@Param("barbershopId") String barbershopId, @Param("status") AppointmentStatus status);
 
-    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.barberId = :barberId AND DATE(a.appointmentDatetimeStart) = DATE(:date)")
-    long countByBarberIdAndDate(@Param("barberId") String barberId, @Param("date") LocalDateTime date);
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.barberId = :barberId AND a.appointmentDatetimeStart >= :startOfDay AND a.appointmentDatetimeStart < :endOfDay")
+    long countByBarberIdAndDate(@Param("barberId") String barberId, @Param("startOfDay") LocalDateTime startOfDay, @Param("endOfDay") LocalDateTime endOfDay);
 
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.appointmentDatetimeStart >= :startOfDay AND a.appointmentDatetimeStart < :endOfDay")
     long countTodayAppointments(@Param("startOfDay") LocalDateTime startOfDay, @Param("endOfDay") LocalDateTime endOfDay);
 
     // Consultas para próximas citas
     @Query("SELECT a FROM Appointment a WHERE a.clientId = :clientId AND a.appointmentDatetimeStart > :now AND a.status IN ('SCHEDULED', 'CONFIRMED') ORDER BY a.appointmentDatetimeStart ASC")
+    @EntityGraph(attributePaths = {"client", "barber", "service"})
     List<Appointment> findUpcomingByClientId(@Param("clientId") String clientId, @Param("now") LocalDateTime now);
 
     @Query("SELECT a FROM Appointment a WHERE a.barberId = :barberId AND a.appointmentDatetimeStart > :now AND a.status IN ('SCHEDULED', 'CONFIRMED') ORDER BY a.appointmentDatetimeStart ASC")
+    @EntityGraph(attributePaths = {"client", "barber", "service"})
     List<Appointment> findUpcomingByBarberId(@Param("barberId") String barberId, @Param("now") LocalDateTime now);
 
     // Consultas para historial de citas
@@ -153,11 +161,45 @@ public interface AppointmentRepository extends JpaRepository<Appointment, String
     @Query("SELECT a FROM Appointment a WHERE a.barberId IN :barberIds AND a.appointmentDatetimeStart BETWEEN :startDate AND :endDate AND a.status IN ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS') ORDER BY a.appointmentDatetimeStart ASC")
     List<Appointment> findByBarberIdInAndAppointmentDatetimeStartBetween(@Param("barberIds") List<String> barberIds, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
-    // Consulta para encontrar citas perdidas (para el servicio programado)
-    @Query("SELECT a FROM Appointment a WHERE a.status IN ('SCHEDULED', 'CONFIRMED') AND a.appointmentDatetimeEnd < :currentTime ORDER BY a.appointmentDatetimeEnd ASC")
-    List<Appointment> findMissedAppointments(@Param("currentTime") LocalDateTime currentTime);
+    // Transiciones de estado sin lectura previa: solo se aplican si el estado y la versión siguen siendo los esperados
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Appointment a SET a.status = :newStatus, a.updatedAt = :updatedAt, a.version = a.version + 1 " +
+            "WHERE a.appointmentId = :appointmentId AND a.status = :expectedStatus AND a.version = :expectedVersion")
+    int transitionStatus(@Param("appointmentId") String appointmentId,
+                         @Param("expectedStatus") AppointmentStatus expectedStatus,
+                         @Param("expectedVersion") Long expectedVersion,
+                         @Param("newStatus") AppointmentStatus newStatus,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Transición por lotes en un único UPDATE: cada cita se compara con la versión leída y se devuelven las que cambiaron.
+    // Ids y versiones llegan como arreglos uuid[] y bigint[] del mismo largo, en el mismo orden
+    @Query(value = "UPDATE appointments a SET status = :newStatus, updated_at = :updatedAt, version = a.version + 1 " +
+            "FROM unnest(CAST(:appointmentIds AS uuid[]), CAST(:versions AS bigint[])) AS expected(appointment_id, version) " +
+            "WHERE a.appointment_id = expected.appointment_id AND a.version = expected.version AND a.status IN (:expectedStatuses) " +
+            "RETURNING CAST(a.appointment_id AS varchar)", nativeQuery = true)
+    List<String> transitionStatusBatch(@Param("appointmentIds") UUID[] appointmentIds,
+                                       @Param("versions") Long[] versions,
+                                       @Param("expectedStatuses") List<String> expectedStatuses,
+                                       @Param("newStatus") String newStatus,
+                                       @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Marca las citas perdidas (servicio programado) en un único UPDATE
+    // La condición sobre la fecha de inicio es redundante, pero permite descartar las particiones futuras
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = :newStatus, a.updatedAt = :currentTime, a.version = a.version + 1 " +
+            "WHERE a.status IN :expectedStatuses AND a.appointmentDatetimeStart < :currentTime AND a.appointmentDatetimeEnd < :currentTime")
+    int transitionMissedAppointments(@Param("expectedStatuses") List<AppointmentStatus> expectedStatuses,
+                                     @Param("newStatus") AppointmentStatus newStatus,
+                                     @Param("currentTime") LocalDateTime currentTime);
 
     // Consulta para contar citas por estado en un rango de fechas (para estadísticas)
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.status = :status AND a.appointmentDatetimeStart BETWEEN :startDate AND :endDate")
     long countByStatusAndDateRange(@Param("status") AppointmentStatus status, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+
+    // Mantenimiento de particiones mensuales (funciones definidas en V5__partition_appointments_by_month.sql)
+    @Query(value = "SELECT create_appointment_partition(CAST(:month AS date))", nativeQuery = true)
+    boolean createMonthlyPartition(@Param("month") LocalDate month);
+
+    @Query(value = "SELECT detach_appointment_partitions(CAST(:before AS date))", nativeQuery = true)
+    int detachMonthlyPartitionsBefore(@Param("before") LocalDate before);
+}
@@ -0,0 +1,79 @@
+package com.barbershop.features.appointment.repository;
+
+import com.barbershop.features.appointment.dto.request.AppointmentSearchRequestDto;
+import com.barbershop.features.appointment.model.Appointment;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Construye la consulta de búsqueda de citas a partir de filtros opcionales.
+ * Los predicados se agregan en el orden de los índices compuestos (columna de igualdad, luego
+ * appointment_datetime_start): barbero, cliente, barbería, servicio, estado, rango de fechas y por último el precio,
+ * que no tiene índice y se evalúa sobre las filas ya acotadas.
+ */
+public final class AppointmentSpecifications {
+
+    private AppointmentSpecifications() {
+    }
+
+    public static Specification<Appointment> search(AppointmentSearchRequestDto filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (hasText(filter.getBarberId())) {
+                predicates.add(cb.equal(root.get("barberId"), filter.getBarberId()));
+            }
+            if (hasText(filter.getClientId())) {
+                predicates.add(cb.equal(root.get("clientId"), filter.getClientId()));
+            }
+            if (hasText(filter.getBarbershopId())) {
+                predicates.add(cb.equal(root.get("barbershopId"), filter.getBarbershopId()));
+            }
+            if (hasText(filter.getServiceId())) {
+                predicates.add(cb.equal(root.get("serviceId"), filter.getServiceId()));
+            }
+            if (filter.getStatus() != null && !filter.getStatus().isEmpty()) {
+                predicates.add(root.get("status").in(filter.getStatus()));
+            }
+            // Rango semiabierto sobre la clave de partición para que PostgreSQL descarte particiones
+            if (filter.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("appointmentDatetimeStart"), filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                predicates.add(cb.lessThan(root.<LocalDateTime>get("appointmentDatetimeStart"), filter.getTo()));
+            }
+            if (filter.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<BigDecimal>get("priceAtBooking"), filter.getMinPrice()));
+            }
+            if (filter.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<BigDecimal>get("priceAtBooking"), filter.getMaxPrice()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Trae en la misma consulta las relaciones a uno indicadas, sin cambiar el número de filas.
+     * La lectura por keyset (scroll) de Spring Data no aplica el grafo de project(), por eso se unen aquí
+     */
+    public static Specification<Appointment> fetch(Collection<String> relations) {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                relations.forEach(relation -> root.fetch(relation, JoinType.LEFT));
+            }
+            return null;
+        };
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
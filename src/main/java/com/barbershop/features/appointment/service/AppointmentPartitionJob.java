@@ -0,0 +1,56 @@
+package com.barbershop.features.appointment.service;
+
+import com.barbershop.features.appointment.config.AppointmentProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Mantiene las particiones mensuales de citas: crea las de los próximos meses
+ * al iniciar y cada día, y separa las antiguas si hay retención configurada
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AppointmentPartitionJob {
+
+    private final AppointmentPartitionService appointmentPartitionService;
+    private final AppointmentProperties appointmentProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "0 15 2 * * *")
+    public void maintainPartitions() {
+        AppointmentProperties.Partitioning config = appointmentProperties.getPartitioning();
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        try {
+            int created = appointmentPartitionService.ensureFuturePartitions(config.getMonthsAhead());
+            if (created > 0) {
+                log.info("Particiones de citas creadas: {}", created);
+            }
+        } catch (Exception e) {
+            log.error("Error al crear las particiones de citas: {}", e.getMessage(), e);
+        }
+
+        if (config.getDetachAfterMonths() <= 0) {
+            return;
+        }
+        try {
+            int detached = appointmentPartitionService.detachOldPartitions(config.getDetachAfterMonths());
+            if (detached > 0) {
+                log.info("Particiones de citas separadas por antigüedad: {}", detached);
+            }
+        } catch (Exception e) {
+            log.error("Error al separar particiones antiguas de citas: {}", e.getMessage(), e);
+        }
+    }
+}
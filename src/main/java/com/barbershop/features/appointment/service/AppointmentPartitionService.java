@@ -0,0 +1,46 @@
+package com.barbershop.features.appointment.service;
+
+import com.barbershop.features.appointment.repository.AppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Crea y separa las particiones mensuales de la tabla de citas
+ */
+@Service
+@RequiredArgsConstructor
+public class AppointmentPartitionService {
+
+    private final AppointmentRepository appointmentRepository;
+
+    /**
+     * Asegura que existan las particiones desde el mes actual hasta los meses futuros indicados
+     * @param monthsAhead Cantidad de meses futuros
+     * @return Cantidad de particiones creadas
+     */
+    @Transactional
+    public int ensureFuturePartitions(int monthsAhead) {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++) {
+            if (appointmentRepository.createMonthlyPartition(month.plusMonths(i))) {
+                created++;
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Separa las particiones de los meses anteriores a la ventana de retención
+     * @param retainedMonths Meses completos que se conservan además del actual
+     * @return Cantidad de particiones separadas
+     */
+    @Transactional
+    public int detachOldPartitions(int retainedMonths) {
+        LocalDate before = LocalDate.now().withDayOfMonth(1).minusMonths(retainedMonths);
+        return appointmentRepository.detachMonthlyPartitionsBefore(before);
+    }
+}
@@ -1,13 +1,21 @@
 package com.barbershop.features.appointment.service;
 
 import com.barbershop.common.dto.ApiResponseDto;
+import com.barbershop.common.dto.CursorPageDto;
 import com.barbershop.common.exception.ResourceNotFoundException;
 import com.barbershop.common.exception.BusinessLogicException;
 import com.barbershop.common.service.EmailService;
+import com.barbershop.common.service.StreamingExportService;
+import com.barbershop.common.util.ExportFormat;
+import com.barbershop.common.util.FieldSelection;
+import com.barbershop.common.util.KeysetCursor;
 import com.barbershop.features.auth.exception.InvalidCredentialsException;
 import com.barbershop.features.appointment.dto.AppointmentResponseDto;
+import com.barbershop.features.appointment.dto.BatchStatusTransitionResultDto;
 import com.barbershop.features.appointment.dto.BarberAvailabilityDto;
 import com.barbershop.features.appointment.dto.BarbersAvailabilityResponseDto;
+import com.barbershop.features.appointment.dto.request.AppointmentSearchRequestDto;
+import com.barbershop.features.appointment.dto.request.BatchStatusTransitionRequestDto;
 import com.barbershop.features.appointment.dto.request.CreateAppointmentRequestDto;
 import com.barbershop.features.appointment.dto.request.UpdateAppointmentRequestDto;
 import com.barbershop.features.appointment.mapper.AppointmentMapper;
@@ -19,6 +27,7 @@ import com.barbershop.features.appointment.model.Appointment;
 import com.barbershop.features.appointment.model.enums.AppointmentStatus;
 import com.barbershop.features.appointment.model.enums.AvailabilityStatus;
 import com.barbershop.features.appointment.repository.AppointmentRepository;
+import com.barbershop.features.appointment.repository.AppointmentSpecifications;
 import com.barbershop.features.auth.security.JwtService;
 import com.barbershop.features.barber.repository.BarberRepository;
 import com.barbershop.features.barber.repository.BarberAvailabilityRepository;
@@ -28,27 +37,43 @@ import com.barbershop.features.barber.model.DayOfWeek;
 import com.barbershop.features.barbershop.model.BarbershopOperatingHours;
 import com.barbershop.features.barbershop.repository.BarbershopRepository;
 import com.barbershop.features.barbershop.repository.BarbershopOperatingHoursRepository;
+import com.barbershop.features.payment.model.Payment;
+import com.barbershop.features.payment.model.enums.PaymentStatus;
+import com.barbershop.features.payment.repository.PaymentRepository;
+import com.barbershop.features.payment.service.PaymentAggregateService;
 import com.barbershop.features.service.repository.ServiceRepository;
 import com.barbershop.features.user.model.User;
 import com.barbershop.features.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.Map;
 import java.util.function.Function;
@@ -60,6 +85,17 @@ import java.util.stream.Collectors;
 @Transactional
 public class AppointmentService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    // Prefijo de la restricción de exclusión que se crea en cada partición mensual de appointments
+    private static final String BARBER_NO_OVERLAP_CONSTRAINT = "ex_appointments_barber_no_overlap";
+
+    // Estados que se pueden aplicar por lotes al cerrar el día
+    private static final Set<AppointmentStatus> BATCH_TARGET_STATUSES = EnumSet.of(AppointmentStatus.CONFIRMED, AppointmentStatus.COMPLETED);
+
+    // Campo del DTO de respuesta -> relación de la entidad que lo alimenta
+    private static final Map<String, String> RESPONSE_RELATIONS = Map.of("user", "client", "barber", "barber", "service", "service");
+
     private final AppointmentRepository appointmentRepository;
     private final AppointmentMapper appointmentMapper;
     private final JwtService jwtService;
@@ -69,7 +105,10 @@ public class AppointmentService {
     private final BarbershopRepository barbershopRepository;
     private final BarbershopOperatingHoursRepository operatingHoursRepository;
     private final BarberAvailabilityRepository barberAvailabilityRepository;
+    private final PaymentRepository paymentRepository;
+    private final PaymentAggregateService paymentAggregateService;
     private final EmailService emailService;
+    private final StreamingExportService streamingExportService;
 
     /**
      * Crea una nueva cita
@@ -83,9 +122,6 @@ public class AppointmentService {
         // Validar que existan las entidades relacionadas
         validateRelatedEntities(request);
         
-        // Validar disponibilidad del barbero
-        validateBarberAvailability(request);
-        
         Appointment appointment = appointmentMapper.toEntity(request);
         
         // Establecer campos calculados
@@ -98,7 +134,8 @@ public class AppointmentService {
                 .getBarbershopId();
         appointment.setBarbershopId(barbershopId);
         
-        Appointment savedAppointment = appointmentRepository.save(appointment);
+        // La restricción de exclusión de la BD rechaza el solapamiento con otra cita activa del barbero
+        Appointment savedAppointment = saveCheckingOverlap(appointment);
         
         AppointmentResponseDto responseDto = appointmentMapper.toResponseDto(savedAppointment);
         
@@ -260,6 +297,169 @@ public class AppointmentService {
         }
     }
 
+    // ========== PAGINACIÓN POR CURSOR ==========
+
+    /**
+     * Obtiene todas las citas paginadas por cursor (sin conteo total ni OFFSET)
+     */
+    @Transactional(readOnly = true)
+    public ApiResponseDto<CursorPageDto<AppointmentResponseDto>> getAllAppointmentsByCursor(String cursor, int size, String sortBy, String sortDir, FieldSelection fields, String token) {
+        // Solo administradores pueden ver todas las citas
+        validateAdminAccess(token);
+        
+        CursorPageDto<AppointmentResponseDto> responsePage = scrollAppointments(
+                (root, query, cb) -> cb.conjunction(), cursor, size, sortBy, sortDir, fields);
+        
+        return ApiResponseDto.<CursorPageDto<AppointmentResponseDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("Citas obtenidas exitosamente")
+                .data(responsePage)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Obtiene citas de un cliente paginadas por cursor
+     */
+    @Transactional(readOnly = true)
+    public ApiResponseDto<CursorPageDto<AppointmentResponseDto>> getAppointmentsByClientByCursor(String clientId, String cursor, int size, String sortBy, String sortDir, FieldSelection fields, String token) {
+        log.info("Obteniendo citas del cliente por cursor: {}", clientId);
+        
+        // Validar autorización
+        validateClientAccess(token, clientId);
+        
+        CursorPageDto<AppointmentResponseDto> responsePage = scrollAppointments(
+                (root, query, cb) -> cb.equal(root.get("clientId"), clientId), cursor, size, sortBy, sortDir, fields);
+        
+        return ApiResponseDto.<CursorPageDto<AppointmentResponseDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("Citas del cliente obtenidas exitosamente")
+                .data(responsePage)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Obtiene citas de un barbero paginadas por cursor
+     */
+    @Transactional(readOnly = true)
+    public ApiResponseDto<CursorPageDto<AppointmentResponseDto>> getAppointmentsByBarberByCursor(String barberId, String userId, String cursor, int size, String sortBy, String sortDir, FieldSelection fields, String token) {
+
+        // Determinar el barberId final basado en los parámetros y el rol del usuario
+        String finalBarberId = resolveBarberId(barberId, userId, token);
+        
+        // Validar autorización usando el userId original si se proporcionó
+        validateBarberAccess(token, finalBarberId, userId);
+        
+        CursorPageDto<AppointmentResponseDto> responsePage = scrollAppointments(
+                (root, query, cb) -> cb.equal(root.get("barberId"), finalBarberId), cursor, size, sortBy, sortDir, fields);
+        
+        return ApiResponseDto.<CursorPageDto<AppointmentResponseDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("Citas del barbero obtenidas exitosamente")
+                .data(responsePage)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Busca citas combinando filtros opcionales en una sola consulta paginada por cursor.
+     * Los barberos quedan limitados a sus citas y los clientes a las suyas.
+     */
+    @Transactional(readOnly = true)
+    public ApiResponseDto<CursorPageDto<AppointmentResponseDto>> searchAppointments(AppointmentSearchRequestDto filter, FieldSelection fields, String token) {
+        log.info("Buscando citas con filtros: {}", filter);
+
+        if (filter.getFrom() != null && filter.getTo() != null && !filter.getFrom().isBefore(filter.getTo())) {
+            throw new BusinessLogicException("La fecha inicial debe ser anterior a la fecha final");
+        }
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null
+                && filter.getMinPrice().compareTo(filter.getMaxPrice()) > 0) {
+            throw new BusinessLogicException("El precio mínimo no puede ser mayor que el precio máximo");
+        }
+
+        restrictSearchToCaller(filter, token);
+
+        // Orden fijo por fecha de inicio: es la segunda columna de todos los índices compuestos de citas
+        CursorPageDto<AppointmentResponseDto> responsePage = scrollAppointments(
+                AppointmentSpecifications.search(filter), filter.getCursor(), filter.getSize(),
+                "appointmentDatetimeStart", filter.getSortDir(), fields);
+
+        return ApiResponseDto.<CursorPageDto<AppointmentResponseDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("Citas obtenidas exitosamente")
+                .data(responsePage)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Fija el filtro de barbero o cliente según el rol del usuario del token
+     */
+    private void restrictSearchToCaller(AppointmentSearchRequestDto filter, String token) {
+        String userRole = jwtService.extractRole(token);
+
+        if ("ROLE_ADMIN".equals(userRole)) {
+            return;
+        }
+
+        User currentUser = userRepository.findByEmail(jwtService.getUsernameFromToken(token))
+                .orElseThrow(() -> new AccessDeniedException("Usuario no encontrado"));
+
+        if ("ROLE_BARBER".equals(userRole)) {
+            String currentBarberId = barberRepository.findByUserIdAndActive(currentUser.getUserId())
+                    .map(Barber::getBarberId)
+                    .orElseThrow(() -> new AccessDeniedException("No se encontró información del barbero para el usuario actual"));
+            if (filter.getBarberId() != null && !filter.getBarberId().isBlank() && !currentBarberId.equals(filter.getBarberId())) {
+                throw new AccessDeniedException("No tienes permisos para acceder a las citas de este barbero");
+            }
+            filter.setBarberId(currentBarberId);
+            return;
+        }
+
+        if ("ROLE_CLIENT".equals(userRole)) {
+            if (filter.getClientId() != null && !filter.getClientId().isBlank() && !currentUser.getUserId().equals(filter.getClientId())) {
+                throw new AccessDeniedException("No tienes permisos para acceder a las citas de este cliente");
+            }
+            filter.setClientId(currentUser.getUserId());
+            return;
+        }
+
+        throw new AccessDeniedException("No tienes permisos para realizar esta acción");
+    }
+
+    /**
+     * Lee una página por keyset: ordena por (campo, appointmentId) y continúa después del último elemento del cursor.
+     * Solo se traen en la misma consulta las relaciones incluidas en la selección de campos.
+     */
+    private CursorPageDto<AppointmentResponseDto> scrollAppointments(Specification<Appointment> specification, String cursor,
+                                                                     int size, String sortBy, String sortDir, FieldSelection fields) {
+        String sortField = mapSortField(sortBy);
+        if ("notes".equals(sortField)) {
+            // El keyset requiere valores no nulos
+            throw new BusinessLogicException("La paginación por cursor no admite ordenar por " + sortBy);
+        }
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        
+        KeysetScrollPosition position = KeysetCursor.decode(cursor, sortField, direction, Appointment.class);
+        List<String> relations = RESPONSE_RELATIONS.entrySet().stream()
+                .filter(relation -> fields.includes(relation.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+        Window<Appointment> window = appointmentRepository.findBy(specification.and(AppointmentSpecifications.fetch(relations)), query -> query
+                .sortBy(Sort.by(direction, sortField, "appointmentId"))
+                .limit(limit)
+                .scroll(position));
+        
+        return CursorPageDto.<AppointmentResponseDto>builder()
+                .content(window.getContent().stream().map(appointment -> appointmentMapper.toResponseDto(appointment, fields)).toList())
+                .size(window.size())
+                .hasNext(window.hasNext())
+                .nextCursor(KeysetCursor.next(window, sortField, direction))
+                .build();
+    }
+
     /**
      * Obtiene citas por cliente
      */
@@ -413,14 +613,23 @@ public class AppointmentService {
         
         // Validar que la cita se pueda modificar
         validateAppointmentCanBeModified(appointment);
-        
-        // Si se cambia la fecha/hora, validar disponibilidad
-        if (request.getAppointmentDateTime() != null && !request.getAppointmentDateTime().equals(appointment.getAppointmentDatetimeStart())) {
-            validateBarberAvailabilityForUpdate(appointment.getBarberId(), appointmentId, request.getAppointmentDateTime(), 
-                    request.getDurationMinutes() != null ? request.getDurationMinutes() : 
-                    (int) java.time.Duration.between(appointment.getAppointmentDatetimeStart(), appointment.getAppointmentDatetimeEnd()).toMinutes());
+
+        // La actualización se calculó sobre la versión que leyó el cliente; si otra operación la modificó
+        // después se rechaza en lugar de sobrescribir sus cambios. Entre esta comprobación y el flush
+        // la protege el @Version de la entidad. Los clientes anteriores no envían la versión: se mantiene
+        // la última escritura y el controlador responde con un aviso de obsolescencia.
+        if (request.getVersion() == null) {
+            log.warn("Actualización de la cita {} sin versión: se aplica sin comprobar modificaciones concurrentes", appointmentId);
+        } else if (!appointment.getVersion().equals(request.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Appointment.class, appointmentId);
         }
-        
+
+        // Un cambio de estado por esta vía también debe respetar la tabla de transiciones
+        if (request.getStatus() != null && request.getStatus() != appointment.getStatus()
+                && !appointment.getStatus().canTransitionTo(request.getStatus())) {
+            throw new BusinessLogicException(String.format("Transición de estado inválida: de %s a %s", appointment.getStatus(), request.getStatus()));
+        }
+
         appointmentMapper.updateEntity(appointment, request);
         
         // Recalcular fecha de fin si cambió la duración o fecha de inicio
@@ -431,7 +640,7 @@ public class AppointmentService {
             appointment.setAppointmentDatetimeEnd(startTime.plusMinutes(duration));
         }
         
-        Appointment updatedAppointment = appointmentRepository.save(appointment);
+        Appointment updatedAppointment = saveCheckingOverlap(appointment);
         AppointmentResponseDto responseDto = appointmentMapper.toResponseDto(updatedAppointment);
         
         log.info("Cita actualizada exitosamente con ID: {}", appointmentId);
@@ -455,17 +664,7 @@ public class AppointmentService {
         // Validar autorización
         validateAppointmentModificationAccess(token, appointment);
         
-        // Validar que la cita se pueda cancelar
-        if (appointment.getStatus() == AppointmentStatus.COMPLETED || 
-            appointment.getStatus() == AppointmentStatus.CANCELLED ||
-            appointment.getStatus() == AppointmentStatus.NO_SHOW) {
-            throw new BusinessLogicException("No se puede cancelar una cita que ya está " + appointment.getStatus().name().toLowerCase());
-        }
-        
-        appointment.setStatus(AppointmentStatus.CANCELLED);
-        Appointment cancelledAppointment = appointmentRepository.save(appointment);
-        
-        AppointmentResponseDto responseDto = appointmentMapper.toResponseDto(cancelledAppointment);
+        AppointmentResponseDto responseDto = transitionStatus(appointment, AppointmentStatus.CANCELLED);
         
         log.info("Cita cancelada exitosamente con ID: {}", appointmentId);
         return ApiResponseDto.<AppointmentResponseDto>builder()
@@ -488,14 +687,7 @@ public class AppointmentService {
         // Validar autorización (solo barberos y administradores pueden confirmar)
         validateBarberOrAdminAccess(token, appointment.getBarberId());
         
-        if (appointment.getStatus() != AppointmentStatus.SCHEDULED) {
-            throw new BusinessLogicException("Solo se pueden confirmar citas programadas");
-        }
-        
-        appointment.setStatus(AppointmentStatus.CONFIRMED);
-        Appointment confirmedAppointment = appointmentRepository.save(appointment);
-        
-        AppointmentResponseDto responseDto = appointmentMapper.toResponseDto(confirmedAppointment);
+        AppointmentResponseDto responseDto = transitionStatus(appointment, AppointmentStatus.CONFIRMED);
         
         log.info("Cita confirmada exitosamente con ID: {}", appointmentId);
         return ApiResponseDto.<AppointmentResponseDto>builder()
@@ -518,14 +710,7 @@ public class AppointmentService {
         // Validar autorización (solo barberos y administradores pueden completar)
         validateBarberOrAdminAccess(token, appointment.getBarberId());
         
-        if (appointment.getStatus() != AppointmentStatus.IN_PROGRESS && appointment.getStatus() != AppointmentStatus.CONFIRMED) {
-            throw new BusinessLogicException("Solo se pueden completar citas confirmadas o en progreso");
-        }
-        
-        appointment.setStatus(AppointmentStatus.COMPLETED);
-        Appointment completedAppointment = appointmentRepository.save(appointment);
-        
-        AppointmentResponseDto responseDto = appointmentMapper.toResponseDto(completedAppointment);
+        AppointmentResponseDto responseDto = transitionStatus(appointment, AppointmentStatus.COMPLETED);
         
         log.info("Cita completada exitosamente con ID: {}", appointmentId);
         return ApiResponseDto.<AppointmentResponseDto>builder()
@@ -536,6 +721,104 @@ public class AppointmentService {
                 .build();
     }
 
+    /**
+     * Cambia el estado de varias citas en una sola operación (cierre del día).
+     * Autoriza una vez, carga todas las citas en una consulta y aplica las transiciones válidas en un único
+     * UPDATE condicional sobre la versión leída; devuelve un resultado por cita en el orden recibido
+     */
+    public ApiResponseDto<List<BatchStatusTransitionResultDto>> transitionAppointmentsStatus(BatchStatusTransitionRequestDto request, String token) {
+        AppointmentStatus targetStatus = request.getTargetStatus();
+        log.info("Cambiando a {} el estado de {} citas", targetStatus, request.getAppointmentIds().size());
+
+        if (!BATCH_TARGET_STATUSES.contains(targetStatus)) {
+            throw new BusinessLogicException("Solo se pueden confirmar o completar citas por lotes");
+        }
+
+        // null para administradores; en otro caso solo se admiten citas del barbero del token
+        String allowedBarberId = resolveModifyingBarberId(token);
+
+        // Forma canónica (minúsculas) para que un id en mayúsculas coincida con el de la entidad
+        List<String> appointmentIds = request.getAppointmentIds().stream()
+                .map(AppointmentService::canonicalAppointmentId)
+                .distinct()
+                .toList();
+        Map<String, Appointment> appointments = appointmentRepository.findAllById(appointmentIds).stream()
+                .collect(Collectors.toMap(Appointment::getAppointmentId, Function.identity()));
+
+        Map<String, BatchStatusTransitionResultDto> results = new LinkedHashMap<>();
+        List<Appointment> candidates = new ArrayList<>();
+        for (String appointmentId : appointmentIds) {
+            Appointment appointment = appointments.get(appointmentId);
+            if (appointment == null) {
+                results.put(appointmentId, rejectedTransition(appointmentId, null, "Cita no encontrada"));
+            } else if (allowedBarberId != null && !allowedBarberId.equals(appointment.getBarberId())) {
+                results.put(appointmentId, rejectedTransition(appointmentId, appointment.getStatus(), "No tienes permisos para modificar esta cita"));
+            } else if (!appointment.getStatus().canTransitionTo(targetStatus)) {
+                results.put(appointmentId, rejectedTransition(appointmentId, appointment.getStatus(),
+                        String.format("Transición de estado inválida: de %s a %s", appointment.getStatus(), targetStatus)));
+            } else {
+                results.put(appointmentId, null);
+                candidates.add(appointment);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            Set<String> updatedIds = new HashSet<>(appointmentRepository.transitionStatusBatch(
+                    candidates.stream().map(appointment -> UUID.fromString(appointment.getAppointmentId())).toArray(UUID[]::new),
+                    candidates.stream().map(Appointment::getVersion).toArray(Long[]::new),
+                    AppointmentStatus.sourcesOf(targetStatus).stream().map(Enum::name).toList(),
+                    targetStatus.name(),
+                    LocalDateTime.now()));
+
+            for (Appointment appointment : candidates) {
+                String appointmentId = appointment.getAppointmentId();
+                results.put(appointmentId, updatedIds.contains(appointmentId)
+                        ? BatchStatusTransitionResultDto.builder()
+                                .appointmentId(appointmentId)
+                                .updated(true)
+                                .previousStatus(appointment.getStatus())
+                                .status(targetStatus)
+                                .build()
+                        : rejectedTransition(appointmentId, appointment.getStatus(), "La cita fue modificada por otra operación"));
+            }
+        }
+
+        long updatedCount = results.values().stream().filter(BatchStatusTransitionResultDto::isUpdated).count();
+        log.info("{} de {} citas actualizadas a {}", updatedCount, results.size(), targetStatus);
+        return ApiResponseDto.<List<BatchStatusTransitionResultDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message(String.format("%d de %d citas actualizadas a %s", updatedCount, results.size(), targetStatus))
+                .data(new ArrayList<>(results.values()))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Valida un id de cita recibido y lo devuelve en la forma canónica de UUID.
+     * UUID.fromString admite grupos abreviados, por eso se exige que la forma canónica coincida con la recibida
+     */
+    private static String canonicalAppointmentId(String appointmentId) {
+        try {
+            String canonical = UUID.fromString(appointmentId.trim()).toString();
+            if (canonical.equalsIgnoreCase(appointmentId.trim())) {
+                return canonical;
+            }
+        } catch (IllegalArgumentException e) {
+            // Se informa con el mensaje de abajo
+        }
+        throw new IllegalArgumentException("ID de cita inválido: " + appointmentId);
+    }
+
+    private BatchStatusTransitionResultDto rejectedTransition(String appointmentId, AppointmentStatus status, String message) {
+        return BatchStatusTransitionResultDto.builder()
+                .appointmentId(appointmentId)
+                .updated(false)
+                .previousStatus(status)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
     /**
      * Elimina una cita (solo administradores)
      */
@@ -547,7 +830,20 @@ public class AppointmentService {
         
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cita no encontrada con ID: " + appointmentId));
-        
+
+        // Igual que deletePayment: los pagos completados o reembolsados forman parte de los ingresos
+        // registrados y no se eliminan, por lo que tampoco la cita a la que pertenecen
+        List<Payment> payments = paymentRepository.findByAppointmentId(appointmentId);
+        if (payments.stream().anyMatch(payment -> payment.getPaymentStatus() == PaymentStatus.COMPLETED
+                || payment.getPaymentStatus() == PaymentStatus.REFUNDED)) {
+            throw new BusinessLogicException("No se puede eliminar una cita con pagos completados o reembolsados");
+        }
+
+        // Se eliminan uno a uno para que los agregados de pagos descuenten cada pago
+        for (Payment payment : payments) {
+            paymentRepository.delete(payment);
+            paymentAggregateService.recordDeleted(payment);
+        }
         appointmentRepository.delete(appointment);
         
         log.info("Cita eliminada exitosamente con ID: {}", appointmentId);
@@ -787,6 +1083,28 @@ public class AppointmentService {
         throw new AccessDeniedException("No tienes permisos para realizar esta acción");
     }
     
+    /**
+     * Resuelve una sola vez quién modifica citas: null si es administrador (sin restricción)
+     * o el ID del barbero del token, que solo puede modificar sus propias citas
+     */
+    private String resolveModifyingBarberId(String token) {
+        String userRole = jwtService.extractRole(token);
+
+        if ("ROLE_ADMIN".equals(userRole)) {
+            return null;
+        }
+
+        if ("ROLE_BARBER".equals(userRole)) {
+            User currentUser = userRepository.findByEmail(jwtService.getUsernameFromToken(token))
+                    .orElseThrow(() -> new AccessDeniedException("Usuario no encontrado"));
+            return barberRepository.findByUserIdAndActive(currentUser.getUserId())
+                    .map(Barber::getBarberId)
+                    .orElseThrow(() -> new AccessDeniedException("No se encontró información del barbero para el usuario actual"));
+        }
+
+        throw new AccessDeniedException("No tienes permisos para realizar esta acción");
+    }
+    
     private void validateAdminAccess(String token) {
         String userRole = jwtService.extractRole(token);
         
@@ -796,45 +1114,78 @@ public class AppointmentService {
     }
     
     private void validateRelatedEntities(CreateAppointmentRequestDto request) {
+        // findById en lugar de existsById: existsById siempre consulta la BD y findById se resuelve desde la caché de segundo nivel
         // Validar que existe el usuario
-        if (!userRepository.existsById(request.getUserId())) {
+        if (userRepository.findById(request.getUserId()).isEmpty()) {
             throw new ResourceNotFoundException("Usuario no encontrado con ID: " + request.getUserId());
         }
         
         // Validar que existe el barbero
-        if (!barberRepository.existsById(request.getBarberId())) {
+        if (barberRepository.findById(request.getBarberId()).isEmpty()) {
             throw new ResourceNotFoundException("Barbero no encontrado con ID: " + request.getBarberId());
         }
         
         // Validar que existe el servicio
-        if (!serviceRepository.existsById(request.getServiceId())) {
+        if (serviceRepository.findById(request.getServiceId()).isEmpty()) {
             throw new ResourceNotFoundException("Servicio no encontrado con ID: " + request.getServiceId());
         }
     }
     
-    private void validateBarberAvailability(CreateAppointmentRequestDto request) {
-        LocalDateTime startTime = request.getAppointmentDateTime();
-        LocalDateTime endTime = startTime.plusMinutes(request.getDurationMinutes());
-        
-        List<Appointment> conflictingAppointments = appointmentRepository.findConflictingAppointments(
-                request.getBarberId(), startTime, endTime);
-        
-        if (!conflictingAppointments.isEmpty()) {
-            throw new BusinessLogicException("El barbero no está disponible en el horario solicitado");
+    /**
+     * Guarda la cita y fuerza el flush para que la restricción de no solapamiento
+     * se evalúe aquí y no al confirmar la transacción
+     */
+    private Appointment saveCheckingOverlap(Appointment appointment) {
+        validateWithinOneMonth(appointment);
+        try {
+            return appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            String errorMessage = e.getMostSpecificCause().getMessage();
+            if (errorMessage != null && errorMessage.contains(BARBER_NO_OVERLAP_CONSTRAINT)) {
+                throw new BusinessLogicException("El barbero no está disponible en el horario solicitado");
+            }
+            throw e;
         }
     }
-    
-    private void validateBarberAvailabilityForUpdate(String barberId, String appointmentId, LocalDateTime startTime, int durationMinutes) {
-        LocalDateTime endTime = startTime.plusMinutes(durationMinutes);
-        
-        List<Appointment> conflictingAppointments = appointmentRepository.findConflictingAppointmentsExcluding(
-                barberId, appointmentId, startTime, endTime);
-        
-        if (!conflictingAppointments.isEmpty()) {
-            throw new BusinessLogicException("El barbero no está disponible en el horario solicitado");
+
+    /**
+     * Cambia el estado con un UPDATE condicional sobre el estado y la versión leídos. Si otra operación
+     * modificó la cita entre medias no se actualiza ninguna fila y se informa el conflicto.
+     * La entidad gestionada no se modifica para que el flush no emita un segundo UPDATE con la versión antigua.
+     */
+    private AppointmentResponseDto transitionStatus(Appointment appointment, AppointmentStatus newStatus) {
+        AppointmentStatus currentStatus = appointment.getStatus();
+        if (!currentStatus.canTransitionTo(newStatus)) {
+            throw new BusinessLogicException(String.format("Transición de estado inválida: de %s a %s", currentStatus, newStatus));
         }
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated = appointmentRepository.transitionStatus(
+                appointment.getAppointmentId(), currentStatus, appointment.getVersion(), newStatus, now);
+        if (updated == 0) {
+            throw new ObjectOptimisticLockingFailureException(Appointment.class, appointment.getAppointmentId());
+        }
+
+        AppointmentResponseDto responseDto = appointmentMapper.toResponseDto(appointment);
+        responseDto.setStatus(newStatus);
+        responseDto.setUpdatedAt(now);
+        responseDto.setVersion(appointment.getVersion() + 1);
+        return responseDto;
     }
     
+    /**
+     * La restricción de no solapamiento existe en cada partición mensual y no compara citas de meses distintos.
+     * Una cita que cruzara el cambio de mes podría solaparse con las del mes siguiente sin que la base lo
+     * detecte, por lo que se rechaza: así cada solapamiento posible queda dentro de una sola partición.
+     */
+    private void validateWithinOneMonth(Appointment appointment) {
+        LocalDateTime nextMonthStart = appointment.getAppointmentDatetimeStart().toLocalDate()
+                .withDayOfMonth(1).plusMonths(1).atStartOfDay();
+        if (appointment.getAppointmentDatetimeEnd().isAfter(nextMonthStart)) {
+            throw new BusinessLogicException("La cita no puede extenderse más allá del último día del mes");
+        }
+    }
+
     private void validateAppointmentCanBeModified(Appointment appointment) {
         if (appointment.getStatus() == AppointmentStatus.COMPLETED || 
             appointment.getStatus() == AppointmentStatus.CANCELLED ||
@@ -843,6 +1194,45 @@ public class AppointmentService {
         }
     }
 
+    /**
+     * Exporta las citas en streaming (CSV o NDJSON) sin paginar ni cargar entidades
+     * @param from Inicio opcional del rango sobre la fecha de la cita
+     * @param to Fin opcional (exclusivo) del rango sobre la fecha de la cita
+     */
+    public ResponseEntity<StreamingResponseBody> exportAppointments(LocalDateTime from, LocalDateTime to, ExportFormat format, String token) {
+        log.info("Exportando citas en formato {} entre {} y {}", format, from, to);
+        
+        // Solo administradores pueden exportar el historial completo
+        validateAdminAccess(token);
+        
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BusinessLogicException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        
+        StringBuilder sql = new StringBuilder("""
+                SELECT a.appointment_id AS "appointmentId", a.barbershop_id AS "barbershopId",
+                       a.client_id AS "clientId", a.barber_id AS "barberId", a.service_id AS "serviceId",
+                       a.appointment_datetime_start AS "appointmentDateTimeStart",
+                       a.appointment_datetime_end AS "appointmentDateTimeEnd",
+                       a.status AS "status", a.price_at_booking AS "priceAtBooking", a.notes AS "notes",
+                       a.created_at AS "createdAt", a.updated_at AS "updatedAt"
+                FROM appointments a
+                WHERE 1 = 1""");
+        List<Object> params = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND a.appointment_datetime_start >= ?");
+            params.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND a.appointment_datetime_start < ?");
+            params.add(to);
+        }
+        // Orden de la clave primaria para que el mismo filtro exporte siempre el mismo orden
+        sql.append(" ORDER BY a.appointment_id, a.appointment_datetime_start");
+        
+        return streamingExportService.export("appointments", format, sql.toString(), params);
+    }
+
     /**
      * Obtiene el total de citas del día de hoy
      */
@@ -28,6 +28,21 @@ public class AuthProperties {
      */
     private ResetToken resetToken = new ResetToken();
 
+    /**
+     * Configuración de tokens de refresco
+     */
+    private RefreshToken refreshToken = new RefreshToken();
+
+    /**
+     * Configuración de la caché de /check-auth
+     */
+    private CheckAuthCache checkAuthCache = new CheckAuthCache();
+
+    /**
+     * Configuración del filtro en memoria de emails registrados
+     */
+    private EmailFilter emailFilter = new EmailFilter();
+
     @Data
     public static class Jwt {
         /**
@@ -102,4 +117,54 @@ public class AuthProperties {
          */
         private int tokenLength;
     }
-}
\ No newline at end of file
+
+    @Data
+    public static class RefreshToken {
+        /**
+         * Tiempo de expiración del token de refresco en milisegundos
+         * Debe configurarse en application.properties como: app.auth.refresh-token.expiration-time
+         */
+        private long expirationTime = 604_800_000;
+
+        /**
+         * Longitud del token de refresco
+         */
+        private int tokenLength = 64;
+    }
+
+    @Data
+    public static class CheckAuthCache {
+        /**
+         * Tiempo de vida de cada entrada en milisegundos
+         */
+        private long ttl = 30_000;
+
+        /**
+         * Cantidad máxima de sesiones en caché
+         */
+        private int maxEntries = 10_000;
+    }
+
+    @Data
+    public static class EmailFilter {
+        /**
+         * Habilita el filtro de Bloom para responder sin consultar la BD cuando un email no existe
+         */
+        private boolean enabled = true;
+
+        /**
+         * Cantidad de emails esperados para dimensionar el filtro
+         */
+        private long expectedInsertions = 100_000;
+
+        /**
+         * Tasa de falsos positivos aceptada (los positivos siempre se confirman en la BD)
+         */
+        private double falsePositiveRate = 0.01;
+
+        /**
+         * Cantidad de eliminaciones o cambios de email tras la cual se reconstruye el filtro
+         */
+        private int rebuildAfterRemovals = 1_000;
+    }
+}
@@ -4,11 +4,13 @@ import com.barbershop.features.auth.dto.AuthResponseDto;
 import com.barbershop.features.auth.dto.ChangePasswordRequestDto;
 import com.barbershop.features.auth.dto.CheckAuthResponseDto;
 import com.barbershop.features.auth.dto.ForgotPasswordRequestDto;
+import com.barbershop.features.auth.dto.RefreshTokenRequestDto;
 import com.barbershop.features.auth.dto.ResetPasswordRequestDto;
 import com.barbershop.common.dto.ApiResponseDto;
 import com.barbershop.features.auth.dto.SignInRequestDto;
 import com.barbershop.features.auth.dto.SignUpRequestDto;
 import com.barbershop.features.auth.service.AuthService;
+import com.barbershop.features.auth.service.CheckAuthCache;
 import com.barbershop.features.auth.service.TokenCleanupService;
 import com.barbershop.common.util.ApiConstants;
 import io.swagger.v3.oas.annotations.security.SecurityRequirements;
@@ -16,6 +18,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -220,6 +224,36 @@ public class AuthController {
         );
     }
 
+    @Operation(
+            summary = "Renueva el token de acceso",
+            description = "<strong>Permisos:</strong><br/>" +
+                         "• <strong>ADMIN:</strong> Puede renovar su sesión con un token de refresco vigente (acceso público)<br/>" +
+                         "• <strong>BARBER:</strong> Puede renovar su sesión con un token de refresco vigente (acceso público)<br/>" +
+                         "• <strong>CLIENT:</strong> Puede renovar su sesión con un token de refresco vigente (acceso público)<br/>" +
+                         "El token de refresco es de un solo uso: la respuesta incluye uno nuevo que reemplaza al anterior",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Token renovado exitosamente",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponseDto.class))
+                    )
+            }
+    )
+    @PostMapping(ApiConstants.REFRESH_TOKEN_URL)
+    @SecurityRequirements()
+    public ResponseEntity<ApiResponseDto<AuthResponseDto>> refreshToken(@Valid @RequestBody RefreshTokenRequestDto refreshTokenRequestDto, HttpServletRequest request) {
+        AuthResponseDto authResponse = authService.refreshToken(refreshTokenRequestDto);
+        return ResponseEntity.ok(
+                ApiResponseDto.<AuthResponseDto>builder()
+                        .status(HttpStatus.OK.value())
+                        .message("Token renovado exitosamente")
+                        .timestamp(LocalDateTime.now())
+                        .path(request.getRequestURI())
+                        .data(authResponse)
+                        .build()
+        );
+    }
+
     @Operation(
             summary = "Verifica el estado de autenticación",
             description = "<strong>Permisos:</strong><br/>" +
@@ -237,18 +271,28 @@ public class AuthController {
     )
     @GetMapping("/check-auth")
     public ResponseEntity<ApiResponseDto<CheckAuthResponseDto>> checkAuth(
-            Authentication authentication,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             HttpServletRequest request) {
         
         try {
-            String userEmail = authentication.getName();
-            CheckAuthResponseDto authInfo = authService.checkAuthByEmail(userEmail);
+            String token = extractTokenFromRequest(request);
+            CheckAuthCache.Entry authInfo = authService.checkAuth(token);
 
-            return ResponseEntity.ok(
-                    ApiResponseDto.<CheckAuthResponseDto>builder()
+            // La sesión no cambió: se responde 304 sin cuerpo
+            if (authInfo.etag().equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(authInfo.etag())
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .build();
+            }
+
+            return ResponseEntity.ok()
+                    .eTag(authInfo.etag())
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(ApiResponseDto.<CheckAuthResponseDto>builder()
                             .status(HttpStatus.OK.value())
                             .message("Token válido")
-                            .data(authInfo)
+                            .data(authInfo.response())
                             .timestamp(LocalDateTime.now())
                             .path(request.getRequestURI())
                             .build()
@@ -294,4 +338,15 @@ public class AuthController {
                         .build()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Extrae el token JWT del header Authorization
+     */
+    private String extractTokenFromRequest(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        throw new IllegalArgumentException("Token JWT no encontrado en el header Authorization");
+    }
+}
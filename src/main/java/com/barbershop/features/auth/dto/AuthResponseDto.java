@@ -47,6 +47,21 @@ public class AuthResponseDto {
     )
     private LocalDateTime issuedAt;
 
+    @Schema(
+        description = "Token de refresco de un solo uso para obtener un nuevo token de acceso",
+        example = "Xy7kP2mQ9rT4vW8zA1bC3dE5fG6hJ0kL",
+        requiredMode = Schema.RequiredMode.REQUIRED
+    )
+    private String refreshToken;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @Schema(
+        description = "Fecha y hora de expiración del token de refresco",
+        example = "2024-01-22T10:30:00",
+        requiredMode = Schema.RequiredMode.REQUIRED
+    )
+    private LocalDateTime refreshExpiresAt;
+
     @Schema(
         description = "ID único del usuario autenticado", 
         example = "550e8400-e29b-41d4-a716-446655440000",
@@ -0,0 +1,25 @@
+package com.barbershop.features.auth.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotBlank;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO para solicitar un nuevo token de acceso a partir de un token de refresco")
+public class RefreshTokenRequestDto {
+
+    @NotBlank(message = "El token de refresco es obligatorio")
+    @Schema(
+        description = "Token de refresco recibido al iniciar sesión o en la última renovación",
+        example = "Xy7kP2mQ9rT4vW8zA1bC3dE5fG6hJ0kL",
+        requiredMode = Schema.RequiredMode.REQUIRED
+    )
+    private String refreshToken;
+}
@@ -1,5 +1,7 @@
 package com.barbershop.features.auth.model;
 
+import com.barbershop.common.util.UuidStringType;
+import com.barbershop.common.util.UuidV7Generator;
 import com.barbershop.features.user.model.User;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -7,6 +9,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Type;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 
@@ -23,7 +27,9 @@ import java.time.LocalDateTime;
 public class PasswordResetToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @Type(UuidStringType.class)
     @Column(name = "token_id")
     private String tokenId;
 
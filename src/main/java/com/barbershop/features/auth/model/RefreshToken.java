@@ -0,0 +1,70 @@
+package com.barbershop.features.auth.model;
+
+import com.barbershop.common.util.UuidStringType;
+import com.barbershop.common.util.UuidV7Generator;
+import com.barbershop.features.user.model.User;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Type;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad para almacenar tokens de refresco.
+ * Solo se guarda el hash SHA-256 del token; cada uso lo rota por uno nuevo de la misma familia.
+ * Si un token ya rotado se vuelve a presentar se revoca toda la familia.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @Type(UuidStringType.class)
+    @Column(name = "refresh_token_id")
+    private String refreshTokenId;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "family_id", nullable = false)
+    private String familyId;
+
+    @Column(name = "token_version", nullable = false)
+    private Long tokenVersion;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    /**
+     * Verifica si el token ha expirado
+     * @return true si el token ha expirado, false en caso contrario
+     */
+    public boolean isExpired() {
+        return LocalDateTime.now().isAfter(this.expiresAt);
+    }
+}
@@ -0,0 +1,39 @@
+package com.barbershop.features.auth.model;
+
+import com.barbershop.common.util.UuidStringType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro compacto de revocaciones de tokens JWT.
+ * Guarda una fila por usuario con la versión mínima de token aceptada;
+ * los tokens emitidos con una versión anterior se consideran revocados.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "token_revocations")
+public class TokenRevocation {
+
+    @Id
+    @Type(UuidStringType.class)
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "token_version", nullable = false)
+    private Long tokenVersion;
+
+    @Column(name = "reason", length = 50)
+    private String reason;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+}
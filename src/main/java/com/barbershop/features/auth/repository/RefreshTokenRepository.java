@@ -0,0 +1,55 @@
+package com.barbershop.features.auth.repository;
+
+import com.barbershop.features.auth.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repositorio para operaciones de base de datos relacionadas con tokens de refresco.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    /**
+     * Busca un token de refresco por su hash, cargando el usuario
+     * @param tokenHash Hash SHA-256 del token
+     * @return Optional con el token si existe
+     */
+    @Query("SELECT rt FROM RefreshToken rt JOIN FETCH rt.user WHERE rt.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Marca un token como usado solo si sigue vigente; evita que dos rotaciones concurrentes lo usen
+     * @param refreshTokenId ID del token
+     * @param now Fecha actual
+     * @return Número de tokens actualizados (0 si ya había sido usado o revocado)
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.usedAt = :now WHERE rt.refreshTokenId = :refreshTokenId AND rt.usedAt IS NULL AND rt.revokedAt IS NULL")
+    int markAsUsed(@Param("refreshTokenId") String refreshTokenId, @Param("now") LocalDateTime now);
+
+    /**
+     * Revoca todos los tokens vigentes de una familia
+     * @param familyId ID de la familia
+     * @param now Fecha actual
+     * @return Número de tokens revocados
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revokedAt = :now WHERE rt.familyId = :familyId AND rt.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    /**
+     * Elimina tokens de refresco expirados
+     * @param now Fecha actual
+     * @return Número de tokens eliminados
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now")
+    int deleteExpiredTokens(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,35 @@
+package com.barbershop.features.auth.repository;
+
+import com.barbershop.features.auth.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio para el registro de revocaciones de tokens JWT.
+ */
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, String> {
+
+    /**
+     * Busca las revocaciones registradas a partir de una fecha
+     * @param since Fecha desde la cual buscar
+     * @return Lista de revocaciones
+     */
+    @Query("SELECT tr FROM TokenRevocation tr WHERE tr.revokedAt >= :since")
+    List<TokenRevocation> findRevokedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Elimina las revocaciones registradas antes de una fecha
+     * @param cutoff Fecha límite
+     * @return Número de revocaciones eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM TokenRevocation tr WHERE tr.revokedAt < :cutoff")
+    int deleteRevokedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,5 +1,6 @@
 package com.barbershop.features.auth.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,8 +18,6 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -26,33 +25,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
-
-    // Rutas públicas que no requieren autenticación
-    private static final List<String> PUBLIC_PATHS = Arrays.asList(
-            "/api/v1/auth/sign-in",
-            "/api/v1/auth/sign-up", 
-            "/api/v1/auth/reset-password",
-            "/api/v1/auth/forgot-password",
-            "/api/v1/auth/check-email",
-            "/api/v1/auth/check-auth",
-            "/api/v1/services/all",
-            "/api/v1/barbers/count/active",
-            "/api/v1/users/count/active",
-            "/api/v1/appointments/availability",
-            "/api/v1/health",
-            "/v3/api-docs",
-            "/swagger-ui.html",
-            "/swagger-ui",
-            "/swagger-resources",
-            "/webjars"
-    );
+    private final RoutePolicyRegistry routePolicyRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         
         // Verificar si la ruta es pública
-        String requestPath = request.getRequestURI();
-        if (isPublicPath(requestPath)) {
+        if (routePolicyRegistry.isPublic(request)) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -66,7 +45,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String username;
         try {
-            username = jwtService.getUsernameFromToken(token);
+            Claims claims = jwtService.getAllClaims(token);
+            if (jwtService.isTokenRevoked(claims)) {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                return;
+            }
+            username = claims.getSubject();
         } catch (Exception ex) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             return;
@@ -99,17 +83,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    /**
-     * Verifica si la ruta solicitada es pública y no requiere autenticación
-     */
-    private boolean isPublicPath(String requestPath) {
-        return PUBLIC_PATHS.stream().anyMatch(publicPath -> 
-            requestPath.equals(publicPath) || 
-            requestPath.startsWith(publicPath + "/") ||
-            (publicPath.contains("/**") && requestPath.startsWith(publicPath.replace("/**", "")))
-        );
-    }
-
     private String getTokenFromRequest(HttpServletRequest request) {
         final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
 
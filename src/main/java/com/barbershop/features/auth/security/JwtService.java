@@ -1,6 +1,8 @@
 package com.barbershop.features.auth.security;
 
 import com.barbershop.features.auth.config.AuthProperties;
+import com.barbershop.features.auth.service.TokenRevocationService;
+import com.barbershop.features.user.model.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
@@ -23,7 +25,11 @@ import java.util.function.Function;
 @RequiredArgsConstructor
 public class JwtService {
 
+    public static final String USER_ID_CLAIM = "userId";
+    public static final String TOKEN_VERSION_CLAIM = "tokenVersion";
+
     private final AuthProperties authProperties;
+    private final TokenRevocationService tokenRevocationService;
 
     /**
      * Genera un token JWT para el usuario
@@ -42,6 +48,10 @@ public class JwtService {
      */
     private String getToken(Map<String, Object> extraClaims, UserDetails user) {
         extraClaims.put("roles", user.getAuthorities());
+        if (user instanceof User appUser) {
+            extraClaims.put(USER_ID_CLAIM, appUser.getUserId());
+            extraClaims.put(TOKEN_VERSION_CLAIM, tokenRevocationService.getCurrentVersion(appUser.getUserId()));
+        }
         Date issuedAt = new Date(System.currentTimeMillis());
         Date expiration = new Date(System.currentTimeMillis() + authProperties.getJwt().getExpirationTime());
         
@@ -114,12 +124,27 @@ public class JwtService {
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
     }
 
+    /**
+     * Verifica si el token fue revocado (cambio de contraseña, eliminación, cambio de rol...)
+     * Los tokens emitidos antes de incluir la versión no se pueden revocar y expiran normalmente
+     * @param claims Claims del token ya verificado
+     * @return true si el token fue revocado
+     */
+    public boolean isTokenRevoked(Claims claims) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        Number tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+        if (userId == null || tokenVersion == null) {
+            return false;
+        }
+        return tokenRevocationService.isRevoked(userId, tokenVersion.longValue());
+    }
+
     /**
      * Obtiene todos los claims del token
      * @param token Token JWT
      * @return Claims del token
      */
-    private Claims getAllClaims(String token) {
+    public Claims getAllClaims(String token) {
         return Jwts.parser()
                 .verifyWith(getKey())
                 .build()
@@ -0,0 +1,18 @@
+package com.barbershop.features.auth.security;
+
+/**
+ * Nivel de acceso de una ruta declarada en RoutePolicyRegistry
+ */
+public enum RouteAccess {
+
+    /**
+     * Ruta pública: no requiere autenticación y el filtro JWT no procesa el token
+     */
+    PUBLIC,
+
+    /**
+     * Ruta abierta: no requiere autenticación, pero si llega un token se valida
+     * para que los servicios puedan aplicar reglas según el usuario autenticado
+     */
+    OPTIONAL_AUTH
+}
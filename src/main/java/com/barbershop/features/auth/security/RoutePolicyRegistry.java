@@ -0,0 +1,247 @@
+package com.barbershop.features.auth.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Registro único de las rutas que no requieren autenticación.
+ * Lo usan tanto SecurityConfig como JwtAuthenticationFilter para que ambas listas no diverjan.
+ * Las rutas se compilan al iniciar en un árbol de segmentos (trie); la búsqueda recorre la URI
+ * sin crear objetos intermedios.
+ */
+@Component
+public class RoutePolicyRegistry {
+
+    private static final int ALL_METHODS = -1;
+
+    /**
+     * Política declarada para una ruta
+     * @param method Método HTTP, o null para cualquier método
+     * @param pattern Ruta exacta, o prefijo terminado en "/**"
+     * @param access Nivel de acceso
+     */
+    public record RoutePolicy(HttpMethod method, String pattern, RouteAccess access) {
+    }
+
+    private static final List<RoutePolicy> POLICIES = List.of(
+            // Autenticación
+            policy(null, "/api/v1/auth/sign-in", RouteAccess.PUBLIC),
+            policy(null, "/api/v1/auth/sign-up", RouteAccess.PUBLIC),
+            policy(null, "/api/v1/auth/reset-password", RouteAccess.PUBLIC),
+            policy(null, "/api/v1/auth/forgot-password", RouteAccess.PUBLIC),
+            policy(null, "/api/v1/auth/check-email", RouteAccess.PUBLIC),
+            policy(null, "/api/v1/auth/check-auth", RouteAccess.PUBLIC),
+            policy(HttpMethod.POST, "/api/v1/auth/refresh-token", RouteAccess.PUBLIC),
+
+            // Catálogo público
+            policy(HttpMethod.GET, "/api/v1/services/all", RouteAccess.PUBLIC),
+            policy(HttpMethod.GET, "/api/v1/barbers/count/active", RouteAccess.PUBLIC),
+            policy(HttpMethod.GET, "/api/v1/users/count/active", RouteAccess.PUBLIC),
+            policy(HttpMethod.GET, "/api/v1/appointments/availability", RouteAccess.PUBLIC),
+            policy(HttpMethod.GET, "/api/v1/appointments/availability/day", RouteAccess.PUBLIC),
+            policy(HttpMethod.GET, "/api/v1/appointments/availability/barbers", RouteAccess.PUBLIC),
+
+            // Consultas abiertas que personalizan la respuesta si hay usuario autenticado
+            policy(HttpMethod.GET, "/api/v1/barbers", RouteAccess.OPTIONAL_AUTH),
+            policy(HttpMethod.GET, "/api/v1/users", RouteAccess.OPTIONAL_AUTH),
+            policy(HttpMethod.GET, "/api/v1/barbershops", RouteAccess.OPTIONAL_AUTH),
+            policy(HttpMethod.GET, "/api/v1/barbershops/operating-hours", RouteAccess.OPTIONAL_AUTH),
+
+            // Documentación y monitoreo
+            policy(null, "/v3/api-docs/**", RouteAccess.PUBLIC),
+            policy(null, "/swagger-ui.html", RouteAccess.PUBLIC),
+            policy(null, "/swagger-ui/**", RouteAccess.PUBLIC),
+            policy(null, "/swagger-resources/**", RouteAccess.PUBLIC),
+            policy(null, "/webjars/**", RouteAccess.PUBLIC),
+            policy(null, "/api/v1/health", RouteAccess.PUBLIC)
+    );
+
+    private final Node root = new Node("");
+
+    public RoutePolicyRegistry() {
+        POLICIES.forEach(this::compile);
+    }
+
+    private static RoutePolicy policy(HttpMethod method, String pattern, RouteAccess access) {
+        return new RoutePolicy(method, pattern, access);
+    }
+
+    /**
+     * Obtiene las políticas declaradas
+     * @return Lista inmutable de políticas
+     */
+    public List<RoutePolicy> getPolicies() {
+        return POLICIES;
+    }
+
+    /**
+     * Matcher de Spring Security para las rutas que no requieren autenticación
+     * @return RequestMatcher respaldado por el trie
+     */
+    public RequestMatcher permitAllMatcher() {
+        return request -> resolve(request.getMethod(), request.getRequestURI()) != null;
+    }
+
+    /**
+     * Indica si el filtro JWT debe omitir la petición
+     * @param request Petición HTTP
+     * @return true si la ruta es pública y no debe procesarse el token
+     */
+    public boolean isPublic(HttpServletRequest request) {
+        return resolve(request.getMethod(), request.getRequestURI()) == RouteAccess.PUBLIC;
+    }
+
+    /**
+     * Resuelve el nivel de acceso de una petición
+     * @param method Método HTTP
+     * @param path URI de la petición
+     * @return Nivel de acceso, o null si la ruta requiere autenticación
+     */
+    public RouteAccess resolve(String method, String path) {
+        int methodBit = methodBit(method);
+        RouteAccess prefixMatch = null;
+        Node node = root;
+        int length = path.length();
+        int start = 0;
+
+        while (start < length) {
+            if (path.charAt(start) == '/') {
+                start++;
+                continue;
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+
+            RouteAccess access = node.prefixAccess(methodBit);
+            if (access != null) {
+                prefixMatch = access;
+            }
+
+            node = node.child(path, start, end - start);
+            if (node == null) {
+                return prefixMatch;
+            }
+            start = end;
+        }
+
+        RouteAccess access = node.exactAccess(methodBit);
+        if (access == null) {
+            access = node.prefixAccess(methodBit);
+        }
+        return access != null ? access : prefixMatch;
+    }
+
+    private void compile(RoutePolicy policy) {
+        String pattern = policy.pattern();
+        boolean prefix = pattern.endsWith("/**");
+        if (prefix) {
+            pattern = pattern.substring(0, pattern.length() - 3);
+        }
+
+        Node node = root;
+        for (String segment : pattern.split("/")) {
+            if (!segment.isEmpty()) {
+                node = node.getOrCreateChild(segment);
+            }
+        }
+
+        int methods = policy.method() == null ? ALL_METHODS : methodBit(policy.method().name());
+        if (prefix) {
+            node.addPrefix(methods, policy.access());
+        } else {
+            node.addExact(methods, policy.access());
+        }
+    }
+
+    private static int methodBit(String method) {
+        return switch (method) {
+            case "GET" -> 1;
+            case "HEAD" -> 1 << 1;
+            case "POST" -> 1 << 2;
+            case "PUT" -> 1 << 3;
+            case "PATCH" -> 1 << 4;
+            case "DELETE" -> 1 << 5;
+            case "OPTIONS" -> 1 << 6;
+            case "TRACE" -> 1 << 7;
+            default -> 1 << 8;
+        };
+    }
+
+    /**
+     * Nodo del trie: un segmento de ruta con las políticas que terminan en él
+     */
+    private static final class Node {
+
+        private final String segment;
+        private Node[] children = new Node[0];
+
+        // Reglas compiladas en arreglos paralelos (máscara de métodos, nivel de acceso)
+        private int[] exactMethods = new int[0];
+        private RouteAccess[] exactAccess = new RouteAccess[0];
+        private int[] prefixMethods = new int[0];
+        private RouteAccess[] prefixAccess = new RouteAccess[0];
+
+        private Node(String segment) {
+            this.segment = segment;
+        }
+
+        private Node child(String path, int offset, int length) {
+            for (Node child : children) {
+                if (child.segment.length() == length && path.regionMatches(offset, child.segment, 0, length)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        private Node getOrCreateChild(String segment) {
+            for (Node child : children) {
+                if (child.segment.equals(segment)) {
+                    return child;
+                }
+            }
+            Node child = new Node(segment);
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = child;
+            return child;
+        }
+
+        private void addExact(int methods, RouteAccess access) {
+            exactMethods = Arrays.copyOf(exactMethods, exactMethods.length + 1);
+            exactMethods[exactMethods.length - 1] = methods;
+            exactAccess = Arrays.copyOf(exactAccess, exactAccess.length + 1);
+            exactAccess[exactAccess.length - 1] = access;
+        }
+
+        private void addPrefix(int methods, RouteAccess access) {
+            prefixMethods = Arrays.copyOf(prefixMethods, prefixMethods.length + 1);
+            prefixMethods[prefixMethods.length - 1] = methods;
+            prefixAccess = Arrays.copyOf(prefixAccess, prefixAccess.length + 1);
+            prefixAccess[prefixAccess.length - 1] = access;
+        }
+
+        private RouteAccess exactAccess(int methodBit) {
+            return find(exactMethods, exactAccess, methodBit);
+        }
+
+        private RouteAccess prefixAccess(int methodBit) {
+            return find(prefixMethods, prefixAccess, methodBit);
+        }
+
+        private static RouteAccess find(int[] methods, RouteAccess[] access, int methodBit) {
+            for (int i = 0; i < methods.length; i++) {
+                if ((methods[i] & methodBit) != 0) {
+                    return access[i];
+                }
+            }
+            return null;
+        }
+    }
+}
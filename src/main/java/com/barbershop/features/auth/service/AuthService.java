@@ -14,6 +14,7 @@ import com.barbershop.features.user.model.User;
 import com.barbershop.common.service.EmailService;
 import com.barbershop.common.service.EmailRetryService;
 import com.barbershop.common.exception.BusinessLogicException;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -43,6 +44,10 @@ public class AuthService {
     private final AuthProperties authProperties;
     private final EmailService emailService;
     private final EmailRetryService emailRetryService;
+    private final EmailExistenceFilter emailExistenceFilter;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final CheckAuthCache checkAuthCache;
 
     /**
      * Autentica un usuario con email y contraseña
@@ -50,7 +55,7 @@ public class AuthService {
      * @return Respuesta de autenticación con token JWT
      * @throws InvalidCredentialsException si las credenciales son inválidas
      */
-    @Transactional(readOnly = true)
+    @Transactional
     public AuthResponseDto signIn(SignInRequestDto request) {
         try {
             // Normalizar email a minúsculas
@@ -68,6 +73,7 @@ public class AuthService {
             String token = jwtService.getToken(user);
             LocalDateTime issuedAt = LocalDateTime.now();
             LocalDateTime expiresAt = jwtService.getExpirationDateFromToken(token);
+            RefreshTokenService.IssuedRefreshToken refreshToken = refreshTokenService.issue(user);
             
             log.info("Usuario autenticado exitosamente: {}", normalizedEmail);
             
@@ -76,6 +82,8 @@ public class AuthService {
                     .type("Bearer")
                     .issuedAt(issuedAt)
                     .expiresAt(expiresAt)
+                    .refreshToken(refreshToken.token())
+                    .refreshExpiresAt(refreshToken.expiresAt())
                     .userId(user.getUserId())
                     .email(user.getEmail())
                     .role(user.getRole())
@@ -105,8 +113,9 @@ public class AuthService {
         String normalizedEmail = authUtils.normalizeEmail(request.getEmail());
         log.info("Intentando registrar nuevo usuario con email: {}", normalizedEmail);
         
-        // Verificar si el usuario ya existe
-        if (userRepository.existsByEmail(normalizedEmail)) {
+        // Verificar si el usuario ya existe; si el filtro descarta el email se omite la consulta
+        // y la restricción única de la BD actúa como respaldo
+        if (emailExistenceFilter.mightExist(normalizedEmail) && userRepository.existsByEmail(normalizedEmail)) {
             log.warn("Intento de registro con email ya existente: {}", normalizedEmail);
             throw new UserAlreadyExistsException(normalizedEmail);
         }
@@ -120,7 +129,7 @@ public class AuthService {
         user.setUpdatedAt(LocalDateTime.now());
         
         try {
-            user = userRepository.save(user);
+            user = userRepository.saveAndFlush(user);
         } catch (DataIntegrityViolationException e) {
             log.error("Error de integridad de datos al registrar usuario: {}", e.getMessage());
             String message = "No se pudo registrar el usuario";
@@ -133,11 +142,13 @@ public class AuthService {
             
             throw new BusinessLogicException(message);
         }
+        emailExistenceFilter.add(normalizedEmail);
         
         // Generar token
         String token = jwtService.getToken(user);
         LocalDateTime issuedAt = LocalDateTime.now();
         LocalDateTime expiresAt = jwtService.getExpirationDateFromToken(token);
+        RefreshTokenService.IssuedRefreshToken refreshToken = refreshTokenService.issue(user);
         
         log.debug("Usuario registrado exitosamente: {}", request.getEmail());
         
@@ -160,6 +171,39 @@ public class AuthService {
                 .type("Bearer")
                 .issuedAt(issuedAt)
                 .expiresAt(expiresAt)
+                .refreshToken(refreshToken.token())
+                .refreshExpiresAt(refreshToken.expiresAt())
+                .userId(user.getUserId())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .fullName(user.getFirstName() + " " + user.getLastName())
+                .build();
+    }
+
+    /**
+     * Emite un nuevo token de acceso a partir de un token de refresco, rotando este último
+     * @param request Token de refresco vigente
+     * @return Respuesta de autenticación con los nuevos tokens
+     * @throws InvalidTokenException si el token de refresco no es válido
+     */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public AuthResponseDto refreshToken(RefreshTokenRequestDto request) {
+        RefreshTokenService.RotationResult rotation = refreshTokenService.rotate(request.getRefreshToken());
+        User user = rotation.user();
+
+        String token = jwtService.getToken(user);
+        LocalDateTime issuedAt = LocalDateTime.now();
+        LocalDateTime expiresAt = jwtService.getExpirationDateFromToken(token);
+
+        log.debug("Token renovado para usuario: {}", user.getEmail());
+
+        return AuthResponseDto.builder()
+                .token(token)
+                .type("Bearer")
+                .issuedAt(issuedAt)
+                .expiresAt(expiresAt)
+                .refreshToken(rotation.refreshToken().token())
+                .refreshExpiresAt(rotation.refreshToken().expiresAt())
                 .userId(user.getUserId())
                 .email(user.getEmail())
                 .role(user.getRole())
@@ -197,6 +241,7 @@ public class AuthService {
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        tokenRevocationService.revokeAll(user.getUserId(), "PASSWORD_CHANGED");
         
         log.info("Contraseña cambiada exitosamente para usuario: {}", userEmail);
     }
@@ -210,7 +255,8 @@ public class AuthService {
     public boolean emailExists(String email) {
         String normalizedEmail = authUtils.normalizeEmail(email);
         log.debug("Verificando si el email existe: {}", normalizedEmail);
-        boolean exists = userRepository.existsByEmail(normalizedEmail);
+        boolean exists = emailExistenceFilter.mightExist(normalizedEmail)
+                && userRepository.existsByEmail(normalizedEmail);
         log.debug("Email {} existe: {}", normalizedEmail, exists);
         return exists;
     }
@@ -300,6 +346,9 @@ public class AuthService {
         // Invalidar todos los demás tokens del usuario
         passwordResetTokenRepository.markAllUserTokensAsUsed(user, LocalDateTime.now());
         
+        // Revocar las sesiones JWT emitidas con la contraseña anterior
+        tokenRevocationService.revokeAll(user.getUserId(), "PASSWORD_RESET");
+        
         log.info("Contraseña restablecida exitosamente para usuario: {}", user.getEmail());
     }
 
@@ -331,6 +380,34 @@ public class AuthService {
         }
     }
 
+    /**
+     * Obtiene la información del usuario autenticado a partir de su token, usando la caché
+     * por usuario y versión de token
+     * @param token Token JWT del usuario
+     * @return Entrada con la información del usuario y su ETag
+     * @throws InvalidTokenException si el token o el usuario no son válidos
+     */
+    public CheckAuthCache.Entry checkAuth(String token) {
+        Claims claims;
+        try {
+            claims = jwtService.getAllClaims(token);
+        } catch (Exception e) {
+            throw new InvalidTokenException("Token inválido o expirado");
+        }
+        if (jwtService.isTokenRevoked(claims)) {
+            throw new InvalidTokenException("Token revocado");
+        }
+
+        String userId = claims.get(JwtService.USER_ID_CLAIM, String.class);
+        Number tokenVersion = claims.get(JwtService.TOKEN_VERSION_CLAIM, Number.class);
+        if (userId == null || tokenVersion == null) {
+            // Token emitido sin versión: no se cachea
+            CheckAuthResponseDto response = checkAuthByEmail(claims.getSubject());
+            return new CheckAuthCache.Entry(0L, response, CheckAuthCache.buildEtag(0L, response), 0L);
+        }
+        return checkAuthCache.get(userId, tokenVersion.longValue(), () -> checkAuthByEmail(claims.getSubject()));
+    }
+
     @Transactional
     public void cleanupExpiredTokens() {
         log.info("Limpiando tokens de restablecimiento expirados");
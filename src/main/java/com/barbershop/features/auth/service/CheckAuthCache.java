@@ -0,0 +1,124 @@
+package com.barbershop.features.auth.service;
+
+import com.barbershop.features.auth.config.AuthProperties;
+import com.barbershop.features.auth.dto.CheckAuthResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caché de corta duración para las respuestas de /check-auth.
+ * Cada entrada se asocia al usuario y a la versión de token con la que se generó,
+ * por lo que una revocación la invalida sin intervención adicional.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CheckAuthCache {
+
+    // Orden de propiedades fijo para que la misma respuesta produzca siempre los mismos bytes
+    private static final ObjectMapper ETAG_MAPPER = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .build();
+
+    private final AuthProperties authProperties;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Respuesta cacheada junto con su ETag
+     * @param tokenVersion Versión de token con la que se generó
+     * @param response Información del usuario autenticado
+     * @param etag ETag de la respuesta
+     * @param expiresAt Instante de expiración en milisegundos
+     */
+    public record Entry(long tokenVersion, CheckAuthResponseDto response, String etag, long expiresAt) {
+    }
+
+    /**
+     * Obtiene la respuesta de la caché o la genera si no existe o expiró
+     * @param userId ID del usuario
+     * @param tokenVersion Versión del token presentado
+     * @param loader Función que construye la respuesta desde la BD
+     * @return Entrada con la respuesta y su ETag
+     */
+    public Entry get(String userId, long tokenVersion, Supplier<CheckAuthResponseDto> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.tokenVersion() == tokenVersion && entry.expiresAt() > now) {
+            return entry;
+        }
+
+        CheckAuthResponseDto response = loader.get();
+        entry = new Entry(tokenVersion, response, buildEtag(tokenVersion, response),
+                now + authProperties.getCheckAuthCache().getTtl());
+
+        if (entries.size() >= authProperties.getCheckAuthCache().getMaxEntries()) {
+            evictExpired(now);
+        }
+        if (entries.size() < authProperties.getCheckAuthCache().getMaxEntries()) {
+            entries.put(userId, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Invalida la respuesta cacheada de un usuario tras modificar sus datos.
+     * Dentro de una transacción se aplica al confirmarla; antes, un check-auth concurrente
+     * volvería a cachear la fila anterior durante todo el TTL
+     * @param userId ID del usuario
+     */
+    public void invalidate(String userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(userId);
+                }
+            });
+        } else {
+            entries.remove(userId);
+        }
+    }
+
+    /**
+     * Calcula el ETag como SHA-256 de la versión de token (8 bytes) seguida de la respuesta serializada en JSON.
+     * Un ETag igual con otra respuesta o versión devolvería un 304 con datos desactualizados, así que no se
+     * usa hashCode ni se recortan bits de la versión
+     * @param tokenVersion Versión de token
+     * @param response Respuesta
+     * @return ETag entre comillas
+     */
+    public static String buildEtag(long tokenVersion, CheckAuthResponseDto response) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(ByteBuffer.allocate(Long.BYTES).putLong(tokenVersion).array());
+            digest.update(ETAG_MAPPER.writeValueAsBytes(response));
+            return "\"" + HexFormat.of().formatHex(digest.digest()) + "\"";
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo calcular el ETag de check-auth", e);
+        }
+    }
+
+    private void evictExpired(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        log.debug("Caché de check-auth depurada, {} entradas vigentes", entries.size());
+    }
+}
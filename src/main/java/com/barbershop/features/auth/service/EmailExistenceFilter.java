@@ -0,0 +1,173 @@
+package com.barbershop.features.auth.service;
+
+import com.barbershop.common.util.BloomFilter;
+import com.barbershop.features.auth.config.AuthProperties;
+import com.barbershop.features.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Filtro en memoria de emails registrados (no eliminados).
+ * Permite responder "el email no existe" sin consultar PostgreSQL; solo los posibles
+ * positivos deben confirmarse contra la base de datos.
+ * Los emails deben recibirse ya normalizados (ver AuthUtils.normalizeEmail).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailExistenceFilter {
+
+    private final UserRepository userRepository;
+    private final AuthProperties authProperties;
+
+    private final AtomicInteger removalsSinceRebuild = new AtomicInteger();
+
+    // Se alcanzó el umbral de eliminaciones; la reconstrucción queda a cargo de rebuildIfStale
+    private volatile boolean stale;
+
+    // Filtro activo; null mientras no se haya cargado desde la BD
+    private volatile BloomFilter filter;
+
+    // Filtro en construcción; recibe también las altas que ocurren durante la reconstrucción
+    private volatile BloomFilter building;
+
+    /**
+     * Carga el filtro con los emails existentes al iniciar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!authProperties.getEmailFilter().isEnabled()) {
+            log.info("Filtro de emails deshabilitado; las verificaciones se harán contra la BD");
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * Reconstruye el filtro periódicamente para descartar emails eliminados
+     * y recoger altas realizadas por otras instancias
+     * Se ejecuta cada hora
+     */
+    @Scheduled(fixedRate = 3600000, initialDelay = 3600000)
+    public void scheduledRebuild() {
+        if (authProperties.getEmailFilter().isEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reconstruye el filtro si acumuló demasiadas eliminaciones, fuera de las peticiones que las provocan
+     * Se ejecuta cada minuto
+     */
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void rebuildIfStale() {
+        if (stale && authProperties.getEmailFilter().isEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Indica si el email podría estar registrado
+     * @param normalizedEmail Email normalizado
+     * @return false si el email definitivamente no está registrado; true si debe confirmarse en la BD
+     */
+    public boolean mightExist(String normalizedEmail) {
+        BloomFilter current = filter;
+        if (current == null || normalizedEmail == null) {
+            return true;
+        }
+        return current.mightContain(normalizedEmail);
+    }
+
+    /**
+     * Registra un email dado de alta (creación, restauración o cambio de email).
+     * Dentro de una transacción se aplica al confirmarla: una reconstrucción que lea la tabla
+     * antes del commit no vería la fila y el filtro nuevo perdería el email
+     * @param normalizedEmail Email normalizado
+     */
+    public void add(String normalizedEmail) {
+        if (normalizedEmail == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(normalizedEmail);
+                }
+            });
+        } else {
+            put(normalizedEmail);
+        }
+    }
+
+    private void put(String normalizedEmail) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(normalizedEmail);
+        }
+        BloomFilter pending = building;
+        if (pending != null) {
+            pending.put(normalizedEmail);
+        }
+    }
+
+    /**
+     * Registra que un email dejó de estar en uso (eliminación o cambio de email).
+     * Un filtro de Bloom no admite borrados: al superar el umbral configurado el filtro se marca como
+     * desactualizado y lo reconstruye rebuildIfStale, sin hacer esperar a la petición que elimina el email.
+     * Mientras tanto el email eliminado solo produce un falso positivo que se confirma en la BD
+     */
+    public void remove(String normalizedEmail) {
+        if (filter == null) {
+            return;
+        }
+        if (removalsSinceRebuild.incrementAndGet() >= authProperties.getEmailFilter().getRebuildAfterRemovals()) {
+            stale = true;
+        }
+    }
+
+    /**
+     * Indica si el filtro espera una reconstrucción por eliminaciones acumuladas
+     */
+    boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * Reconstruye el filtro a partir de la tabla de usuarios
+     */
+    public synchronized void rebuild() {
+        AuthProperties.EmailFilter config = authProperties.getEmailFilter();
+        try {
+            long start = System.currentTimeMillis();
+            long activeUsers = userRepository.countActiveEmails();
+            long capacity = Math.max(config.getExpectedInsertions(), activeUsers * 2);
+
+            BloomFilter next = BloomFilter.create(capacity, config.getFalsePositiveRate());
+            building = next;
+            removalsSinceRebuild.set(0);
+            stale = false;
+
+            List<String> emails = userRepository.findAllActiveEmails();
+            emails.forEach(next::put);
+
+            filter = next;
+            log.info("Filtro de emails cargado con {} emails en {} ms", emails.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Error al cargar el filtro de emails, se usará la BD para todas las verificaciones: {}", e.getMessage(), e);
+            filter = null;
+        } finally {
+            building = null;
+        }
+    }
+}
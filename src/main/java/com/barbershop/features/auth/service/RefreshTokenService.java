@@ -0,0 +1,113 @@
+package com.barbershop.features.auth.service;
+
+import com.barbershop.features.auth.config.AuthProperties;
+import com.barbershop.features.auth.exception.InvalidTokenException;
+import com.barbershop.features.auth.model.RefreshToken;
+import com.barbershop.features.auth.repository.RefreshTokenRepository;
+import com.barbershop.features.auth.util.AuthUtils;
+import com.barbershop.features.user.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Servicio de emisión y rotación de tokens de refresco.
+ * Cada rotación invalida el token presentado; reutilizar un token ya rotado
+ * se considera robo y revoca la familia completa y los tokens de acceso del usuario.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final AuthProperties authProperties;
+    private final AuthUtils authUtils;
+
+    /**
+     * Token de refresco recién emitido
+     * @param token Token en texto plano (solo se entrega al cliente)
+     * @param expiresAt Fecha de expiración
+     */
+    public record IssuedRefreshToken(String token, LocalDateTime expiresAt) {
+    }
+
+    /**
+     * Resultado de una rotación
+     * @param user Usuario dueño del token
+     * @param refreshToken Nuevo token de refresco
+     */
+    public record RotationResult(User user, IssuedRefreshToken refreshToken) {
+    }
+
+    /**
+     * Emite un token de refresco para una nueva sesión
+     * @param user Usuario autenticado
+     * @return Token emitido
+     */
+    @Transactional
+    public IssuedRefreshToken issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Rota un token de refresco: lo marca como usado y emite uno nuevo de la misma familia
+     * @param rawToken Token de refresco presentado por el cliente
+     * @return Usuario y nuevo token de refresco
+     * @throws InvalidTokenException si el token no existe, expiró, fue revocado o ya se usó
+     */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public RotationResult rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(authUtils.hashToken(rawToken))
+                .orElseThrow(() -> new InvalidTokenException("Token de refresco inválido"));
+        User user = current.getUser();
+        LocalDateTime now = LocalDateTime.now();
+
+        if (current.getRevokedAt() != null) {
+            throw new InvalidTokenException("Token de refresco revocado");
+        }
+
+        if (current.getUsedAt() != null || refreshTokenRepository.markAsUsed(current.getRefreshTokenId(), now) == 0) {
+            // Reutilización de un token ya rotado: se asume robo y se cierra la sesión completa
+            log.warn("Reutilización de token de refresco detectada para usuario {}; se revoca la familia {}",
+                    user.getUserId(), current.getFamilyId());
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            tokenRevocationService.revokeAll(user.getUserId(), "REFRESH_TOKEN_REUSE");
+            throw new InvalidTokenException("Token de refresco ya utilizado");
+        }
+
+        if (current.isExpired()) {
+            throw new InvalidTokenException("Token de refresco expirado");
+        }
+
+        if (tokenRevocationService.isRevoked(user.getUserId(), current.getTokenVersion())
+                || Boolean.TRUE.equals(user.getIsDeleted())
+                || !Boolean.TRUE.equals(user.getIsActive())) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            throw new InvalidTokenException("La sesión ya no es válida, inicie sesión nuevamente");
+        }
+
+        return new RotationResult(user, issue(user, current.getFamilyId()));
+    }
+
+    private IssuedRefreshToken issue(User user, String familyId) {
+        String rawToken = authUtils.generateRefreshToken();
+        LocalDateTime expiresAt = LocalDateTime.now()
+                .plusSeconds(authProperties.getRefreshToken().getExpirationTime() / 1000);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(authUtils.hashToken(rawToken))
+                .user(user)
+                .familyId(familyId)
+                .tokenVersion(tokenRevocationService.getCurrentVersion(user.getUserId()))
+                .expiresAt(expiresAt)
+                .build());
+
+        return new IssuedRefreshToken(rawToken, expiresAt);
+    }
+}
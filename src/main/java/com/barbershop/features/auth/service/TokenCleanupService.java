@@ -1,6 +1,7 @@
 package com.barbershop.features.auth.service;
 
 import com.barbershop.features.auth.repository.PasswordResetTokenRepository;
+import com.barbershop.features.auth.repository.RefreshTokenRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -18,6 +19,7 @@ import java.time.LocalDateTime;
 public class TokenCleanupService {
 
     private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
 
     /**
      * Limpia tokens de restablecimiento expirados
@@ -36,6 +38,11 @@ public class TokenCleanupService {
             } else {
                 log.debug("No se encontraron tokens expirados para eliminar");
             }
+
+            int deletedRefreshTokens = refreshTokenRepository.deleteExpiredTokens(LocalDateTime.now());
+            if (deletedRefreshTokens > 0) {
+                log.info("Se eliminaron {} tokens de refresco expirados", deletedRefreshTokens);
+            }
         } catch (Exception e) {
             log.error("Error durante la limpieza de tokens expirados: {}", e.getMessage(), e);
         }
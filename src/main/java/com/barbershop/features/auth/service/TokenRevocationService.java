@@ -0,0 +1,154 @@
+package com.barbershop.features.auth.service;
+
+import com.barbershop.features.auth.config.AuthProperties;
+import com.barbershop.features.auth.model.TokenRevocation;
+import com.barbershop.features.auth.repository.TokenRevocationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio de revocación de tokens JWT por versión de token del usuario.
+ * Mantiene en memoria el mapa userId → versión mínima válida, de modo que la
+ * verificación en cada petición es una sola búsqueda en un mapa hash.
+ * Las revocaciones más antiguas que la vida máxima de un token se depuran,
+ * ya que ningún token emitido antes de ellas puede seguir vigente.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private static final long INITIAL_VERSION = 0L;
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final AuthProperties authProperties;
+
+    private final Map<String, MinimumVersion> minimumVersions = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastSync;
+
+    /**
+     * Carga las revocaciones persistidas al iniciar la aplicación
+     */
+    @PostConstruct
+    public void loadRevocations() {
+        LocalDateTime syncStart = LocalDateTime.now();
+        List<TokenRevocation> revocations = tokenRevocationRepository.findAll();
+        revocations.forEach(this::apply);
+        lastSync = syncStart;
+        log.info("Se cargaron {} revocaciones de tokens", revocations.size());
+    }
+
+    /**
+     * Sincroniza las revocaciones registradas por otras instancias y depura las expiradas
+     * Se ejecuta cada minuto
+     */
+    @Scheduled(fixedRate = 60000, initialDelay = 60000)
+    @Transactional
+    public void syncRevocations() {
+        try {
+            LocalDateTime syncStart = LocalDateTime.now();
+            // Margen para no perder revocaciones confirmadas durante la sincronización anterior
+            tokenRevocationRepository.findRevokedSince(lastSync.minusMinutes(1)).forEach(this::apply);
+            lastSync = syncStart;
+            pruneRevocations(syncStart);
+        } catch (Exception e) {
+            log.error("Error al sincronizar revocaciones de tokens: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Obtiene la versión de token vigente del usuario, usada al emitir nuevos tokens
+     * @param userId ID del usuario
+     * @return Versión de token actual
+     */
+    public long getCurrentVersion(String userId) {
+        MinimumVersion minimum = minimumVersions.get(userId);
+        return minimum != null ? minimum.tokenVersion() : INITIAL_VERSION;
+    }
+
+    /**
+     * Verifica si un token fue revocado
+     * @param userId ID del usuario del token
+     * @param tokenVersion Versión con la que se emitió el token
+     * @return true si el token fue emitido antes de la última revocación del usuario
+     */
+    public boolean isRevoked(String userId, long tokenVersion) {
+        MinimumVersion minimum = minimumVersions.get(userId);
+        return minimum != null && tokenVersion < minimum.tokenVersion();
+    }
+
+    /**
+     * Revoca todos los tokens emitidos hasta ahora para el usuario
+     * @param userId ID del usuario
+     * @param reason Motivo de la revocación
+     */
+    @Transactional
+    public void revokeAll(String userId, String reason) {
+        long persisted = tokenRevocationRepository.findById(userId)
+                .map(TokenRevocation::getTokenVersion)
+                .orElse(INITIAL_VERSION);
+        // La versión nunca baja de la hora actual en milisegundos: si la revocación anterior ya se
+        // depuró, los tokens aún vigentes emitidos con su versión quedan igualmente por debajo
+        long newVersion = Math.max(Math.max(persisted, getCurrentVersion(userId)) + 1, System.currentTimeMillis());
+
+        TokenRevocation revocation = TokenRevocation.builder()
+                .userId(userId)
+                .tokenVersion(newVersion)
+                .reason(reason)
+                .revokedAt(LocalDateTime.now())
+                .build();
+        tokenRevocationRepository.save(revocation);
+
+        // Aplicar en memoria solo cuando la transacción se confirme
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(revocation);
+                }
+            });
+        } else {
+            apply(revocation);
+        }
+
+        log.info("Tokens revocados para usuario {} (versión mínima {}, motivo: {})", userId, newVersion, reason);
+    }
+
+    /**
+     * Elimina las revocaciones más antiguas que la vida máxima de un token (acceso o refresco)
+     * @param now Momento de referencia
+     */
+    private void pruneRevocations(LocalDateTime now) {
+        long maxLifetime = Math.max(authProperties.getJwt().getExpirationTime(),
+                authProperties.getRefreshToken().getExpirationTime());
+        LocalDateTime cutoff = now.minusNanos(maxLifetime * 1_000_000);
+
+        int deleted = tokenRevocationRepository.deleteRevokedBefore(cutoff);
+        minimumVersions.values().removeIf(minimum -> minimum.revokedAt().isBefore(cutoff));
+
+        if (deleted > 0) {
+            log.info("Se depuraron {} revocaciones de tokens anteriores a {}", deleted, cutoff);
+        }
+    }
+
+    private void apply(TokenRevocation revocation) {
+        minimumVersions.merge(revocation.getUserId(),
+                new MinimumVersion(revocation.getTokenVersion(), revocation.getRevokedAt()),
+                (current, candidate) -> candidate.tokenVersion() > current.tokenVersion() ? candidate : current);
+    }
+
+    private record MinimumVersion(long tokenVersion, LocalDateTime revokedAt) {
+    }
+}
@@ -4,7 +4,11 @@ import com.barbershop.features.auth.config.AuthProperties;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.HexFormat;
 import java.util.regex.Pattern;
 
 /**
@@ -80,6 +84,35 @@ public class AuthUtils {
         return token.toString();
     }
 
+    /**
+     * Genera un token de refresco aleatorio y seguro
+     * @return Token de refresco
+     */
+    public String generateRefreshToken() {
+        int tokenLength = authProperties.getRefreshToken().getTokenLength();
+        StringBuilder token = new StringBuilder(tokenLength);
+
+        for (int i = 0; i < tokenLength; i++) {
+            token.append(CHARACTERS.charAt(SECURE_RANDOM.nextInt(CHARACTERS.length())));
+        }
+
+        return token.toString();
+    }
+
+    /**
+     * Calcula el hash SHA-256 de un token para almacenarlo sin exponer su valor
+     * @param token Token en texto plano
+     * @return Hash en hexadecimal
+     */
+    public String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Algoritmo SHA-256 no disponible", e);
+        }
+    }
+
     /**
      * Valida si un email tiene un formato válido.
      *
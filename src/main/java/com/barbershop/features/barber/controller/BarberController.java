@@ -1,6 +1,7 @@
 package com.barbershop.features.barber.controller;
 
 import com.barbershop.common.dto.ApiResponseDto;
+import com.barbershop.common.util.FieldSelection;
 import com.barbershop.features.barber.dto.BarberAvailabilityResponseDto;
 import com.barbershop.features.barber.dto.BarberResponseDto;
 import com.barbershop.features.barber.dto.request.CreateBarberAvailabilityRequestDto;
@@ -103,6 +104,7 @@ public class BarberController {
      * @param size Tamaño de página para paginación
      * @param sortBy Campo por el cual ordenar
      * @param sortDir Dirección de ordenamiento
+     * @param fields Campos a incluir en cada barbero (opcional)
      * @param request Request HTTP para extraer el token de autenticación
      * @return Respuesta con barbero específico o lista paginada de barberos
      */
@@ -131,8 +133,11 @@ public class BarberController {
             @Parameter(description = "Tamaño de página") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Campo por el cual ordenar") @RequestParam(defaultValue = "id") String sortBy,
             @Parameter(description = "Dirección de ordenamiento (asc o desc)") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Campos a incluir separados por comas (p. ej. id,specialization); vacío para todos") @RequestParam(required = false) String fields,
             HttpServletRequest request) {
 
+        FieldSelection.fromRequest(fields, BarberResponseDto.class, "barberId", request);
+
         if (id != null && !id.isEmpty()) {
             // Obtener barbero específico por ID
             BarberResponseDto barber = barberService.getBarberById(id);
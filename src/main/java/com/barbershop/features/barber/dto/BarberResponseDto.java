@@ -1,5 +1,7 @@
 package com.barbershop.features.barber.dto;
 
+import com.barbershop.common.util.FieldSelection;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
@@ -7,6 +9,7 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Data
+@JsonFilter(FieldSelection.FILTER_ID)
 @Schema(description = "DTO de respuesta para información del barbero")
 public class BarberResponseDto {
 
@@ -1,5 +1,7 @@
 package com.barbershop.features.barber.model;
 
+import com.barbershop.common.util.UuidStringType;
+import com.barbershop.common.util.UuidV7Generator;
 import com.barbershop.features.appointment.model.Appointment;
 import com.barbershop.features.barbershop.model.Barbershop;
 import com.barbershop.features.user.model.User;
@@ -10,8 +12,12 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Type;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
@@ -22,19 +28,25 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "barber")
 @Table(name = "barbers")
 @ToString(exclude = {"barbershop", "barberAvailabilities", "appointments"})
 @EqualsAndHashCode(exclude = {"barbershop", "barberAvailabilities", "appointments"})
 public class Barber implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @Type(UuidStringType.class)
     @Column(name = "barber_id")
     private String barberId;
 
+    @Type(UuidStringType.class)
     @Column(name = "user_id", nullable = false)
     private String userId;
 
+    @Type(UuidStringType.class)
     @Column(name = "barbershop_id", nullable = false)
     private String barbershopId;
 
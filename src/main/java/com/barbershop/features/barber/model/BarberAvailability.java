@@ -1,5 +1,7 @@
 package com.barbershop.features.barber.model;
 
+import com.barbershop.common.util.UuidStringType;
+import com.barbershop.common.util.UuidV7Generator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -8,7 +10,9 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Type;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
@@ -25,10 +29,13 @@ import java.time.LocalTime;
 public class BarberAvailability implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @Type(UuidStringType.class)
     @Column(name = "barber_availability_id")
     private String barberAvailabilityId;
 
+    @Type(UuidStringType.class)
     @Column(name = "barber_id", nullable = false)
     private String barberId;
 
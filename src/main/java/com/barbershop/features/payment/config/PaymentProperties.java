@@ -0,0 +1,42 @@
+package com.barbershop.features.payment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Propiedades de configuración para el módulo de pagos
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.payment")
+public class PaymentProperties {
+
+    /**
+     * Configuración del barrido de pagos pendientes abandonados
+     */
+    private StaleSweep staleSweep = new StaleSweep();
+
+    @Data
+    public static class StaleSweep {
+        /**
+         * Habilita el barrido programado
+         */
+        private boolean enabled = true;
+
+        /**
+         * Antigüedad a partir de la cual un pago pendiente se considera abandonado, en milisegundos
+         */
+        private long staleAfter = 172_800_000;
+
+        /**
+         * Cantidad de pagos actualizados por transacción
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Cantidad máxima de bloques por ejecución
+         */
+        private int maxChunksPerRun = 200;
+    }
+}
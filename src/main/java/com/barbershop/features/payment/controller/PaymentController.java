@@ -1,10 +1,17 @@
 package com.barbershop.features.payment.controller;
 
 import com.barbershop.common.dto.ApiResponseDto;
+import com.barbershop.common.dto.CursorPageDto;
+import com.barbershop.common.service.IdempotencyService;
+import com.barbershop.common.util.ExportFormat;
 import com.barbershop.features.payment.dto.PaymentResponseDto;
+import com.barbershop.features.payment.dto.RevenuePointDto;
 import com.barbershop.features.payment.dto.request.CreatePaymentRequestDto;
 import com.barbershop.features.payment.model.enums.PaymentMethod;
 import com.barbershop.features.payment.model.enums.PaymentStatus;
+import com.barbershop.features.payment.model.enums.RevenueGranularity;
+import com.barbershop.features.payment.model.enums.RevenueGroupBy;
+import com.barbershop.features.payment.service.PaymentAggregateService;
 import com.barbershop.features.payment.service.PaymentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -22,7 +29,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -34,6 +43,7 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     // ========== ENDPOINTS CRUD BÁSICOS ==========
 
@@ -46,6 +56,7 @@ public class PaymentController {
      * - CLIENT: Solo puede crear pagos para sus propias citas
      * 
      * @param request Datos del pago a crear
+     * @param idempotencyKey Clave opcional para que los reintentos devuelvan el pago original
      * @param httpRequest Request HTTP para extraer el token de autenticación
      * @return Respuesta con los datos del pago creado
      */
@@ -64,11 +75,18 @@ public class PaymentController {
     @PostMapping
     public ResponseEntity<ApiResponseDto<PaymentResponseDto>> createPayment(
             @Valid @RequestBody CreatePaymentRequestDto request,
+            @Parameter(description = "Clave única del intento de pago; los reintentos con la misma clave devuelven la respuesta original")
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             HttpServletRequest httpRequest) {
         
         String token = extractTokenFromRequest(httpRequest);
-        ApiResponseDto<PaymentResponseDto> response = paymentService.createPayment(request, token);
-        return ResponseEntity.status(response.getStatus()).body(response);
+        IdempotencyService.Result<ApiResponseDto<PaymentResponseDto>> result = idempotencyService.execute(
+                "POST /api/v1/payments", idempotencyKey, request,
+                () -> paymentService.createPayment(request, token));
+        ApiResponseDto<PaymentResponseDto> response = result.value();
+        return ResponseEntity.status(response.getStatus())
+                .header(IdempotencyService.IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(response);
     }
 
     /**
@@ -427,6 +445,93 @@ public class PaymentController {
         return ResponseEntity.status(response.getStatus()).body(response);
     }
 
+    // ========== ENDPOINTS DE PAGINACIÓN POR CURSOR ==========
+
+    /**
+     * Obtiene todos los pagos paginados por cursor, sin conteo total.
+     * 
+     * Permisos de acceso:
+     * - ADMIN: Acceso completo a todos los pagos del sistema
+     * 
+     * @param cursor Cursor devuelto por la página anterior (vacío para la primera)
+     * @param size Tamaño de página (máximo 100)
+     * @param sortBy Campo para ordenar
+     * @param sortDir Dirección de ordenamiento
+     * @param httpRequest Request HTTP para extraer el token de autenticación
+     * @return Respuesta con la página de pagos y el cursor de la siguiente
+     */
+    @Operation(
+            summary = "Obtener todos los pagos por cursor",
+            description = "<strong>Permisos:</strong><br/>" +
+                         "• <strong>ADMIN:</strong> Acceso completo a todos los pagos del sistema"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pagos obtenidos exitosamente",
+                    content = @Content(schema = @Schema(implementation = ApiResponseDto.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/all/cursor")
+    public ResponseEntity<ApiResponseDto<CursorPageDto<PaymentResponseDto>>> getAllPaymentsByCursor(
+            @Parameter(description = "Cursor de la página siguiente")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo para ordenar", example = "createdAt")
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @Parameter(description = "Dirección de ordenamiento", example = "desc")
+            @RequestParam(defaultValue = "desc") String sortDir,
+            HttpServletRequest httpRequest) {
+        
+        String token = extractTokenFromRequest(httpRequest);
+        ApiResponseDto<CursorPageDto<PaymentResponseDto>> response = paymentService.getAllPaymentsByCursor(cursor, size, sortBy, sortDir, token);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    /**
+     * Obtiene los pagos de un cliente paginados por cursor, sin conteo total.
+     * 
+     * Permisos de acceso:
+     * - ADMIN: Puede ver pagos de cualquier cliente
+     * - CLIENT: Solo puede ver sus propios pagos
+     * 
+     * @param clientId ID del cliente
+     * @param cursor Cursor devuelto por la página anterior (vacío para la primera)
+     * @param size Tamaño de página (máximo 100)
+     * @param sortBy Campo para ordenar
+     * @param sortDir Dirección de ordenamiento
+     * @param httpRequest Request HTTP para extraer el token de autenticación
+     * @return Respuesta con la página de pagos del cliente y el cursor de la siguiente
+     */
+    @Operation(
+            summary = "Obtener pagos por cliente por cursor",
+            description = "<strong>Permisos:</strong><br/>" +
+                         "• <strong>ADMIN:</strong> Puede ver pagos de cualquier cliente<br/>" +
+                         "• <strong>CLIENT:</strong> Solo puede ver sus propios pagos"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pagos del cliente obtenidos exitosamente",
+                    content = @Content(schema = @Schema(implementation = ApiResponseDto.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/client/cursor")
+    public ResponseEntity<ApiResponseDto<CursorPageDto<PaymentResponseDto>>> getPaymentsByClientByCursor(
+            @Parameter(description = "ID del cliente", required = true)
+            @RequestParam String clientId,
+            @Parameter(description = "Cursor de la página siguiente")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo para ordenar", example = "createdAt")
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @Parameter(description = "Dirección de ordenamiento", example = "desc")
+            @RequestParam(defaultValue = "desc") String sortDir,
+            HttpServletRequest httpRequest) {
+        
+        String token = extractTokenFromRequest(httpRequest);
+        ApiResponseDto<CursorPageDto<PaymentResponseDto>> response = paymentService.getPaymentsByClientByCursor(clientId, cursor, size, sortBy, sortDir, token);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
     // ========== ENDPOINTS DE ESTADÍSTICAS ==========
 
     /**
@@ -457,6 +562,120 @@ public class PaymentController {
         return ResponseEntity.status(response.getStatus()).body(response);
     }
 
+    /**
+     * Obtiene la serie temporal de ingresos (pagos completados) desde el acumulado diario.
+     * 
+     * Permisos de acceso:
+     * - ADMIN: Acceso completo a los ingresos por barbero, servicio y método de pago
+     * 
+     * @param from Fecha inicial (inclusive)
+     * @param to Fecha final (inclusive)
+     * @param granularity Granularidad: DAY, WEEK o MONTH
+     * @param groupBy Dimensión para separar la serie: NONE, BARBER, SERVICE o PAYMENT_METHOD
+     * @param barberId Filtro opcional por barbero
+     * @param serviceId Filtro opcional por servicio
+     * @param paymentMethod Filtro opcional por método de pago
+     * @param httpRequest Request HTTP para extraer el token de autenticación
+     * @return Respuesta con los puntos de la serie
+     */
+    @Operation(
+            summary = "Obtener serie temporal de ingresos",
+            description = "<strong>Permisos:</strong><br/>" +
+                         "• <strong>ADMIN:</strong> Acceso completo a los ingresos por barbero, servicio y método de pago"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Serie de ingresos obtenida exitosamente",
+                    content = @Content(schema = @Schema(implementation = ApiResponseDto.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/revenue")
+    public ResponseEntity<ApiResponseDto<List<RevenuePointDto>>> getRevenueTimeSeries(
+            @Parameter(description = "Fecha inicial", required = true, example = "2024-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Fecha final", required = true, example = "2024-12-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Granularidad de la serie", example = "MONTH")
+            @RequestParam(defaultValue = "DAY") RevenueGranularity granularity,
+            @Parameter(description = "Dimensión por la que separar la serie", example = "PAYMENT_METHOD")
+            @RequestParam(defaultValue = "NONE") RevenueGroupBy groupBy,
+            @Parameter(description = "ID del barbero")
+            @RequestParam(required = false) String barberId,
+            @Parameter(description = "ID del servicio")
+            @RequestParam(required = false) String serviceId,
+            @Parameter(description = "Método de pago")
+            @RequestParam(required = false) PaymentMethod paymentMethod,
+            HttpServletRequest httpRequest) {
+        
+        String token = extractTokenFromRequest(httpRequest);
+        ApiResponseDto<List<RevenuePointDto>> response = paymentService.getRevenueTimeSeries(
+                from, to, granularity, groupBy, barberId, serviceId, paymentMethod, token);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    /**
+     * Exporta el historial de pagos en streaming (CSV o NDJSON).
+     * 
+     * Permisos de acceso:
+     * - ADMIN: Puede exportar todos los pagos del sistema
+     * 
+     * @param from Fecha y hora inicial (inclusive) de creación de los pagos
+     * @param to Fecha y hora final (exclusiva) de creación de los pagos
+     * @param format Formato de salida
+     * @param httpRequest Request HTTP para extraer el token de autenticación
+     * @return Archivo con una fila por pago, enviado a medida que se lee
+     */
+    @Operation(
+            summary = "Exportar pagos",
+            description = "<strong>Permisos:</strong><br/>" +
+                         "• <strong>ADMIN:</strong> Puede exportar todos los pagos del sistema"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportación de pagos generada exitosamente",
+                    content = {@Content(mediaType = "text/csv"), @Content(mediaType = "application/x-ndjson")})
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @Parameter(description = "Fecha y hora inicial (inclusive)", example = "2024-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Fecha y hora final (exclusiva)", example = "2025-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Formato de salida (CSV o NDJSON)", example = "CSV")
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            HttpServletRequest httpRequest) {
+        
+        String token = extractTokenFromRequest(httpRequest);
+        return paymentService.exportPayments(from, to, format, token);
+    }
+
+    /**
+     * Reconcilia los agregados de estadísticas con la tabla de pagos.
+     * 
+     * Permisos de acceso:
+     * - ADMIN: Puede forzar la reconciliación y ver las desviaciones encontradas
+     * 
+     * @param httpRequest Request HTTP para extraer el token de autenticación
+     * @return Respuesta con el informe de desviaciones corregidas
+     */
+    @Operation(
+            summary = "Reconciliar estadísticas de pagos",
+            description = "<strong>Permisos:</strong><br/>" +
+                         "• <strong>ADMIN:</strong> Recalcula los agregados desde la tabla de pagos y reporta las desviaciones"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Agregados de pagos reconciliados exitosamente",
+                    content = @Content(schema = @Schema(implementation = ApiResponseDto.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping("/stats/reconcile")
+    public ResponseEntity<ApiResponseDto<PaymentAggregateService.ReconciliationReport>> reconcilePaymentStats(
+            HttpServletRequest httpRequest) {
+        
+        String token = extractTokenFromRequest(httpRequest);
+        ApiResponseDto<PaymentAggregateService.ReconciliationReport> response = paymentService.reconcilePaymentStats(token);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
     // ========== MÉTODOS AUXILIARES ==========
 
     /**
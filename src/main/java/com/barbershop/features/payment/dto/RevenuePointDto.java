@@ -0,0 +1,30 @@
+package com.barbershop.features.payment.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Punto de una serie temporal de ingresos")
+public class RevenuePointDto {
+
+    @Schema(description = "Inicio del periodo (día, lunes de la semana o primer día del mes)", example = "2024-01-01")
+    private LocalDate periodStart;
+
+    @Schema(description = "Valor de la dimensión agrupada (barbero, servicio o método); null si no se agrupa", example = "CASH")
+    private String groupKey;
+
+    @Schema(description = "Ingresos de pagos completados en el periodo", example = "1250.00")
+    private BigDecimal totalAmount;
+
+    @Schema(description = "Cantidad de pagos completados en el periodo", example = "48")
+    private long paymentCount;
+}
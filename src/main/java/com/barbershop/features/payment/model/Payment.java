@@ -1,5 +1,7 @@
 package com.barbershop.features.payment.model;
 
+import com.barbershop.common.util.UuidStringType;
+import com.barbershop.common.util.UuidV7Generator;
 import com.barbershop.features.payment.model.enums.PaymentMethod;
 import com.barbershop.features.payment.model.enums.PaymentStatus;
 import jakarta.persistence.*;
@@ -7,7 +9,9 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Type;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
@@ -15,19 +19,38 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_client_payment_date", columnList = "client_id, payment_date"),
+        @Index(name = "idx_payments_barber_status_amount", columnList = "barber_id, payment_status, amount")
+})
 @ToString(exclude = {"appointment"})
 @EqualsAndHashCode(exclude = {"appointment"})
 public class Payment implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @Type(UuidStringType.class)
     @Column(name = "payment_id")
     private String paymentId;
 
+    @Type(UuidStringType.class)
     @Column(name = "appointment_id", nullable = false)
     private String appointmentId;
 
+    // Copias de la cita para filtrar por cliente, barbero o barbería sin JOIN a appointments
+    @Type(UuidStringType.class)
+    @Column(name = "client_id")
+    private String clientId;
+
+    @Type(UuidStringType.class)
+    @Column(name = "barber_id")
+    private String barberId;
+
+    @Type(UuidStringType.class)
+    @Column(name = "barbershop_id")
+    private String barbershopId;
+
     @Column(name = "amount", nullable = false, precision = 10, scale = 2)
     private BigDecimal amount;
 
@@ -0,0 +1,35 @@
+package com.barbershop.features.payment.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Conteo y monto acumulado de pagos por día, estado y método.
+ * Se mantiene en la misma transacción que cada alta, cambio de estado o eliminación de un pago.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "payment_aggregates")
+public class PaymentAggregate {
+
+    @EmbeddedId
+    private PaymentAggregateId id;
+
+    @Column(name = "payment_count", nullable = false)
+    private Long paymentCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,35 @@
+package com.barbershop.features.payment.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ingresos diarios (pagos completados) por barbero, servicio y método de pago.
+ * Se recalcula por día a partir de los pagos modificados desde la última marca de agua.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "revenue_rollups")
+public class RevenueRollup {
+
+    @EmbeddedId
+    private RevenueRollupId id;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "payment_count", nullable = false)
+    private Long paymentCount;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,36 @@
+package com.barbershop.features.payment.model;
+
+import com.barbershop.features.payment.model.enums.PaymentMethod;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Clave de un acumulado de ingresos: día de pago, barbero, servicio y método de pago
+ */
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueRollupId implements Serializable {
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "barber_id", nullable = false)
+    private String barberId;
+
+    @Column(name = "service_id", nullable = false)
+    private String serviceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false, length = 50)
+    private PaymentMethod paymentMethod;
+}
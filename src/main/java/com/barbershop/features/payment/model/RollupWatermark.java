@@ -0,0 +1,31 @@
+package com.barbershop.features.payment.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marca de agua de un proceso de acumulado: último updated_at procesado
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "rollup_watermarks")
+public class RollupWatermark {
+
+    @Id
+    @Column(name = "rollup_name", length = 50)
+    private String rollupName;
+
+    @Column(name = "watermark", nullable = false)
+    private LocalDateTime watermark;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -5,5 +5,20 @@ public enum PaymentStatus {
     COMPLETED,
     FAILED,
     REFUNDED,
-    CANCELLED
-}
\ No newline at end of file
+    CANCELLED;
+
+    /**
+     * Indica si un pago en este estado puede pasar al estado indicado
+     * @param newStatus Estado destino
+     * @return true si la transición es válida
+     */
+    public boolean canTransitionTo(PaymentStatus newStatus) {
+        return switch (this) {
+            case PENDING -> newStatus == COMPLETED || newStatus == FAILED || newStatus == CANCELLED;
+            case COMPLETED -> newStatus == REFUNDED;
+            case FAILED -> newStatus == PENDING || newStatus == COMPLETED || newStatus == CANCELLED;
+            case REFUNDED -> false; // No se puede cambiar desde REFUNDED
+            case CANCELLED -> newStatus == PENDING; // Solo se puede reactivar
+        };
+    }
+}
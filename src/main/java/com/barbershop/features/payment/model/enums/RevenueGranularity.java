@@ -0,0 +1,7 @@
+package com.barbershop.features.payment.model.enums;
+
+public enum RevenueGranularity {
+    DAY,
+    WEEK,
+    MONTH
+}
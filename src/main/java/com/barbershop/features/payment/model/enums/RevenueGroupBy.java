@@ -0,0 +1,8 @@
+package com.barbershop.features.payment.model.enums;
+
+public enum RevenueGroupBy {
+    NONE,
+    BARBER,
+    SERVICE,
+    PAYMENT_METHOD
+}
@@ -0,0 +1,41 @@
+package com.barbershop.features.payment.repository;
+
+import com.barbershop.features.payment.model.PaymentAggregate;
+import com.barbershop.features.payment.model.PaymentAggregateId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PaymentAggregateRepository extends JpaRepository<PaymentAggregate, PaymentAggregateId> {
+
+    /**
+     * Suma un delta al agregado del día, estado y método indicados, creándolo si no existe.
+     * El upsert es atómico, por lo que no requiere leer la fila antes de actualizarla
+     */
+    @Modifying
+    @Query(value = "INSERT INTO payment_aggregates (bucket_date, payment_status, payment_method, payment_count, total_amount, updated_at) " +
+            "VALUES (:bucketDate, :status, :method, :countDelta, :amountDelta, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (bucket_date, payment_status, payment_method) DO UPDATE SET " +
+            "payment_count = payment_aggregates.payment_count + EXCLUDED.payment_count, " +
+            "total_amount = payment_aggregates.total_amount + EXCLUDED.total_amount, " +
+            "updated_at = CURRENT_TIMESTAMP", nativeQuery = true)
+    void applyDelta(@Param("bucketDate") LocalDate bucketDate,
+                    @Param("status") String status,
+                    @Param("method") String method,
+                    @Param("countDelta") long countDelta,
+                    @Param("amountDelta") BigDecimal amountDelta);
+
+    /**
+     * Totales por estado: [estado, cantidad, monto]
+     */
+    @Query("SELECT a.id.paymentStatus, COALESCE(SUM(a.paymentCount), 0), COALESCE(SUM(a.totalAmount), 0) " +
+            "FROM PaymentAggregate a GROUP BY a.id.paymentStatus")
+    List<Object[]> sumByStatus();
+}
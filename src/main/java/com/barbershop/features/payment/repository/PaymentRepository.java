@@ -7,6 +7,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,7 +19,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, String> {
+public interface PaymentRepository extends JpaRepository<Payment, String>, JpaSpecificationExecutor<Payment> {
 
     // ========== CONSULTAS BÁSICAS ==========
 
@@ -140,19 +142,28 @@ public interface PaymentRepository extends JpaRepository<Payment, String> {
     @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.paymentMethod = :method AND p.paymentStatus = 'COMPLETED'")
     BigDecimal sumAmountByPaymentMethod(@Param("method") PaymentMethod method);
 
+    /**
+     * Recalcula desde la tabla de pagos los agregados por día, estado y método:
+     * [fecha, estado, método, cantidad, monto]
+     */
+    @Query(value = "SELECT CAST(p.created_at AS date), p.payment_status, p.payment_method, COUNT(*), COALESCE(SUM(p.amount), 0) " +
+            "FROM payments p GROUP BY CAST(p.created_at AS date), p.payment_status, p.payment_method", nativeQuery = true)
+    List<Object[]> aggregateByDayStatusAndMethod();
+
     // ========== CONSULTAS POR CLIENTE ==========
 
     /**
      * Busca pagos de un cliente específico
      */
-    @Query("SELECT p FROM Payment p JOIN p.appointment a WHERE a.clientId = :clientId")
+    @Query(value = "SELECT p FROM Payment p WHERE p.clientId = :clientId",
+            countQuery = "SELECT COUNT(p) FROM Payment p WHERE p.clientId = :clientId")
     @EntityGraph(attributePaths = {"appointment", "appointment.client", "appointment.barber", "appointment.service"})
     Page<Payment> findByClientId(@Param("clientId") String clientId, Pageable pageable);
 
     /**
      * Suma total de pagos de un cliente
      */
-    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p JOIN p.appointment a WHERE a.clientId = :clientId AND p.paymentStatus = 'COMPLETED'")
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.clientId = :clientId AND p.paymentStatus = 'COMPLETED'")
     BigDecimal sumAmountByClientId(@Param("clientId") String clientId);
 
     // ========== CONSULTAS POR BARBERO ==========
@@ -160,16 +171,39 @@ public interface PaymentRepository extends JpaRepository<Payment, String> {
     /**
      * Busca pagos de servicios realizados por un barbero específico
      */
-    @Query("SELECT p FROM Payment p JOIN p.appointment a WHERE a.barberId = :barberId")
+    @Query(value = "SELECT p FROM Payment p WHERE p.barberId = :barberId",
+            countQuery = "SELECT COUNT(p) FROM Payment p WHERE p.barberId = :barberId")
     @EntityGraph(attributePaths = {"appointment", "appointment.client", "appointment.barber", "appointment.service"})
     Page<Payment> findByBarberId(@Param("barberId") String barberId, Pageable pageable);
 
     /**
      * Suma total de pagos de servicios de un barbero
      */
-    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p JOIN p.appointment a WHERE a.barberId = :barberId AND p.paymentStatus = 'COMPLETED'")
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.barberId = :barberId AND p.paymentStatus = 'COMPLETED'")
     BigDecimal sumAmountByBarberId(@Param("barberId") String barberId);
 
+    // ========== DATOS DESNORMALIZADOS ==========
+
+    /**
+     * Indica si quedan pagos sin cliente, barbero y barbería copiados de la cita
+     */
+    boolean existsByClientIdIsNull();
+
+    /**
+     * Copia cliente, barbero y barbería desde la cita al siguiente bloque de pagos que aún no los tienen,
+     * recorriendo por payment_id a partir del último pago revisado. Los pagos sin cita se saltan.
+     * Devuelve una fila con el último payment_id del bloque (null si no quedan pagos) y la cantidad actualizada
+     */
+    @Query(value = "WITH chunk AS (SELECT payment_id, appointment_id FROM payments " +
+            "WHERE client_id IS NULL AND payment_id > CAST(:afterPaymentId AS uuid) " +
+            "ORDER BY payment_id LIMIT :limit FOR UPDATE SKIP LOCKED), " +
+            "updated AS (UPDATE payments p SET client_id = a.client_id, barber_id = a.barber_id, barbershop_id = a.barbershop_id " +
+            "FROM chunk c JOIN appointments a ON a.appointment_id = c.appointment_id " +
+            "WHERE p.payment_id = c.payment_id RETURNING p.payment_id) " +
+            "SELECT (SELECT CAST(payment_id AS varchar) FROM chunk ORDER BY payment_id DESC LIMIT 1), " +
+            "(SELECT COUNT(*) FROM updated)", nativeQuery = true)
+    List<Object[]> backfillDenormalizedColumns(@Param("afterPaymentId") String afterPaymentId, @Param("limit") int limit);
+
     // ========== CONSULTAS DE PAGOS PENDIENTES ==========
 
     /**
@@ -183,4 +217,29 @@ public interface PaymentRepository extends JpaRepository<Payment, String> {
      */
     @EntityGraph(attributePaths = {"appointment", "appointment.client", "appointment.barber", "appointment.service"})
     List<Payment> findByPaymentStatusAndUpdatedAtBefore(PaymentStatus status, LocalDateTime date);
+
+    /**
+     * Bloquea el siguiente bloque de pagos pendientes creados antes de la fecha límite, en orden (created_at, payment_id)
+     * a partir del cursor. Omite las filas bloqueadas por otras transacciones.
+     * Cada fila: [payment_id, created_at, payment_method, amount, estado de la cita]
+     */
+    @Query(value = "SELECT CAST(p.payment_id AS varchar), p.created_at, p.payment_method, p.amount, a.status FROM payments p " +
+            "LEFT JOIN appointments a ON a.appointment_id = p.appointment_id " +
+            "WHERE p.payment_status = 'PENDING' AND p.created_at < :cutoff " +
+            "AND (p.created_at, p.payment_id) > (:afterCreatedAt, CAST(:afterId AS uuid)) " +
+            "ORDER BY p.created_at, p.payment_id LIMIT :limit FOR UPDATE OF p SKIP LOCKED", nativeQuery = true)
+    List<Object[]> lockStalePendingChunk(@Param("cutoff") LocalDateTime cutoff,
+                                         @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                         @Param("afterId") String afterId,
+                                         @Param("limit") int limit);
+
+    /**
+     * Cambia el estado de los pagos indicados que sigan pendientes
+     */
+    @Modifying
+    @Query("UPDATE Payment p SET p.paymentStatus = :newStatus, p.updatedAt = :now " +
+            "WHERE p.paymentId IN :paymentIds AND p.paymentStatus = 'PENDING'")
+    int updatePendingStatus(@Param("paymentIds") List<String> paymentIds,
+                            @Param("newStatus") PaymentStatus newStatus,
+                            @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.barbershop.features.payment.repository;
+
+import com.barbershop.features.appointment.model.Appointment;
+import com.barbershop.features.payment.model.Payment;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Especificaciones reutilizables para las consultas de pagos.
+ */
+public final class PaymentSpecifications {
+
+    private PaymentSpecifications() {
+    }
+
+    /**
+     * Trae en la misma consulta la cita del pago con su cliente, barbero y servicio, sin cambiar el número de filas.
+     * La lectura por keyset (scroll) de Spring Data no aplica el grafo de project(), por eso se unen aquí
+     */
+    public static Specification<Payment> fetchAppointmentDetails() {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                Fetch<Payment, Appointment> appointment = root.fetch("appointment", JoinType.LEFT);
+                appointment.fetch("client", JoinType.LEFT);
+                appointment.fetch("barber", JoinType.LEFT);
+                appointment.fetch("service", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+}
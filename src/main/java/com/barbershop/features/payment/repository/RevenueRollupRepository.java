@@ -0,0 +1,63 @@
+package com.barbershop.features.payment.repository;
+
+import com.barbershop.features.payment.model.RevenueRollup;
+import com.barbershop.features.payment.model.RevenueRollupId;
+import com.barbershop.features.payment.model.enums.PaymentMethod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, RevenueRollupId> {
+
+    /**
+     * Días de pago afectados por pagos modificados desde una fecha
+     */
+    @Query(value = "SELECT DISTINCT CAST(p.payment_date AS date) FROM payments p " +
+            "WHERE p.updated_at > :since AND p.payment_date IS NOT NULL", nativeQuery = true)
+    List<Object> findAffectedDaysSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Última modificación de pagos posterior a una fecha
+     */
+    @Query(value = "SELECT MAX(p.updated_at) FROM payments p WHERE p.updated_at > :since", nativeQuery = true)
+    Object findMaxUpdatedAtSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Elimina los acumulados de un día
+     */
+    @Modifying
+    @Query(value = "DELETE FROM revenue_rollups WHERE bucket_date = :day", nativeQuery = true)
+    int deleteByDay(@Param("day") LocalDate day);
+
+    /**
+     * Recalcula los acumulados de un día desde los pagos completados
+     */
+    @Modifying
+    @Query(value = "INSERT INTO revenue_rollups (bucket_date, barber_id, service_id, payment_method, total_amount, payment_count, refreshed_at) " +
+            "SELECT :day, CAST(a.barber_id AS varchar), CAST(a.service_id AS varchar), p.payment_method, SUM(p.amount), COUNT(*), CURRENT_TIMESTAMP " +
+            "FROM payments p JOIN appointments a ON a.appointment_id = p.appointment_id " +
+            "WHERE p.payment_status = 'COMPLETED' AND p.payment_date >= :dayStart AND p.payment_date < :dayEnd " +
+            "GROUP BY a.barber_id, a.service_id, p.payment_method", nativeQuery = true)
+    int insertDay(@Param("day") LocalDate day, @Param("dayStart") LocalDateTime dayStart, @Param("dayEnd") LocalDateTime dayEnd);
+
+    /**
+     * Acumulados diarios en un rango de fechas con filtros opcionales
+     */
+    @Query("SELECT r FROM RevenueRollup r WHERE r.id.bucketDate BETWEEN :from AND :to " +
+            "AND (:barberId IS NULL OR r.id.barberId = :barberId) " +
+            "AND (:serviceId IS NULL OR r.id.serviceId = :serviceId) " +
+            "AND (:method IS NULL OR r.id.paymentMethod = :method) " +
+            "ORDER BY r.id.bucketDate")
+    List<RevenueRollup> findSeries(@Param("from") LocalDate from,
+                                   @Param("to") LocalDate to,
+                                   @Param("barberId") String barberId,
+                                   @Param("serviceId") String serviceId,
+                                   @Param("method") PaymentMethod method);
+}
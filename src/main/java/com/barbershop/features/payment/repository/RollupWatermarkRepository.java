@@ -0,0 +1,9 @@
+package com.barbershop.features.payment.repository;
+
+import com.barbershop.features.payment.model.RollupWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RollupWatermarkRepository extends JpaRepository<RollupWatermark, String> {
+}
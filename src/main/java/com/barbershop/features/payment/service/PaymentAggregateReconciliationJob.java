@@ -0,0 +1,53 @@
+package com.barbershop.features.payment.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tarea programada que reconstruye los agregados de pagos desde la tabla de pagos
+ * y reporta cualquier desviación
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentAggregateReconciliationJob {
+
+    private final PaymentAggregateService paymentAggregateService;
+
+    /**
+     * Puebla los agregados al iniciar si la tabla está vacía (primer despliegue)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (paymentAggregateService.isEmpty()) {
+                log.info("Tabla de agregados de pagos vacía, se reconstruye desde la tabla de pagos");
+                paymentAggregateService.reconcile();
+            }
+        } catch (Exception e) {
+            log.error("Error al poblar los agregados de pagos: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reconcilia los agregados con la tabla de pagos
+     * Se ejecuta todos los días a las 3:00 AM
+     */
+    @Scheduled(cron = "0 0 3 * * *")
+    public void reconcile() {
+        try {
+            PaymentAggregateService.ReconciliationReport report = paymentAggregateService.reconcile();
+            if (report.getDriftedBuckets() > 0) {
+                log.warn("Reconciliación de agregados de pagos: {} grupos con desviación corregidos", report.getDriftedBuckets());
+            } else {
+                log.info("Reconciliación de agregados de pagos sin desviaciones ({} grupos revisados)", report.getCheckedBuckets());
+            }
+        } catch (Exception e) {
+            log.error("Error durante la reconciliación de agregados de pagos: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.barbershop.features.payment.service;
+
+import com.barbershop.features.payment.model.Payment;
+import com.barbershop.features.payment.model.PaymentAggregate;
+import com.barbershop.features.payment.model.PaymentAggregateId;
+import com.barbershop.features.payment.model.enums.PaymentMethod;
+import com.barbershop.features.payment.model.enums.PaymentStatus;
+import com.barbershop.features.payment.repository.PaymentAggregateRepository;
+import com.barbershop.features.payment.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mantiene la tabla payment_aggregates (día, estado, método) para que las estadísticas
+ * de pagos no dependan del tamaño de la tabla de pagos.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentAggregateService {
+
+    private final PaymentAggregateRepository paymentAggregateRepository;
+    private final PaymentRepository paymentRepository;
+
+    /**
+     * Registra un pago recién creado
+     * @param payment Pago guardado
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Payment payment) {
+        apply(payment, payment.getPaymentStatus(), 1, payment.getAmount());
+    }
+
+    /**
+     * Registra un cambio de estado moviendo el pago del agregado anterior al nuevo
+     * @param payment Pago actualizado
+     * @param previousStatus Estado anterior
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(Payment payment, PaymentStatus previousStatus) {
+        if (previousStatus == payment.getPaymentStatus()) {
+            return;
+        }
+        apply(payment, previousStatus, -1, payment.getAmount().negate());
+        apply(payment, payment.getPaymentStatus(), 1, payment.getAmount());
+    }
+
+    /**
+     * Registra la eliminación de un pago
+     * @param payment Pago eliminado
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Payment payment) {
+        apply(payment, payment.getPaymentStatus(), -1, payment.getAmount().negate());
+    }
+
+    /**
+     * Registra un cambio de estado masivo ya agrupado por día y método
+     * @param bucketDate Día de creación de los pagos
+     * @param method Método de pago
+     * @param from Estado anterior
+     * @param to Estado nuevo
+     * @param count Cantidad de pagos
+     * @param amount Monto total de los pagos
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBulkTransition(LocalDate bucketDate, PaymentMethod method, PaymentStatus from, PaymentStatus to,
+                                     long count, BigDecimal amount) {
+        paymentAggregateRepository.applyDelta(bucketDate, from.name(), method.name(), -count, amount.negate());
+        paymentAggregateRepository.applyDelta(bucketDate, to.name(), method.name(), count, amount);
+    }
+
+    /**
+     * Indica si la tabla de agregados aún no fue poblada
+     * @return true si no hay agregados
+     */
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+        return paymentAggregateRepository.count() == 0;
+    }
+
+    /**
+     * Obtiene los totales (cantidad y monto) por estado
+     * @return Mapa de estado a totales; los estados sin pagos se devuelven en cero
+     */
+    @Transactional(readOnly = true)
+    public Map<PaymentStatus, StatusTotals> getTotalsByStatus() {
+        Map<PaymentStatus, StatusTotals> totals = new EnumMap<>(PaymentStatus.class);
+        for (PaymentStatus status : PaymentStatus.values()) {
+            totals.put(status, new StatusTotals(0, BigDecimal.ZERO));
+        }
+        for (Object[] row : paymentAggregateRepository.sumByStatus()) {
+            totals.put((PaymentStatus) row[0], new StatusTotals(((Number) row[1]).longValue(), (BigDecimal) row[2]));
+        }
+        return totals;
+    }
+
+    /**
+     * Compara los agregados con la tabla de pagos y aplica las correcciones necesarias.
+     * Ambas lecturas se hacen sobre la misma instantánea; las correcciones son deltas,
+     * por lo que no pisan las actualizaciones concurrentes
+     * @return Informe de desviaciones encontradas
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.REPEATABLE_READ)
+    public ReconciliationReport reconcile() {
+        Map<PaymentAggregateId, StatusTotals> expected = new HashMap<>();
+        for (Object[] row : paymentRepository.aggregateByDayStatusAndMethod()) {
+            PaymentAggregateId id = new PaymentAggregateId(toLocalDate(row[0]),
+                    PaymentStatus.valueOf((String) row[1]), PaymentMethod.valueOf((String) row[2]));
+            expected.put(id, new StatusTotals(((Number) row[3]).longValue(), toBigDecimal(row[4])));
+        }
+
+        Map<PaymentAggregateId, StatusTotals> actual = new HashMap<>();
+        for (PaymentAggregate aggregate : paymentAggregateRepository.findAll()) {
+            actual.put(aggregate.getId(), new StatusTotals(aggregate.getPaymentCount(), aggregate.getTotalAmount()));
+        }
+
+        Set<PaymentAggregateId> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+
+        List<String> drifts = new ArrayList<>();
+        StatusTotals zero = new StatusTotals(0, BigDecimal.ZERO);
+        for (PaymentAggregateId id : keys) {
+            StatusTotals source = expected.getOrDefault(id, zero);
+            StatusTotals stored = actual.getOrDefault(id, zero);
+            long countDelta = source.count() - stored.count();
+            BigDecimal amountDelta = source.amount().subtract(stored.amount());
+            if (countDelta != 0 || amountDelta.signum() != 0) {
+                drifts.add(String.format("%s %s %s: cantidad %+d, monto %s", id.getBucketDate(), id.getPaymentStatus(),
+                        id.getPaymentMethod(), countDelta, amountDelta.toPlainString()));
+                paymentAggregateRepository.applyDelta(id.getBucketDate(), id.getPaymentStatus().name(),
+                        id.getPaymentMethod().name(), countDelta, amountDelta);
+            }
+        }
+
+        drifts.forEach(drift -> log.warn("Desviación en agregados de pagos: {}", drift));
+
+        return ReconciliationReport.builder()
+                .checkedBuckets(keys.size())
+                .driftedBuckets(drifts.size())
+                .drifts(drifts)
+                .reconciledAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void apply(Payment payment, PaymentStatus status, long countDelta, BigDecimal amountDelta) {
+        LocalDate bucketDate = (payment.getCreatedAt() != null ? payment.getCreatedAt() : LocalDateTime.now()).toLocalDate();
+        paymentAggregateRepository.applyDelta(bucketDate, status.name(), payment.getPaymentMethod().name(), countDelta, amountDelta);
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate localDate) {
+            return localDate;
+        }
+        return ((Date) value).toLocalDate();
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal bigDecimal) {
+            return bigDecimal;
+        }
+        return new BigDecimal(value.toString());
+    }
+
+    /**
+     * Totales de un estado
+     * @param count Cantidad de pagos
+     * @param amount Monto acumulado
+     */
+    public record StatusTotals(long count, BigDecimal amount) {
+    }
+
+    // ========== DTO PARA RECONCILIACIÓN ==========
+
+    @lombok.Data
+    @lombok.Builder
+    public static class ReconciliationReport {
+        private int checkedBuckets;
+        private int driftedBuckets;
+        private List<String> drifts;
+        private LocalDateTime reconciledAt;
+    }
+}
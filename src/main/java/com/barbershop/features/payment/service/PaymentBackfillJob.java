@@ -0,0 +1,44 @@
+package com.barbershop.features.payment.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Completa al iniciar las columnas desnormalizadas de los pagos creados antes de que existieran.
+ * Trabaja en bloques pequeños para no bloquear la tabla mientras la aplicación atiende solicitudes
+ * y avanza por payment_id, de modo que los pagos que no se pueden completar no detienen el recorrido
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentBackfillJob {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final PaymentBackfillService paymentBackfillService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long start = System.currentTimeMillis();
+        long total = 0;
+        try {
+            if (!paymentBackfillService.hasPendingPayments()) {
+                return;
+            }
+            String lastPaymentId = PaymentBackfillService.FIRST_PAYMENT_ID;
+            PaymentBackfillService.Chunk chunk;
+            while ((chunk = paymentBackfillService.backfillChunk(lastPaymentId, CHUNK_SIZE)).lastPaymentId() != null) {
+                lastPaymentId = chunk.lastPaymentId();
+                total += chunk.updated();
+            }
+        } catch (Exception e) {
+            log.error("Error al completar cliente y barbero en los pagos existentes: {}", e.getMessage(), e);
+        }
+        if (total > 0) {
+            log.info("Cliente, barbero y barbería copiados a {} pagos existentes en {} ms", total, System.currentTimeMillis() - start);
+        }
+    }
+}
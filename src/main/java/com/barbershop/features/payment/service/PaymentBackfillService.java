@@ -0,0 +1,49 @@
+package com.barbershop.features.payment.service;
+
+import com.barbershop.features.payment.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Completa en pagos existentes las columnas copiadas de la cita (cliente, barbero y barbería)
+ */
+@Service
+@RequiredArgsConstructor
+public class PaymentBackfillService {
+
+    private final PaymentRepository paymentRepository;
+
+    /**
+     * Primer payment_id posible, punto de partida del recorrido
+     */
+    public static final String FIRST_PAYMENT_ID = "00000000-0000-0000-0000-000000000000";
+
+    /**
+     * Resultado de un bloque del backfill
+     * @param lastPaymentId Último payment_id revisado, o null si no quedaban pagos pendientes
+     * @param updated Cantidad de pagos actualizados
+     */
+    public record Chunk(String lastPaymentId, int updated) {
+    }
+
+    /**
+     * Indica si quedan pagos por completar
+     */
+    @Transactional(readOnly = true)
+    public boolean hasPendingPayments() {
+        return paymentRepository.existsByClientIdIsNull();
+    }
+
+    /**
+     * Completa un bloque de pagos en una transacción corta
+     * @param afterPaymentId Último payment_id revisado en el bloque anterior
+     * @param chunkSize Cantidad máxima de pagos a revisar
+     * @return Último pago revisado y cantidad de pagos actualizados
+     */
+    @Transactional
+    public Chunk backfillChunk(String afterPaymentId, int chunkSize) {
+        Object[] row = paymentRepository.backfillDenormalizedColumns(afterPaymentId, chunkSize).get(0);
+        return new Chunk((String) row[0], ((Number) row[1]).intValue());
+    }
+}
@@ -1,16 +1,24 @@
 package com.barbershop.features.payment.service;
 
 import com.barbershop.common.dto.ApiResponseDto;
+import com.barbershop.common.dto.CursorPageDto;
 import com.barbershop.common.exception.ResourceNotFoundException;
 import com.barbershop.common.exception.BusinessLogicException;
 import com.barbershop.common.exception.ResourceAlreadyExistsException;
+import com.barbershop.common.service.StreamingExportService;
+import com.barbershop.common.util.ExportFormat;
+import com.barbershop.common.util.KeysetCursor;
 import com.barbershop.features.payment.dto.PaymentResponseDto;
+import com.barbershop.features.payment.dto.RevenuePointDto;
 import com.barbershop.features.payment.dto.request.CreatePaymentRequestDto;
 import com.barbershop.features.payment.mapper.PaymentMapper;
 import com.barbershop.features.payment.model.Payment;
 import com.barbershop.features.payment.model.enums.PaymentMethod;
 import com.barbershop.features.payment.model.enums.PaymentStatus;
+import com.barbershop.features.payment.model.enums.RevenueGranularity;
+import com.barbershop.features.payment.model.enums.RevenueGroupBy;
 import com.barbershop.features.payment.repository.PaymentRepository;
+import com.barbershop.features.payment.repository.PaymentSpecifications;
 import com.barbershop.features.appointment.repository.AppointmentRepository;
 import com.barbershop.features.appointment.model.Appointment;
 import com.barbershop.features.appointment.model.enums.AppointmentStatus;
@@ -20,19 +28,27 @@ import com.barbershop.features.user.model.User;
 import com.barbershop.features.user.model.enums.RoleEnum;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -40,11 +56,16 @@ import java.util.UUID;
 @Transactional
 public class PaymentService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final PaymentRepository paymentRepository;
     private final PaymentMapper paymentMapper;
     private final AppointmentRepository appointmentRepository;
     private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final PaymentAggregateService paymentAggregateService;
+    private final RevenueRollupService revenueRollupService;
+    private final StreamingExportService streamingExportService;
 
     // ========== OPERACIONES CRUD BÁSICAS ==========
 
@@ -68,8 +89,10 @@ public class PaymentService {
         
         // Crear entidad de pago
         Payment payment = paymentMapper.toEntity(request);
-        payment.setPaymentId(UUID.randomUUID().toString());
         payment.setAppointment(appointment);
+        payment.setClientId(appointment.getClientId());
+        payment.setBarberId(appointment.getBarberId());
+        payment.setBarbershopId(appointment.getBarbershopId());
         payment.setCreatedAt(LocalDateTime.now());
         payment.setUpdatedAt(LocalDateTime.now());
         
@@ -80,6 +103,7 @@ public class PaymentService {
         
         // Guardar pago
         Payment savedPayment = paymentRepository.save(payment);
+        paymentAggregateService.recordCreated(savedPayment);
         
         // Actualizar estado de la cita si el pago está completado
         if (savedPayment.getPaymentStatus() == PaymentStatus.COMPLETED) {
@@ -159,6 +183,7 @@ public class PaymentService {
         validateStatusTransition(payment.getPaymentStatus(), newStatus);
         
         // Actualizar estado
+        PaymentStatus previousStatus = payment.getPaymentStatus();
         payment.setPaymentStatus(newStatus);
         payment.setUpdatedAt(LocalDateTime.now());
         
@@ -168,6 +193,7 @@ public class PaymentService {
         }
         
         Payment updatedPayment = paymentRepository.save(payment);
+        paymentAggregateService.recordTransition(updatedPayment, previousStatus);
         
         // Actualizar estado de la cita si es necesario
         if (newStatus == PaymentStatus.COMPLETED) {
@@ -202,6 +228,7 @@ public class PaymentService {
         }
         
         paymentRepository.delete(payment);
+        paymentAggregateService.recordDeleted(payment);
         
         return ApiResponseDto.<Void>builder()
                 .status(HttpStatus.NO_CONTENT.value())
@@ -210,6 +237,96 @@ public class PaymentService {
                 .build();
     }
 
+    // ========== PAGINACIÓN POR CURSOR ==========
+
+    /**
+     * Obtiene todos los pagos paginados por cursor (sin conteo total ni OFFSET)
+     */
+    @Transactional(readOnly = true)
+    public ApiResponseDto<CursorPageDto<PaymentResponseDto>> getAllPaymentsByCursor(String cursor, int size, String sortBy, String sortDir, String token) {
+        log.info("Obteniendo todos los pagos por cursor - Tamaño: {}", size);
+        
+        // Solo administradores pueden ver todos los pagos
+        validateAdminAccess(token);
+        
+        CursorPageDto<PaymentResponseDto> responsePage = scrollPayments(
+                (root, query, cb) -> cb.conjunction(), cursor, size, sortBy, sortDir);
+        
+        return ApiResponseDto.<CursorPageDto<PaymentResponseDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("Pagos obtenidos exitosamente")
+                .data(responsePage)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Obtiene pagos de un cliente paginados por cursor
+     */
+    @Transactional(readOnly = true)
+    public ApiResponseDto<CursorPageDto<PaymentResponseDto>> getPaymentsByClientByCursor(String clientId, String cursor, int size, String sortBy, String sortDir, String token) {
+        log.info("Obteniendo pagos del cliente por cursor: {}", clientId);
+        
+        // Validar autorización
+        validateClientOrAdminAccess(token, clientId);
+        
+        CursorPageDto<PaymentResponseDto> responsePage = scrollPayments(
+                (root, query, cb) -> cb.equal(root.get("clientId"), clientId), cursor, size, sortBy, sortDir);
+        
+        return ApiResponseDto.<CursorPageDto<PaymentResponseDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("Pagos del cliente obtenidos exitosamente")
+                .data(responsePage)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Lee una página por keyset: ordena por (campo, paymentId) y continúa después del último elemento del cursor
+     */
+    private CursorPageDto<PaymentResponseDto> scrollPayments(Specification<Payment> specification, String cursor,
+                                                             int size, String sortBy, String sortDir) {
+        String sortField = mapSortField(sortBy);
+        if ("paymentDate".equals(sortField)) {
+            // El keyset requiere valores no nulos y paymentDate es nulo mientras el pago no se completa
+            throw new BusinessLogicException("La paginación por cursor no admite ordenar por " + sortBy);
+        }
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        
+        KeysetScrollPosition position = KeysetCursor.decode(cursor, sortField, direction, Payment.class);
+        Window<Payment> window = paymentRepository.findBy(specification.and(PaymentSpecifications.fetchAppointmentDetails()), query -> query
+                .sortBy(Sort.by(direction, sortField, "paymentId"))
+                .limit(limit)
+                .scroll(position));
+        
+        return CursorPageDto.<PaymentResponseDto>builder()
+                .content(window.getContent().stream().map(paymentMapper::toResponseDto).toList())
+                .size(window.size())
+                .hasNext(window.hasNext())
+                .nextCursor(KeysetCursor.next(window, sortField, direction))
+                .build();
+    }
+
+    /**
+     * Mapea los nombres de campos del DTO a los nombres de campos de la entidad
+     */
+    private String mapSortField(String sortBy) {
+        switch (sortBy) {
+            case "createdAt":
+            case "updatedAt":
+            case "paymentDate":
+            case "amount":
+            case "paymentStatus":
+            case "paymentMethod":
+            case "appointmentId":
+                return sortBy;
+            default:
+                log.warn("Campo de ordenamiento no válido: {}, usando createdAt por defecto", sortBy);
+                return "createdAt";
+        }
+    }
+
     // ========== CONSULTAS ESPECÍFICAS ==========
 
     /**
@@ -348,18 +465,15 @@ public class PaymentService {
         // Solo administradores pueden ver estadísticas
         validateAdminAccess(token);
         
-        BigDecimal totalCompleted = paymentRepository.sumAmountByStatus(PaymentStatus.COMPLETED);
-        BigDecimal totalPending = paymentRepository.sumAmountByStatus(PaymentStatus.PENDING);
-        long countCompleted = paymentRepository.countByPaymentStatus(PaymentStatus.COMPLETED);
-        long countPending = paymentRepository.countByPaymentStatus(PaymentStatus.PENDING);
-        long countFailed = paymentRepository.countByPaymentStatus(PaymentStatus.FAILED);
+        // Una sola lectura sobre payment_aggregates en lugar de cinco agregaciones sobre payments
+        Map<PaymentStatus, PaymentAggregateService.StatusTotals> totals = paymentAggregateService.getTotalsByStatus();
         
         PaymentStatsDto stats = PaymentStatsDto.builder()
-                .totalCompletedAmount(totalCompleted != null ? totalCompleted : BigDecimal.ZERO)
-                .totalPendingAmount(totalPending != null ? totalPending : BigDecimal.ZERO)
-                .completedPaymentsCount(countCompleted)
-                .pendingPaymentsCount(countPending)
-                .failedPaymentsCount(countFailed)
+                .totalCompletedAmount(totals.get(PaymentStatus.COMPLETED).amount())
+                .totalPendingAmount(totals.get(PaymentStatus.PENDING).amount())
+                .completedPaymentsCount(totals.get(PaymentStatus.COMPLETED).count())
+                .pendingPaymentsCount(totals.get(PaymentStatus.PENDING).count())
+                .failedPaymentsCount(totals.get(PaymentStatus.FAILED).count())
                 .build();
         
         return ApiResponseDto.<PaymentStatsDto>builder()
@@ -370,6 +484,89 @@ public class PaymentService {
                 .build();
     }
 
+    /**
+     * Reconcilia los agregados de pagos con la tabla de pagos
+     * Se ejecuta fuera de la transacción de clase para que la reconciliación abra la suya con REPEATABLE_READ
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ApiResponseDto<PaymentAggregateService.ReconciliationReport> reconcilePaymentStats(String token) {
+        log.info("Reconciliando agregados de pagos");
+        
+        // Solo administradores pueden reconciliar estadísticas
+        validateAdminAccess(token);
+        
+        PaymentAggregateService.ReconciliationReport report = paymentAggregateService.reconcile();
+        
+        return ApiResponseDto.<PaymentAggregateService.ReconciliationReport>builder()
+                .status(HttpStatus.OK.value())
+                .message("Agregados de pagos reconciliados exitosamente")
+                .data(report)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Obtiene la serie temporal de ingresos desde el acumulado diario
+     */
+    @Transactional(readOnly = true)
+    public ApiResponseDto<List<RevenuePointDto>> getRevenueTimeSeries(LocalDate from, LocalDate to, RevenueGranularity granularity,
+                                                                       RevenueGroupBy groupBy, String barberId, String serviceId,
+                                                                       PaymentMethod method, String token) {
+        log.info("Obteniendo serie de ingresos entre {} y {} por {}", from, to, granularity);
+        
+        // Solo administradores pueden ver los ingresos
+        validateAdminAccess(token);
+        
+        if (from.isAfter(to)) {
+            throw new BusinessLogicException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        
+        List<RevenuePointDto> series = revenueRollupService.getTimeSeries(from, to, granularity, groupBy, barberId, serviceId, method);
+        
+        return ApiResponseDto.<List<RevenuePointDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("Serie de ingresos obtenida exitosamente")
+                .data(series)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Exporta los pagos en streaming (CSV o NDJSON) sin paginar ni cargar entidades
+     * @param from Inicio opcional del rango sobre la fecha de creación
+     * @param to Fin opcional (exclusivo) del rango sobre la fecha de creación
+     */
+    public ResponseEntity<StreamingResponseBody> exportPayments(LocalDateTime from, LocalDateTime to, ExportFormat format, String token) {
+        log.info("Exportando pagos en formato {} entre {} y {}", format, from, to);
+        
+        // Solo administradores pueden exportar el historial completo
+        validateAdminAccess(token);
+        
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BusinessLogicException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        
+        StringBuilder sql = new StringBuilder("""
+                SELECT p.payment_id AS "paymentId", p.appointment_id AS "appointmentId",
+                       p.amount AS "amount", p.payment_method AS "paymentMethod",
+                       p.payment_status AS "paymentStatus", p.payment_date AS "paymentDate",
+                       p.created_at AS "createdAt", p.updated_at AS "updatedAt"
+                FROM payments p
+                WHERE 1 = 1""");
+        List<Object> params = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND p.created_at >= ?");
+            params.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND p.created_at < ?");
+            params.add(to);
+        }
+        sql.append(" ORDER BY p.payment_id");
+        
+        return streamingExportService.export("payments", format, sql.toString(), params);
+    }
+
     // ========== MÉTODOS DE VALIDACIÓN ==========
 
     private void validatePaymentRequest(CreatePaymentRequestDto request) {
@@ -409,27 +606,24 @@ public class PaymentService {
     }
 
     private void validateStatusTransition(PaymentStatus currentStatus, PaymentStatus newStatus) {
-        // Definir transiciones válidas
-        boolean isValidTransition = switch (currentStatus) {
-            case PENDING -> newStatus == PaymentStatus.COMPLETED || newStatus == PaymentStatus.FAILED || newStatus == PaymentStatus.CANCELLED;
-            case COMPLETED -> newStatus == PaymentStatus.REFUNDED;
-            case FAILED -> newStatus == PaymentStatus.PENDING || newStatus == PaymentStatus.COMPLETED || newStatus == PaymentStatus.CANCELLED;
-            case REFUNDED -> false; // No se puede cambiar desde REFUNDED
-            case CANCELLED -> newStatus == PaymentStatus.PENDING; // Solo se puede reactivar
-        };
-        
-        if (!isValidTransition) {
+        // Las transiciones válidas se definen en PaymentStatus
+        if (!currentStatus.canTransitionTo(newStatus)) {
             throw new BusinessLogicException(String.format("Transición de estado inválida: de %s a %s", currentStatus, newStatus));
         }
     }
 
     private void updateAppointmentStatusAfterPayment(Appointment appointment) {
-        // Si la cita está programada y el pago está completado, marcar como confirmada
+        // Si la cita está programada y el pago está completado, marcar como confirmada.
+        // UPDATE condicional sobre el estado y la versión leídos: si la cita cambió entre medias
+        // (por ejemplo, se canceló) el pago se registra igualmente y la cita no se toca
         if (appointment.getStatus() == AppointmentStatus.SCHEDULED) {
-            appointment.setStatus(AppointmentStatus.CONFIRMED);
-            appointment.setUpdatedAt(LocalDateTime.now());
-            appointmentRepository.save(appointment);
-            log.info("Cita {} marcada como confirmada después del pago", appointment.getAppointmentId());
+            int updated = appointmentRepository.transitionStatus(appointment.getAppointmentId(), AppointmentStatus.SCHEDULED,
+                    appointment.getVersion(), AppointmentStatus.CONFIRMED, LocalDateTime.now());
+            if (updated > 0) {
+                log.info("Cita {} marcada como confirmada después del pago", appointment.getAppointmentId());
+            } else {
+                log.warn("La cita {} cambió durante el pago; no se marca como confirmada", appointment.getAppointmentId());
+            }
         }
     }
 
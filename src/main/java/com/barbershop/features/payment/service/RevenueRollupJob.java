@@ -0,0 +1,40 @@
+package com.barbershop.features.payment.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tarea programada que mantiene actualizado el acumulado de ingresos
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RevenueRollupJob {
+
+    private final RevenueRollupService revenueRollupService;
+
+    /**
+     * Refresca el acumulado al iniciar; en el primer despliegue recalcula todo el historial
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        refresh();
+    }
+
+    /**
+     * Refresca el acumulado con los pagos modificados desde la última ejecución
+     * Se ejecuta cada 5 minutos
+     */
+    @Scheduled(fixedDelay = 300000, initialDelay = 300000)
+    public void refresh() {
+        try {
+            revenueRollupService.refresh();
+        } catch (Exception e) {
+            log.error("Error al refrescar el acumulado de ingresos: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.barbershop.features.payment.service;
+
+import com.barbershop.features.payment.dto.RevenuePointDto;
+import com.barbershop.features.payment.model.RevenueRollup;
+import com.barbershop.features.payment.model.RollupWatermark;
+import com.barbershop.features.payment.model.enums.PaymentMethod;
+import com.barbershop.features.payment.model.enums.RevenueGranularity;
+import com.barbershop.features.payment.model.enums.RevenueGroupBy;
+import com.barbershop.features.payment.repository.RevenueRollupRepository;
+import com.barbershop.features.payment.repository.RollupWatermarkRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Mantiene la tabla revenue_rollups y resuelve las series temporales de ingresos.
+ * El refresco es incremental: solo recalcula los días de pago de los pagos modificados
+ * desde la última marca de agua sobre updated_at.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RevenueRollupService {
+
+    private static final String ROLLUP_NAME = "revenue_daily";
+
+    // Solapamiento con la marca anterior para no perder transacciones confirmadas tarde
+    private static final long WATERMARK_OVERLAP_MINUTES = 5;
+
+    private static final LocalDateTime INITIAL_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final RollupWatermarkRepository rollupWatermarkRepository;
+
+    /**
+     * Recalcula los días afectados por pagos modificados desde la última marca de agua
+     * @return Cantidad de días recalculados
+     */
+    @Transactional
+    public int refresh() {
+        RollupWatermark watermark = rollupWatermarkRepository.findById(ROLLUP_NAME)
+                .orElseGet(() -> RollupWatermark.builder()
+                        .rollupName(ROLLUP_NAME)
+                        .watermark(INITIAL_WATERMARK)
+                        .build());
+
+        LocalDateTime since = watermark.getWatermark().minusMinutes(WATERMARK_OVERLAP_MINUTES);
+        LocalDateTime newWatermark = toLocalDateTime(revenueRollupRepository.findMaxUpdatedAtSince(since));
+        if (newWatermark == null) {
+            return 0;
+        }
+
+        TreeSet<LocalDate> affectedDays = new TreeSet<>();
+        for (Object day : revenueRollupRepository.findAffectedDaysSince(since)) {
+            affectedDays.add(toLocalDate(day));
+        }
+
+        for (LocalDate day : affectedDays) {
+            revenueRollupRepository.deleteByDay(day);
+            revenueRollupRepository.insertDay(day, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        }
+
+        if (newWatermark.isAfter(watermark.getWatermark())) {
+            watermark.setWatermark(newWatermark);
+        }
+        watermark.setUpdatedAt(LocalDateTime.now());
+        rollupWatermarkRepository.save(watermark);
+
+        if (!affectedDays.isEmpty()) {
+            log.info("Acumulado de ingresos actualizado: {} días recalculados ({} a {})",
+                    affectedDays.size(), affectedDays.first(), affectedDays.last());
+        }
+        return affectedDays.size();
+    }
+
+    /**
+     * Obtiene la serie temporal de ingresos leyendo solo la tabla de acumulados
+     * @param from Fecha inicial (inclusive)
+     * @param to Fecha final (inclusive)
+     * @param granularity Granularidad de la serie
+     * @param groupBy Dimensión por la que separar la serie
+     * @param barberId Filtro opcional por barbero
+     * @param serviceId Filtro opcional por servicio
+     * @param method Filtro opcional por método de pago
+     * @return Puntos de la serie ordenados por periodo
+     */
+    @Transactional(readOnly = true)
+    public List<RevenuePointDto> getTimeSeries(LocalDate from, LocalDate to, RevenueGranularity granularity,
+                                               RevenueGroupBy groupBy, String barberId, String serviceId,
+                                               PaymentMethod method) {
+        List<RevenueRollup> rows = revenueRollupRepository.findSeries(from, to, barberId, serviceId, method);
+
+        Map<String, RevenuePointDto> points = new LinkedHashMap<>();
+        for (RevenueRollup row : rows) {
+            LocalDate periodStart = periodStart(row.getId().getBucketDate(), granularity);
+            String groupKey = groupKey(row, groupBy);
+            RevenuePointDto point = points.computeIfAbsent(periodStart + "|" + groupKey, key ->
+                    RevenuePointDto.builder()
+                            .periodStart(periodStart)
+                            .groupKey(groupKey)
+                            .totalAmount(BigDecimal.ZERO)
+                            .paymentCount(0)
+                            .build());
+            point.setTotalAmount(point.getTotalAmount().add(row.getTotalAmount()));
+            point.setPaymentCount(point.getPaymentCount() + row.getPaymentCount());
+        }
+
+        return new ArrayList<>(points.values());
+    }
+
+    private static LocalDate periodStart(LocalDate day, RevenueGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> day;
+            case WEEK -> day.with(DayOfWeek.MONDAY);
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private static String groupKey(RevenueRollup row, RevenueGroupBy groupBy) {
+        return switch (groupBy) {
+            case NONE -> null;
+            case BARBER -> row.getId().getBarberId();
+            case SERVICE -> row.getId().getServiceId();
+            case PAYMENT_METHOD -> Objects.toString(row.getId().getPaymentMethod(), null);
+        };
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate localDate) {
+            return localDate;
+        }
+        return ((java.sql.Date) value).toLocalDate();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime;
+        }
+        return ((Timestamp) value).toLocalDateTime();
+    }
+}
@@ -0,0 +1,71 @@
+package com.barbershop.features.payment.service;
+
+import com.barbershop.features.payment.config.PaymentProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tarea programada que cierra los pagos pendientes abandonados
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StalePaymentSweepJob {
+
+    private static final LocalDateTime INITIAL_CURSOR_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String INITIAL_CURSOR_ID = "00000000-0000-0000-0000-000000000000";
+
+    private final StalePaymentSweepService stalePaymentSweepService;
+    private final PaymentProperties paymentProperties;
+
+    /**
+     * Recorre los pagos pendientes más antiguos que el umbral configurado, bloque por bloque
+     * Se ejecuta cada 15 minutos
+     */
+    @Scheduled(fixedDelay = 900000, initialDelay = 60000)
+    public void sweep() {
+        PaymentProperties.StaleSweep config = paymentProperties.getStaleSweep();
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(config.getStaleAfter() * 1_000_000);
+        LocalDateTime afterCreatedAt = INITIAL_CURSOR_DATE;
+        String afterPaymentId = INITIAL_CURSOR_ID;
+        int chunks = 0;
+        long cancelled = 0;
+        long failed = 0;
+
+        try {
+            while (chunks < config.getMaxChunksPerRun()) {
+                StalePaymentSweepService.ChunkResult result = stalePaymentSweepService.sweepChunk(
+                        cutoff, afterCreatedAt, afterPaymentId, config.getChunkSize());
+                if (result.processed() == 0) {
+                    break;
+                }
+                chunks++;
+                cancelled += result.cancelled();
+                failed += result.failed();
+                afterCreatedAt = result.lastCreatedAt();
+                afterPaymentId = result.lastPaymentId();
+                if (result.processed() < config.getChunkSize()) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error durante el barrido de pagos pendientes abandonados: {}", e.getMessage(), e);
+        }
+
+        if (cancelled + failed > 0) {
+            log.info("Barrido de pagos pendientes: {} cancelados, {} fallidos en {} bloques ({} ms)",
+                    cancelled, failed, chunks, System.currentTimeMillis() - start);
+        } else {
+            log.debug("Barrido de pagos pendientes sin pagos abandonados");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.barbershop.features.payment.service;
+
+import com.barbershop.features.appointment.model.enums.AppointmentStatus;
+import com.barbershop.features.payment.model.enums.PaymentMethod;
+import com.barbershop.features.payment.model.enums.PaymentStatus;
+import com.barbershop.features.payment.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cierra pagos pendientes abandonados en bloques pequeños.
+ * Cada bloque se procesa en su propia transacción corta: bloquea las filas, las actualiza con
+ * un UPDATE masivo y ajusta los agregados de estadísticas en la misma transacción.
+ * Los pagos de citas canceladas o no asistidas pasan a CANCELLED; el resto a FAILED.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StalePaymentSweepService {
+
+    private static final PaymentStatus FROM_STATUS = PaymentStatus.PENDING;
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentAggregateService paymentAggregateService;
+
+    /**
+     * Resultado de un bloque procesado
+     * @param processed Pagos leídos en el bloque
+     * @param cancelled Pagos pasados a CANCELLED
+     * @param failed Pagos pasados a FAILED
+     * @param lastCreatedAt Fecha de creación del último pago del bloque (cursor)
+     * @param lastPaymentId ID del último pago del bloque (cursor)
+     */
+    public record ChunkResult(int processed, int cancelled, int failed, LocalDateTime lastCreatedAt, String lastPaymentId) {
+    }
+
+    private record BucketKey(LocalDate bucketDate, PaymentMethod method, PaymentStatus to) {
+    }
+
+    /**
+     * Procesa el siguiente bloque de pagos pendientes abandonados a partir del cursor
+     * @param cutoff Fecha límite de creación
+     * @param afterCreatedAt Fecha de creación del último pago procesado
+     * @param afterPaymentId ID del último pago procesado
+     * @param chunkSize Tamaño máximo del bloque
+     * @return Resultado del bloque; processed = 0 cuando no quedan pagos
+     */
+    @Transactional
+    public ChunkResult sweepChunk(LocalDateTime cutoff, LocalDateTime afterCreatedAt, String afterPaymentId, int chunkSize) {
+        List<Object[]> rows = paymentRepository.lockStalePendingChunk(cutoff, afterCreatedAt, afterPaymentId, chunkSize);
+        if (rows.isEmpty()) {
+            return new ChunkResult(0, 0, 0, afterCreatedAt, afterPaymentId);
+        }
+
+        List<String> toCancel = new ArrayList<>();
+        List<String> toFail = new ArrayList<>();
+        Map<BucketKey, BigDecimal[]> buckets = new HashMap<>();
+
+        for (Object[] row : rows) {
+            String paymentId = (String) row[0];
+            LocalDateTime createdAt = toLocalDateTime(row[1]);
+            PaymentMethod method = PaymentMethod.valueOf((String) row[2]);
+            BigDecimal amount = (BigDecimal) row[3];
+            PaymentStatus target = targetStatus((String) row[4]);
+
+            (target == PaymentStatus.CANCELLED ? toCancel : toFail).add(paymentId);
+
+            BigDecimal[] totals = buckets.computeIfAbsent(new BucketKey(createdAt.toLocalDate(), method, target),
+                    key -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            totals[0] = totals[0].add(BigDecimal.ONE);
+            totals[1] = totals[1].add(amount);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int cancelled = toCancel.isEmpty() ? 0 : paymentRepository.updatePendingStatus(toCancel, PaymentStatus.CANCELLED, now);
+        int failed = toFail.isEmpty() ? 0 : paymentRepository.updatePendingStatus(toFail, PaymentStatus.FAILED, now);
+
+        if (cancelled + failed != rows.size()) {
+            // Las filas están bloqueadas, por lo que no debería ocurrir; se revierte el bloque para no desajustar los agregados
+            throw new IllegalStateException(String.format(
+                    "Se esperaban %d pagos pendientes actualizados y se actualizaron %d", rows.size(), cancelled + failed));
+        }
+
+        buckets.forEach((key, totals) -> paymentAggregateService.recordBulkTransition(
+                key.bucketDate(), key.method(), FROM_STATUS, key.to(), totals[0].longValue(), totals[1]));
+
+        Object[] last = rows.get(rows.size() - 1);
+        return new ChunkResult(rows.size(), cancelled, failed, toLocalDateTime(last[1]), (String) last[0]);
+    }
+
+    /**
+     * Determina el estado final de un pago abandonado según el estado de su cita,
+     * respetando las transiciones permitidas desde PENDING
+     */
+    private static PaymentStatus targetStatus(String appointmentStatus) {
+        boolean appointmentCancelled = AppointmentStatus.CANCELLED.name().equals(appointmentStatus)
+                || AppointmentStatus.NO_SHOW.name().equals(appointmentStatus);
+        PaymentStatus target = appointmentCancelled ? PaymentStatus.CANCELLED : PaymentStatus.FAILED;
+        if (!FROM_STATUS.canTransitionTo(target)) {
+            throw new IllegalStateException("Transición de estado inválida: de " + FROM_STATUS + " a " + target);
+        }
+        return target;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime;
+        }
+        return ((Timestamp) value).toLocalDateTime();
+    }
+}
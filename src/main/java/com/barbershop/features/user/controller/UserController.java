@@ -1,6 +1,8 @@
 package com.barbershop.features.user.controller;
 
 import com.barbershop.common.dto.ApiResponseDto;
+import com.barbershop.common.util.ExportFormat;
+import com.barbershop.common.util.FieldSelection;
 import com.barbershop.features.user.dto.UserCreateDto;
 import com.barbershop.features.user.dto.UserResponseDto;
 import com.barbershop.features.user.dto.UserUpdateDto;
@@ -19,6 +21,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 
@@ -88,6 +91,7 @@ public class UserController {
      * @param size Tamaño de página
      * @param sortBy Campo por el cual ordenar
      * @param sortDir Dirección del ordenamiento (asc/desc)
+     * @param fields Campos a incluir en cada usuario (opcional)
      * @param request Request HTTP para extraer el token de autenticación
      * @return ResponseEntity con los datos del usuario o lista de usuarios
      */
@@ -116,8 +120,12 @@ public class UserController {
             @RequestParam(defaultValue = "firstName") String sortBy,
             @Parameter(description = "Dirección del ordenamiento (asc/desc)", example = "asc")
             @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Campos a incluir separados por comas (p. ej. id,firstName,lastName); vacío para todos")
+            @RequestParam(required = false) String fields,
             HttpServletRequest request) {
 
+        FieldSelection.fromRequest(fields, UserResponseDto.class, "userId", request);
+
         if (id != null && !id.isEmpty()) {
             // Obtener usuario específico por ID
             UserResponseDto user = userService.getUserById(id);
@@ -336,6 +344,43 @@ public class UserController {
         );
     }
 
+    /**
+     * Exporta los usuarios en streaming (CSV o NDJSON), sin datos de contraseña.
+     *
+     * Permisos de acceso:
+     * - ROLE_ADMIN: Puede exportar todos los usuarios
+     * - ROLE_BARBER: No tiene permisos para exportar usuarios
+     * - ROLE_CLIENT: No tiene permisos para exportar usuarios
+     *
+     * @param includeDeleted Si se incluyen los usuarios eliminados
+     * @param format Formato de salida
+     * @return Archivo con una fila por usuario, enviado a medida que se lee
+     */
+    @Operation(
+            summary = "Exportar usuarios",
+            description = "<strong>Permisos:</strong><br/>" +
+                         "• <strong>ROLE_ADMIN:</strong> Puede exportar todos los usuarios<br/>" +
+                         "• <strong>ROLE_BARBER:</strong> No tiene permisos para exportar usuarios<br/>" +
+                         "• <strong>ROLE_CLIENT:</strong> No tiene permisos para exportar usuarios",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Exportación de usuarios generada exitosamente",
+                            content = {@Content(mediaType = "text/csv"), @Content(mediaType = "application/x-ndjson")}
+                    )
+            }
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "Incluir usuarios eliminados", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeDeleted,
+            @Parameter(description = "Formato de salida (CSV o NDJSON)", example = "CSV")
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+
+        return userService.exportUsers(includeDeleted, format);
+    }
+
     /**
      * Obtiene el total de usuarios activos en el sistema.
      *
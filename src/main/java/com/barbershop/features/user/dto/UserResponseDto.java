@@ -1,6 +1,8 @@
 package com.barbershop.features.user.dto;
 
+import com.barbershop.common.util.FieldSelection;
 import com.barbershop.features.user.model.enums.RoleEnum;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
@@ -8,6 +10,7 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Data
+@JsonFilter(FieldSelection.FILTER_ID)
 @Schema(description = "DTO de respuesta para información del usuario")
 public class UserResponseDto {
 
@@ -15,7 +15,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, String> {
+public interface UserRepository extends JpaRepository<User, String>, UserRepositoryCustom {
 
     // Consultas que excluyen registros eliminados
     @Query("SELECT u FROM User u WHERE u.isDeleted = false")
@@ -74,8 +74,7 @@ public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByIdAndDeleted(@Param("userId") String userId);
 
     // Métodos originales mantenidos para compatibilidad (ahora incluyen filtro de eliminados)
-    @Query("SELECT u FROM User u WHERE u.email = :email AND u.isDeleted = false")
-    Optional<User> findByEmail(@Param("email") String email);
+    // findByEmail se resuelve por id natural en UserRepositoryCustomImpl
 
     @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u WHERE u.email = :email AND u.isDeleted = false")
     boolean existsByEmail(@Param("email") String email);
@@ -103,4 +102,10 @@ public interface UserRepository extends JpaRepository<User, String> {
 
     @Query("SELECT COUNT(u) FROM User u WHERE u.isActive = true AND u.isDeleted = false")
     long countByIsActiveTrueAndIsDeletedFalse();
+
+    @Query("SELECT COUNT(u) FROM User u WHERE u.isDeleted = false")
+    long countActiveEmails();
+
+    @Query("SELECT u.email FROM User u WHERE u.isDeleted = false")
+    List<String> findAllActiveEmails();
 }
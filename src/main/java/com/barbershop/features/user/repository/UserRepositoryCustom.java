@@ -0,0 +1,15 @@
+package com.barbershop.features.user.repository;
+
+import com.barbershop.features.user.model.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Busca un usuario no eliminado por su email
+     * @param email Email del usuario
+     * @return Usuario encontrado
+     */
+    Optional<User> findByEmail(String email);
+}
@@ -0,0 +1,34 @@
+package com.barbershop.features.user.repository;
+
+import com.barbershop.features.user.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Búsqueda de usuarios por email como id natural, de modo que se resuelve desde la caché
+ * de segundo nivel (regiones user-email y user) sin consultar la base de datos.
+ * El email es un id natural mutable: Hibernate desaloja la resolución anterior al actualizar la entidad,
+ * y el usuario devuelto se comprueba contra el email pedido por si otro nodo aún la conserva
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(email)
+                .filter(user -> email.equals(user.getEmail()))
+                .filter(user -> !Boolean.TRUE.equals(user.getIsDeleted()));
+    }
+}
@@ -2,13 +2,19 @@ package com.barbershop.features.user.service;
 
 import com.barbershop.features.auth.exception.UserAlreadyExistsException;
 import com.barbershop.features.auth.exception.UserNotFoundException;
+import com.barbershop.features.auth.service.CheckAuthCache;
+import com.barbershop.features.auth.service.EmailExistenceFilter;
+import com.barbershop.features.auth.service.TokenRevocationService;
 import com.barbershop.features.auth.util.AuthUtils;
 import com.barbershop.common.exception.BusinessLogicException;
+import com.barbershop.common.service.StreamingExportService;
+import com.barbershop.common.util.ExportFormat;
 import org.springframework.dao.DataIntegrityViolationException;
 import com.barbershop.features.user.dto.UserCreateDto;
 import com.barbershop.features.user.dto.UserResponseDto;
 import com.barbershop.features.user.dto.UserUpdateDto;
 import com.barbershop.features.user.mapper.UserMapper;
+import com.barbershop.features.user.model.enums.RoleEnum;
 import com.barbershop.features.user.model.User;
 import com.barbershop.features.user.repository.UserRepository;
 import com.barbershop.features.user.exception.UserHasActiveRecordsException;
@@ -21,12 +27,15 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import com.barbershop.shared.util.SecurityUtils;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -40,6 +49,10 @@ public class UserService {
     private final AuthUtils authUtils;
     private final AppointmentRepository appointmentRepository;
     private final BarberRepository barberRepository;
+    private final EmailExistenceFilter emailExistenceFilter;
+    private final TokenRevocationService tokenRevocationService;
+    private final CheckAuthCache checkAuthCache;
+    private final StreamingExportService streamingExportService;
 
     /**
      * Crea un nuevo usuario
@@ -50,8 +63,8 @@ public class UserService {
         // Normalizar email a minúsculas
         String normalizedEmail = authUtils.normalizeEmail(createDto.getEmail());
         
-        // Verificar si el email ya existe
-        if (userRepository.existsByEmail(normalizedEmail)) {
+        // Verificar si el email ya existe (el filtro evita la consulta cuando el email es nuevo)
+        if (emailExistenceFilter.mightExist(normalizedEmail) && userRepository.existsByEmail(normalizedEmail)) {
             throw new UserAlreadyExistsException(normalizedEmail);
         }
         
@@ -67,7 +80,8 @@ public class UserService {
                     .isActive(true)
                     .build();
             
-            User savedUser = userRepository.save(user);
+            User savedUser = userRepository.saveAndFlush(user);
+            emailExistenceFilter.add(normalizedEmail);
             log.info("Usuario creado exitosamente con ID: {}", savedUser.getUserId());
             
             return userMapper.toResponseDto(savedUser);
@@ -158,6 +172,9 @@ public class UserService {
             }
         }
         
+        String previousEmail = user.getEmail();
+        RoleEnum previousRole = user.getRole();
+        Boolean previousActive = user.getIsActive();
         try {
             // Actualizar campos
             if (updateDto.getEmail() != null) {
@@ -195,6 +212,15 @@ public class UserService {
             }
             
             User updatedUser = userRepository.save(user);
+            if (!updatedUser.getEmail().equals(previousEmail)) {
+                emailExistenceFilter.add(updatedUser.getEmail());
+                emailExistenceFilter.remove(previousEmail);
+            }
+            checkAuthCache.invalidate(userId);
+            // Los tokens emitidos llevan el rol; un cambio de rol o una desactivación los invalida
+            if (updatedUser.getRole() != previousRole || (Boolean.TRUE.equals(previousActive) && !Boolean.TRUE.equals(updatedUser.getIsActive()))) {
+                tokenRevocationService.revokeAll(userId, "USER_UPDATED");
+            }
             log.info("Usuario actualizado exitosamente con ID: {}", updatedUser.getUserId());
             
             return userMapper.toResponseDto(updatedUser);
@@ -239,6 +265,9 @@ public class UserService {
         user.setIsDeleted(true);
         user.setDeletedAt(LocalDateTime.now());
         userRepository.save(user);
+        emailExistenceFilter.remove(user.getEmail());
+        tokenRevocationService.revokeAll(userId, "USER_DELETED");
+        checkAuthCache.invalidate(userId);
         
         log.info("Usuario eliminado exitosamente con ID: {} (soft delete)", userId);
     }
@@ -256,6 +285,8 @@ public class UserService {
         user.setIsDeleted(false);
         user.setDeletedAt(null);
         User restoredUser = userRepository.save(user);
+        emailExistenceFilter.add(restoredUser.getEmail());
+        checkAuthCache.invalidate(userId);
         
         log.info("Usuario restaurado exitosamente con ID: {}", userId);
         return userMapper.toResponseDto(restoredUser);
@@ -300,6 +331,29 @@ public class UserService {
         return userRepository.countByIsActiveTrueAndIsDeletedFalse();
     }
 
+    /**
+     * Exporta los usuarios en streaming (CSV o NDJSON) sin paginar ni cargar entidades.
+     * Nunca incluye el hash de la contraseña
+     * @param includeDeleted Si se incluyen los usuarios eliminados
+     */
+    public ResponseEntity<StreamingResponseBody> exportUsers(boolean includeDeleted, ExportFormat format) {
+        log.info("Exportando usuarios en formato {} (incluir eliminados: {})", format, includeDeleted);
+        
+        if (!SecurityUtils.isCurrentUserAdmin()) {
+            throw new AccessDeniedException("Solo los administradores pueden exportar usuarios");
+        }
+        
+        String sql = """
+                SELECT u.user_id AS "userId", u.email AS "email", u.role AS "role",
+                       u.first_name AS "firstName", u.last_name AS "lastName", u.phone_number AS "phoneNumber",
+                       u.is_active AS "isActive", u.profile_picture_url AS "profilePictureUrl",
+                       u.created_at AS "createdAt", u.updated_at AS "updatedAt",
+                       u.is_deleted AS "isDeleted", u.deleted_at AS "deletedAt"
+                FROM users u""" + (includeDeleted ? "" : " WHERE u.is_deleted = false") + " ORDER BY u.user_id";
+        
+        return streamingExportService.export("users", format, sql, List.of());
+    }
+
     /**
      * Verifica si el usuario autenticado puede acceder a los datos del usuario especificado
      */
@@ -0,0 +1,74 @@
+-- ===============================================================
+-- V1.1: Tablas y columnas posteriores al esquema base
+-- ===============================================================
+-- Revocación y rotación de tokens, agregados de pagos y columnas
+-- desnormalizadas de payments. Se ejecuta también sobre las bases marcadas
+-- como baseline en V1, por eso cada sentencia tolera que Hibernate
+-- (ddl-auto=update) ya haya creado el objeto.
+
+create table if not exists payment_aggregates (
+    bucket_date date not null,
+    payment_method varchar(50) not null check (payment_method in ('CASH','CREDIT_CARD','DEBIT_CARD','DIGITAL_WALLET','BANK_TRANSFER')),
+    payment_status varchar(20) not null check (payment_status in ('PENDING','COMPLETED','FAILED','REFUNDED','CANCELLED')),
+    payment_count bigint not null,
+    total_amount numeric(14,2) not null,
+    updated_at timestamp(6) not null,
+    primary key (bucket_date, payment_method, payment_status)
+);
+
+create table if not exists refresh_tokens (
+    refresh_token_id varchar(255) not null,
+    created_at timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    family_id varchar(255) not null,
+    revoked_at timestamp(6),
+    token_hash varchar(64) not null unique,
+    token_version bigint not null,
+    used_at timestamp(6),
+    user_id varchar(255) not null,
+    primary key (refresh_token_id)
+);
+
+create table if not exists revenue_rollups (
+    barber_id varchar(255) not null,
+    bucket_date date not null,
+    payment_method varchar(50) not null check (payment_method in ('CASH','CREDIT_CARD','DEBIT_CARD','DIGITAL_WALLET','BANK_TRANSFER')),
+    service_id varchar(255) not null,
+    payment_count bigint not null,
+    refreshed_at timestamp(6) not null,
+    total_amount numeric(14,2) not null,
+    primary key (barber_id, bucket_date, payment_method, service_id)
+);
+
+create table if not exists rollup_watermarks (
+    rollup_name varchar(50) not null,
+    updated_at timestamp(6) not null,
+    watermark timestamp(6) not null,
+    primary key (rollup_name)
+);
+
+create table if not exists token_revocations (
+    user_id varchar(255) not null,
+    reason varchar(50),
+    revoked_at timestamp(6) not null,
+    token_version bigint not null,
+    primary key (user_id)
+);
+
+alter table payments
+    add column if not exists barber_id varchar(255),
+    add column if not exists barbershop_id varchar(255),
+    add column if not exists client_id varchar(255);
+
+create index if not exists idx_payments_client_payment_date
+   on payments (client_id, payment_date);
+
+create index if not exists idx_payments_barber_status_amount
+   on payments (barber_id, payment_status, amount);
+
+alter table refresh_tokens drop constraint if exists FK1lih5y2npsf8u5o3vhdb9y0os;
+
+alter table if exists refresh_tokens
+   add constraint FK1lih5y2npsf8u5o3vhdb9y0os
+   foreign key (user_id)
+   references users;
@@ -0,0 +1,175 @@
+-- ===============================================================
+-- V1: Esquema base
+-- ===============================================================
+-- Refleja el esquema que Hibernate generaba con ddl-auto=update. Las bases
+-- existentes se marcan como baseline en esta versión y no lo ejecutan.
+
+create table appointments (
+    appointment_id varchar(255) not null,
+    appointment_datetime_end timestamp(6) not null,
+    appointment_datetime_start timestamp(6) not null,
+    barber_id varchar(255) not null,
+    barbershop_id varchar(255) not null,
+    client_id varchar(255) not null,
+    created_at timestamp(6) not null,
+    notes varchar(255),
+    price_at_booking numeric(10,2) not null,
+    service_id varchar(255) not null,
+    status varchar(20) not null check (status in ('SCHEDULED','CONFIRMED','IN_PROGRESS','COMPLETED','CANCELLED','NO_SHOW')),
+    updated_at timestamp(6) not null,
+    primary key (appointment_id)
+);
+
+create table barber_availability (
+    barber_availability_id varchar(255) not null,
+    barber_id varchar(255) not null,
+    created_at timestamp(6) not null,
+    day_of_week smallint not null check (day_of_week between 0 and 6),
+    end_time time(6) not null,
+    is_available boolean not null,
+    start_time time(6) not null,
+    updated_at timestamp(6) not null,
+    primary key (barber_availability_id)
+);
+
+create table barbers (
+    barber_id varchar(255) not null,
+    barbershop_id varchar(255) not null,
+    created_at timestamp(6) not null,
+    is_active boolean not null,
+    specialization varchar(100),
+    updated_at timestamp(6) not null,
+    user_id varchar(255) not null,
+    primary key (barber_id)
+);
+
+create table barbershop_operating_hours (
+    operating_hours_id varchar(255) not null,
+    closing_time time(6),
+    created_at timestamp(6) not null,
+    day_of_week varchar(255) not null check (day_of_week in ('MONDAY','TUESDAY','WEDNESDAY','THURSDAY','FRIDAY','SATURDAY','SUNDAY')),
+    is_closed boolean not null,
+    notes varchar(255),
+    opening_time time(6),
+    updated_at timestamp(6) not null,
+    barbershop_id varchar(255) not null,
+    primary key (operating_hours_id),
+    unique (barbershop_id, day_of_week)
+);
+
+create table barbershops (
+    barbershop_id varchar(255) not null,
+    address_text varchar(255) not null,
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    email varchar(100),
+    is_deleted boolean not null,
+    logo_url varchar(255),
+    name varchar(100) not null,
+    phone_number varchar(20),
+    updated_at timestamp(6) not null,
+    primary key (barbershop_id)
+);
+
+create table password_reset_tokens (
+    token_id varchar(255) not null,
+    created_at timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    token varchar(500) not null unique,
+    used boolean not null,
+    used_at timestamp(6),
+    user_id varchar(255) not null,
+    primary key (token_id)
+);
+
+create table payments (
+    payment_id varchar(255) not null,
+    amount numeric(10,2) not null,
+    appointment_id varchar(255) not null,
+    created_at timestamp(6) not null,
+    payment_date timestamp(6),
+    payment_method varchar(50) not null check (payment_method in ('CASH','CREDIT_CARD','DEBIT_CARD','DIGITAL_WALLET','BANK_TRANSFER')),
+    payment_status varchar(20) not null check (payment_status in ('PENDING','COMPLETED','FAILED','REFUNDED','CANCELLED')),
+    updated_at timestamp(6) not null,
+    primary key (payment_id)
+);
+
+create table services (
+    service_id varchar(255) not null,
+    barbershop_id varchar(255) not null,
+    created_at timestamp(6) not null,
+    description varchar(255),
+    duration_minutes integer not null,
+    is_active boolean not null,
+    name varchar(100) not null,
+    price numeric(10,2) not null,
+    updated_at timestamp(6) not null,
+    primary key (service_id)
+);
+
+create table users (
+    user_id varchar(255) not null,
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    email varchar(255) not null unique,
+    first_name varchar(50) not null,
+    is_active boolean not null,
+    is_deleted boolean not null,
+    last_name varchar(50) not null,
+    password_hash varchar(255) not null,
+    phone_number varchar(20),
+    profile_picture_url varchar(255),
+    role varchar(20) not null check (role in ('ROLE_ADMIN','ROLE_BARBER','ROLE_CLIENT')),
+    updated_at timestamp(6) not null,
+    primary key (user_id)
+);
+
+alter table if exists appointments
+   add constraint FKicx8irhh8pdyhcogevp8a5l7j
+   foreign key (barber_id)
+   references barbers;
+
+alter table if exists appointments
+   add constraint FKgdcpcx3yc2abu5oyb2078lc24
+   foreign key (client_id)
+   references users;
+
+alter table if exists appointments
+   add constraint FK5iltr7k9pows18hk8nc101vc1
+   foreign key (service_id)
+   references services;
+
+alter table if exists barber_availability
+   add constraint FKr1rbxkesbkqdlvllepvnqh92l
+   foreign key (barber_id)
+   references barbers;
+
+alter table if exists barbers
+   add constraint FKarimsnmy9yvfsqe80c33mh5va
+   foreign key (barbershop_id)
+   references barbershops;
+
+alter table if exists barbers
+   add constraint FKhf69dowffu24e0wkttiwqtn5r
+   foreign key (user_id)
+   references users;
+
+alter table if exists barbershop_operating_hours
+   add constraint FK3s9x9svdq60f6c0hr2f7vf4ak
+   foreign key (barbershop_id)
+   references barbershops;
+
+alter table if exists password_reset_tokens
+   add constraint FKk3ndxg5xp6v7wd4gjyusp15gq
+   foreign key (user_id)
+   references users;
+
+alter table if exists payments
+   add constraint FK9a0odew03qao7nlbdsesrux5u
+   foreign key (appointment_id)
+   references appointments;
+
+alter table if exists services
+   add constraint FK3gik7n3g4mrviyxere0oalpg6
+   foreign key (barbershop_id)
+   references barbershops;
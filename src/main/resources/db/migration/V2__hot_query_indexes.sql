@@ -0,0 +1,79 @@
+-- ===============================================================
+-- V2: Índices para las consultas frecuentes de los repositorios
+-- ===============================================================
+
+-- --- Citas ---
+-- Agenda por barbero / cliente / barbería ordenada por fecha de inicio
+create index if not exists idx_appointments_barber_start
+    on appointments (barber_id, appointment_datetime_start);
+
+create index if not exists idx_appointments_client_start
+    on appointments (client_id, appointment_datetime_start);
+
+create index if not exists idx_appointments_barbershop_start
+    on appointments (barbershop_id, appointment_datetime_start);
+
+create index if not exists idx_appointments_status_start
+    on appointments (status, appointment_datetime_start);
+
+-- Validación de solapamientos y conteos de citas activas
+create index if not exists idx_appointments_barber_active
+    on appointments (barber_id, appointment_datetime_start, appointment_datetime_end)
+    where status in ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS');
+
+create index if not exists idx_appointments_client_active
+    on appointments (client_id, appointment_datetime_start)
+    where status in ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS');
+
+create index if not exists idx_appointments_service_active
+    on appointments (service_id)
+    where status in ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS');
+
+-- Cierre automático de citas vencidas
+create index if not exists idx_appointments_open_end
+    on appointments (appointment_datetime_end)
+    where status in ('SCHEDULED', 'CONFIRMED');
+
+-- --- Pagos ---
+create index if not exists idx_payments_appointment
+    on payments (appointment_id);
+
+create index if not exists idx_payments_status_payment_date
+    on payments (payment_status, payment_date);
+
+-- Barrido de pagos PENDING obsoletos (orden keyset created_at, payment_id)
+create index if not exists idx_payments_pending_created
+    on payments (created_at, payment_id)
+    where payment_status = 'PENDING';
+
+-- Refresco incremental del acumulado de ingresos
+create index if not exists idx_payments_updated_at
+    on payments (updated_at)
+    where payment_date is not null;
+
+-- --- Disponibilidad y catálogo ---
+create index if not exists idx_barber_availability_barber_day
+    on barber_availability (barber_id, day_of_week, start_time);
+
+create index if not exists idx_barber_availability_day_available
+    on barber_availability (day_of_week, start_time)
+    where is_available = true;
+
+create index if not exists idx_barbers_user
+    on barbers (user_id);
+
+create index if not exists idx_barbers_barbershop
+    on barbers (barbershop_id);
+
+create index if not exists idx_services_barbershop
+    on services (barbershop_id);
+
+-- --- Tokens ---
+create index if not exists idx_refresh_tokens_user
+    on refresh_tokens (user_id);
+
+create index if not exists idx_refresh_tokens_family
+    on refresh_tokens (family_id);
+
+create index if not exists idx_password_reset_tokens_user
+    on password_reset_tokens (user_id);
@@ -0,0 +1,14 @@
+-- ===============================================================
+-- V3: Un barbero no puede tener dos citas activas solapadas
+-- ===============================================================
+-- btree_gist permite combinar la igualdad sobre barber_id con el
+-- solapamiento de rangos en un mismo índice GiST.
+create extension if not exists btree_gist;
+
+alter table appointments
+    add constraint ex_appointments_barber_no_overlap
+    exclude using gist (
+        barber_id with =,
+        tsrange(appointment_datetime_start, appointment_datetime_end, '[)') with &&
+    )
+    where (status in ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS'));
@@ -0,0 +1,144 @@
+-- ===============================================================
+-- V4: Identificadores como uuid nativo
+-- ===============================================================
+-- Las claves pasan de varchar(255) (36 bytes + cabecera) a uuid (16 bytes).
+-- Los valores existentes (UUIDv4) se conservan; las filas nuevas reciben
+-- UUIDv7, ordenados por tiempo, desde la aplicación.
+-- revenue_rollups mantiene barber_id/service_id como texto: es una tabla
+-- derivada sin claves foráneas.
+
+do $$
+declare
+    total bigint;
+begin
+    select sum(pg_indexes_size(c.oid)) into total
+    from pg_class c
+    where c.relname in ('users', 'barbershops', 'barbers', 'services', 'barber_availability', 'barbershop_operating_hours', 'appointments', 'payments', 'password_reset_tokens', 'refresh_tokens', 'token_revocations');
+    raise notice 'Tamaño de índices de tablas con UUID (antes): %', pg_size_pretty(total);
+end $$;
+
+-- Las claves foráneas se eliminan para poder cambiar el tipo de ambos extremos
+alter table appointments drop constraint if exists FKicx8irhh8pdyhcogevp8a5l7j;
+alter table appointments drop constraint if exists FKgdcpcx3yc2abu5oyb2078lc24;
+alter table appointments drop constraint if exists FK5iltr7k9pows18hk8nc101vc1;
+alter table barber_availability drop constraint if exists FKr1rbxkesbkqdlvllepvnqh92l;
+alter table barbers drop constraint if exists FKarimsnmy9yvfsqe80c33mh5va;
+alter table barbers drop constraint if exists FKhf69dowffu24e0wkttiwqtn5r;
+alter table barbershop_operating_hours drop constraint if exists FK3s9x9svdq60f6c0hr2f7vf4ak;
+alter table password_reset_tokens drop constraint if exists FKk3ndxg5xp6v7wd4gjyusp15gq;
+alter table payments drop constraint if exists FK9a0odew03qao7nlbdsesrux5u;
+alter table refresh_tokens drop constraint if exists FK1lih5y2npsf8u5o3vhdb9y0os;
+alter table services drop constraint if exists FK3gik7n3g4mrviyxere0oalpg6;
+
+alter table users
+    alter column user_id type uuid using user_id::uuid;
+
+alter table barbershops
+    alter column barbershop_id type uuid using barbershop_id::uuid;
+
+alter table barbers
+    alter column barber_id type uuid using barber_id::uuid,
+    alter column user_id type uuid using user_id::uuid,
+    alter column barbershop_id type uuid using barbershop_id::uuid;
+
+alter table services
+    alter column service_id type uuid using service_id::uuid,
+    alter column barbershop_id type uuid using barbershop_id::uuid;
+
+alter table barber_availability
+    alter column barber_availability_id type uuid using barber_availability_id::uuid,
+    alter column barber_id type uuid using barber_id::uuid;
+
+alter table barbershop_operating_hours
+    alter column operating_hours_id type uuid using operating_hours_id::uuid,
+    alter column barbershop_id type uuid using barbershop_id::uuid;
+
+alter table appointments
+    alter column appointment_id type uuid using appointment_id::uuid,
+    alter column barbershop_id type uuid using barbershop_id::uuid,
+    alter column client_id type uuid using client_id::uuid,
+    alter column barber_id type uuid using barber_id::uuid,
+    alter column service_id type uuid using service_id::uuid;
+
+alter table payments
+    alter column payment_id type uuid using payment_id::uuid,
+    alter column appointment_id type uuid using appointment_id::uuid,
+    alter column client_id type uuid using client_id::uuid,
+    alter column barber_id type uuid using barber_id::uuid,
+    alter column barbershop_id type uuid using barbershop_id::uuid;
+
+alter table password_reset_tokens
+    alter column token_id type uuid using token_id::uuid,
+    alter column user_id type uuid using user_id::uuid;
+
+alter table refresh_tokens
+    alter column refresh_token_id type uuid using refresh_token_id::uuid,
+    alter column user_id type uuid using user_id::uuid;
+
+alter table token_revocations
+    alter column user_id type uuid using user_id::uuid;
+
+alter table appointments
+    add constraint FKicx8irhh8pdyhcogevp8a5l7j
+    foreign key (barber_id)
+    references barbers;
+
+alter table appointments
+    add constraint FKgdcpcx3yc2abu5oyb2078lc24
+    foreign key (client_id)
+    references users;
+
+alter table appointments
+    add constraint FK5iltr7k9pows18hk8nc101vc1
+    foreign key (service_id)
+    references services;
+
+alter table barber_availability
+    add constraint FKr1rbxkesbkqdlvllepvnqh92l
+    foreign key (barber_id)
+    references barbers;
+
+alter table barbers
+    add constraint FKarimsnmy9yvfsqe80c33mh5va
+    foreign key (barbershop_id)
+    references barbershops;
+
+alter table barbers
+    add constraint FKhf69dowffu24e0wkttiwqtn5r
+    foreign key (user_id)
+    references users;
+
+alter table barbershop_operating_hours
+    add constraint FK3s9x9svdq60f6c0hr2f7vf4ak
+    foreign key (barbershop_id)
+    references barbershops;
+
+alter table password_reset_tokens
+    add constraint FKk3ndxg5xp6v7wd4gjyusp15gq
+    foreign key (user_id)
+    references users;
+
+alter table payments
+    add constraint FK9a0odew03qao7nlbdsesrux5u
+    foreign key (appointment_id)
+    references appointments;
+
+alter table refresh_tokens
+    add constraint FK1lih5y2npsf8u5o3vhdb9y0os
+    foreign key (user_id)
+    references users;
+
+alter table services
+    add constraint FK3gik7n3g4mrviyxere0oalpg6
+    foreign key (barbershop_id)
+    references barbershops;
+
+do $$
+declare
+    total bigint;
+begin
+    select sum(pg_indexes_size(c.oid)) into total
+    from pg_class c
+    where c.relname in ('users', 'barbershops', 'barbers', 'services', 'barber_availability', 'barbershop_operating_hours', 'appointments', 'payments', 'password_reset_tokens', 'refresh_tokens', 'token_revocations');
+    raise notice 'Tamaño de índices de tablas con UUID (después): %', pg_size_pretty(total);
+end $$;
@@ -0,0 +1,153 @@
+-- ===============================================================
+-- V5: Particionado mensual de appointments por appointment_datetime_start
+-- ===============================================================
+-- Las consultas frecuentes filtran por fecha de inicio, por lo que el
+-- planificador descarta los meses que no intervienen. La clave primaria
+-- debe incluir la columna de partición: (appointment_id, appointment_datetime_start).
+--
+-- Limitaciones de PostgreSQL asumidas:
+--  * payments.appointment_id deja de tener clave foránea (una FK hacia una
+--    tabla particionada debe incluir la columna de partición). La aplicación
+--    ya valida que la cita exista antes de registrar un pago.
+--  * La restricción de no solapamiento se crea en cada partición; una cita
+--    que cruza el cambio de mes solo se compara con las de su partición.
+
+alter table appointments rename to appointments_unpartitioned;
+alter table appointments_unpartitioned rename constraint appointments_pkey to appointments_unpartitioned_pkey;
+alter table payments drop constraint if exists FK9a0odew03qao7nlbdsesrux5u;
+
+create table appointments (
+    appointment_id uuid not null,
+    appointment_datetime_end timestamp(6) not null,
+    appointment_datetime_start timestamp(6) not null,
+    barber_id uuid not null,
+    barbershop_id uuid not null,
+    client_id uuid not null,
+    created_at timestamp(6) not null,
+    notes varchar(255),
+    price_at_booking numeric(10,2) not null,
+    service_id uuid not null,
+    status varchar(20) not null check (status in ('SCHEDULED','CONFIRMED','IN_PROGRESS','COMPLETED','CANCELLED','NO_SHOW')),
+    updated_at timestamp(6) not null,
+    constraint appointments_pkey primary key (appointment_id, appointment_datetime_start),
+    constraint FKicx8irhh8pdyhcogevp8a5l7j foreign key (barber_id) references barbers,
+    constraint FKgdcpcx3yc2abu5oyb2078lc24 foreign key (client_id) references users,
+    constraint FK5iltr7k9pows18hk8nc101vc1 foreign key (service_id) references services
+) partition by range (appointment_datetime_start);
+
+-- Recibe las citas de meses sin partición propia hasta que se cree la del mes
+create table appointments_default partition of appointments default;
+
+alter table appointments_default
+    add constraint ex_appointments_barber_no_overlap_default
+    exclude using gist (
+        barber_id with =,
+        tsrange(appointment_datetime_start, appointment_datetime_end, '[)') with &&
+    )
+    where (status in ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS'));
+
+-- Crea la partición del mes indicado moviendo las filas que ya estén en la partición por defecto.
+-- Devuelve false si ya existía.
+create or replace function create_appointment_partition(p_month date) returns boolean
+language plpgsql as $$
+declare
+    v_start date := date_trunc('month', p_month)::date;
+    v_end date := (date_trunc('month', p_month) + interval '1 month')::date;
+    v_suffix text := to_char(v_start, 'YYYY_MM');
+    v_name text := 'appointments_' || v_suffix;
+begin
+    if to_regclass(v_name) is not null then
+        return false;
+    end if;
+
+    execute format('create table %I (like appointments including defaults including constraints)', v_name);
+    execute format('with moved as (delete from appointments_default '
+                   'where appointment_datetime_start >= %L and appointment_datetime_start < %L returning *) '
+                   'insert into %I select * from moved', v_start, v_end, v_name);
+    execute format('alter table appointments attach partition %I for values from (%L) to (%L)', v_name, v_start, v_end);
+    execute format('alter table %I add constraint %I exclude using gist ('
+                   'barber_id with =, '
+                   'tsrange(appointment_datetime_start, appointment_datetime_end, ''[)'') with &&) '
+                   'where (status in (''SCHEDULED'', ''CONFIRMED'', ''IN_PROGRESS''))',
+                   v_name, 'ex_appointments_barber_no_overlap_' || v_suffix);
+    return true;
+end $$;
+
+-- Separa (sin borrar) las particiones mensuales que terminan antes de la fecha indicada.
+-- Las tablas separadas quedan como archivo y pueden comprimirse, moverse o eliminarse aparte.
+create or replace function detach_appointment_partitions(p_before date) returns integer
+language plpgsql as $$
+declare
+    v_partition record;
+    v_detached integer := 0;
+begin
+    for v_partition in
+        select c.relname
+        from pg_inherits i
+        join pg_class c on c.oid = i.inhrelid
+        where i.inhparent = 'appointments'::regclass
+          and c.relname ~ '^appointments_[0-9]{4}_[0-9]{2}$'
+          and (to_date(substring(c.relname from 14), 'YYYY_MM') + interval '1 month') <= p_before
+        order by c.relname
+    loop
+        execute format('alter table appointments detach partition %I', v_partition.relname);
+        v_detached := v_detached + 1;
+    end loop;
+    return v_detached;
+end $$;
+
+-- Particiones desde el primer mes con datos hasta tres meses en el futuro
+do $$
+declare
+    v_month date;
+    v_last date := (date_trunc('month', now()) + interval '3 months')::date;
+begin
+    select coalesce(date_trunc('month', min(appointment_datetime_start)), date_trunc('month', now()))::date
+    into v_month
+    from appointments_unpartitioned;
+
+    while v_month <= v_last loop
+        perform create_appointment_partition(v_month);
+        v_month := (v_month + interval '1 month')::date;
+    end loop;
+end $$;
+
+insert into appointments (appointment_id, appointment_datetime_end, appointment_datetime_start, barber_id,
+                          barbershop_id, client_id, created_at, notes, price_at_booking, service_id, status, updated_at)
+select appointment_id, appointment_datetime_end, appointment_datetime_start, barber_id,
+       barbershop_id, client_id, created_at, notes, price_at_booking, service_id, status, updated_at
+from appointments_unpartitioned;
+
+drop table appointments_unpartitioned;
+
+-- Índices particionados: se propagan a las particiones existentes y a las que se adjunten
+create index idx_appointments_id
+    on appointments (appointment_id);
+
+create index idx_appointments_barber_start
+    on appointments (barber_id, appointment_datetime_start);
+
+create index idx_appointments_client_start
+    on appointments (client_id, appointment_datetime_start);
+
+create index idx_appointments_barbershop_start
+    on appointments (barbershop_id, appointment_datetime_start);
+
+create index idx_appointments_status_start
+    on appointments (status, appointment_datetime_start);
+
+create index idx_appointments_barber_active
+    on appointments (barber_id, appointment_datetime_start, appointment_datetime_end)
+    where status in ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS');
+
+create index idx_appointments_client_active
+    on appointments (client_id, appointment_datetime_start)
+    where status in ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS');
+
+create index idx_appointments_service_active
+    on appointments (service_id)
+    where status in ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS');
+
+create index idx_appointments_open_end
+    on appointments (appointment_datetime_end)
+    where status in ('SCHEDULED', 'CONFIRMED');
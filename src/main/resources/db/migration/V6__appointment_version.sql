@@ -0,0 +1,7 @@
+-- ===============================================================
+-- V6: Columna de versión para el bloqueo optimista de appointments
+-- ===============================================================
+-- Sobre la tabla particionada se propaga a todas las particiones; las
+-- filas existentes empiezan en la versión 0.
+alter table appointments
+    add column version bigint not null default 0;
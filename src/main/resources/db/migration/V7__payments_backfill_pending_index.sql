@@ -0,0 +1,9 @@
+-- ===============================================================
+-- V7: Índice de pagos sin columnas desnormalizadas
+-- ===============================================================
+-- Lo usan la comprobación de arranque y el recorrido keyset por
+-- payment_id del backfill; queda vacío cuando todos los pagos tienen
+-- cliente, barbero y barbería copiados de la cita.
+create index if not exists idx_payments_backfill_pending
+    on payments (payment_id)
+    where client_id is null;
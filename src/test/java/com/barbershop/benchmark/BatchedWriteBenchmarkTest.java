@@ -0,0 +1,132 @@
+package com.barbershop.benchmark;
+
+import com.barbershop.common.util.SqlStatementCounter;
+import com.barbershop.features.appointment.model.Appointment;
+import com.barbershop.features.appointment.model.enums.AppointmentStatus;
+import com.barbershop.support.PostgresRepositoryTest;
+import com.barbershop.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mide INSERT y UPDATE de citas con y sin lotes JDBC sobre PostgreSQL embebido (1.000 y 10.000 filas).
+ * Usa la configuración de application.properties (hibernate.jdbc.batch_size=50, order_inserts/updates,
+ * reWriteBatchedInserts) y compara con batch_size=1 en la misma sesión.
+ * Las columnas "prep." cuentan las sentencias preparadas por Hibernate en cada flush.
+ * Se ejecuta con: mvn -Pbenchmark test
+ */
+@Tag("benchmark")
+class BatchedWriteBenchmarkTest extends PostgresRepositoryTest {
+
+    private static final int[] ROWS = {1_000, 10_000};
+    private static final int[] BATCH_SIZES = {1, 50};
+    private static final int WARMUP_ROWS = 1_000;
+    private static final int REPETITIONS = 3;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private String barbershopId;
+    private String clientId;
+    private String serviceId;
+
+    @Test
+    void batchedWrites() {
+        barbershopId = fixtures.barbershop();
+        clientId = fixtures.user("ROLE_CLIENT");
+        serviceId = fixtures.service(barbershopId);
+
+        for (int batchSize : BATCH_SIZES) {
+            run(WARMUP_ROWS, batchSize);
+        }
+
+        System.out.printf("%n%-8s %-6s %12s %12s %14s %14s%n", "filas", "lote", "insert ms", "update ms", "insert prep.", "update prep.");
+        for (int rows : ROWS) {
+            for (int batchSize : BATCH_SIZES) {
+                long[] inserts = new long[REPETITIONS];
+                long[] updates = new long[REPETITIONS];
+                Result result = null;
+                for (int i = 0; i < REPETITIONS; i++) {
+                    result = run(rows, batchSize);
+                    inserts[i] = result.insertMillis();
+                    updates[i] = result.updateMillis();
+                }
+                System.out.printf("%-8d %-6d %12d %12d %14d %14d%n", rows, batchSize, median(inserts), median(updates),
+                        result.insertStatements(), result.updateStatements());
+
+                if (batchSize > 1) {
+                    // Una sentencia preparada por lote y no por fila
+                    assertThat(result.insertStatements()).isLessThanOrEqualTo(rows / batchSize + 1);
+                    assertThat(result.updateStatements()).isLessThanOrEqualTo(rows / batchSize + 1);
+                }
+            }
+        }
+    }
+
+    private Result run(int rows, int batchSize) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        // Barbero nuevo en cada ronda para no chocar con la restricción de no solapamiento
+        String barberId = fixtures.barber(barbershopId);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+        List<Appointment> appointments = new ArrayList<>(rows);
+        SqlStatementCounter.Stats previous = SqlStatementCounter.start();
+        long insertStart = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            Appointment appointment = appointment(barberId, start.plusMinutes(30L * i));
+            entityManager.persist(appointment);
+            appointments.add(appointment);
+        }
+        entityManager.flush();
+        long insertMillis = (System.nanoTime() - insertStart) / 1_000_000;
+        int insertStatements = SqlStatementCounter.stop(previous).getStatementCount();
+
+        previous = SqlStatementCounter.start();
+        long updateStart = System.nanoTime();
+        appointments.forEach(appointment -> appointment.setStatus(AppointmentStatus.NO_SHOW));
+        entityManager.flush();
+        long updateMillis = (System.nanoTime() - updateStart) / 1_000_000;
+        int updateStatements = SqlStatementCounter.stop(previous).getStatementCount();
+
+        entityManager.clear();
+        session.setJdbcBatchSize(null);
+        return new Result(insertMillis, updateMillis, insertStatements, updateStatements);
+    }
+
+    private Appointment appointment(String barberId, LocalDateTime start) {
+        Appointment appointment = new Appointment();
+        appointment.setBarbershopId(barbershopId);
+        appointment.setClientId(clientId);
+        appointment.setBarberId(barberId);
+        appointment.setServiceId(serviceId);
+        appointment.setAppointmentDatetimeStart(start);
+        appointment.setAppointmentDatetimeEnd(start.plusMinutes(30));
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setPriceAtBooking(BigDecimal.TEN);
+        return appointment;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private record Result(long insertMillis, long updateMillis, int insertStatements, int updateStatements) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.barbershop.benchmark;
+
+import com.barbershop.common.util.UuidV7Generator;
+import com.barbershop.support.EmbeddedPostgresDatabase;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mide el cambio de V4 sobre PostgreSQL embebido: claves varchar(255) con UUIDv4 (antes) frente a uuid nativo
+ * con UUIDv4 y con UUIDv7 (después), con 10.000 y 100.000 filas insertadas en lotes de 1.000.
+ * Reporta el tiempo de inserción y el tamaño del índice de clave primaria y de la tabla; solo se comprueba que
+ * el índice uuid ocupe menos que el de texto, la diferencia entre v4 y v7 depende de la carga y se informa.
+ * Se ejecuta con: mvn -Pbenchmark test
+ */
+@Tag("benchmark")
+class UuidKeyBenchmarkTest {
+
+    private static final int[] ROWS = {10_000, 100_000};
+    private static final int WARMUP_ROWS = 10_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final int REPETITIONS = 3;
+
+    private final DataSource dataSource = EmbeddedPostgresDatabase.createDatabase();
+
+    @Test
+    void uuidKeys() throws SQLException {
+        Variant[] variants = {
+                new Variant("varchar+v4", "varchar(255)", () -> UUID.randomUUID().toString()),
+                new Variant("uuid+v4", "uuid", UUID::randomUUID),
+                new Variant("uuid+v7", "uuid", UuidV7Generator::generate)
+        };
+        for (Variant variant : variants) {
+            run(variant, WARMUP_ROWS);
+        }
+
+        System.out.printf("%n%-8s %-12s %12s %14s %14s%n", "filas", "clave", "insert ms", "índice PK", "tabla");
+        for (int rows : ROWS) {
+            long[] indexBytes = new long[variants.length];
+            for (int v = 0; v < variants.length; v++) {
+                long[] inserts = new long[REPETITIONS];
+                Result result = null;
+                for (int i = 0; i < REPETITIONS; i++) {
+                    result = run(variants[v], rows);
+                    inserts[i] = result.insertMillis();
+                }
+                indexBytes[v] = result.indexBytes();
+                System.out.printf("%-8d %-12s %12d %14s %14s%n", rows, variants[v].name(), median(inserts),
+                        kilobytes(result.indexBytes()), kilobytes(result.tableBytes()));
+            }
+
+            // 16 bytes frente a 36 + cabecera: el índice uuid ocupa menos que el de texto
+            assertThat(indexBytes[1]).isLessThan(indexBytes[0]);
+        }
+    }
+
+    private Result run(Variant variant, int rows) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_keys");
+            statement.execute("CREATE TABLE bench_keys (id " + variant.columnType() + " PRIMARY KEY, created_at timestamp NOT NULL DEFAULT now(), payload integer NOT NULL)");
+
+            connection.setAutoCommit(false);
+            long insertStart = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO bench_keys (id, payload) VALUES (?, ?)")) {
+                for (int i = 0; i < rows; i++) {
+                    Object id = variant.ids().get();
+                    if (id instanceof UUID) {
+                        insert.setObject(1, id, Types.OTHER);
+                    } else {
+                        insert.setString(1, (String) id);
+                    }
+                    insert.setInt(2, i);
+                    insert.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+            long insertMillis = (System.nanoTime() - insertStart) / 1_000_000;
+            connection.setAutoCommit(true);
+
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT pg_relation_size('bench_keys_pkey'), pg_relation_size('bench_keys')")) {
+                rs.next();
+                return new Result(insertMillis, rs.getLong(1), rs.getLong(2));
+            }
+        }
+    }
+
+    private static String kilobytes(long bytes) {
+        return (bytes / 1024) + " kB";
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private record Variant(String name, String columnType, Supplier<Object> ids) {
+    }
+
+    private record Result(long insertMillis, long indexBytes, long tableBytes) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.barbershop.common.service;
+
+import com.barbershop.config.IdempotencyProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que el almacén de claves de idempotencia respete el máximo de claves aunque ninguna haya vencido.
+ */
+class IdempotencyServiceTest {
+
+    private static final String OPERATION = "POST /api/v1/payments";
+    private static final int MAX_ENTRIES = 20;
+
+    private IdempotencyService service;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setMaxEntries(MAX_ENTRIES);
+        service = new IdempotencyService(properties, new ObjectMapper());
+    }
+
+    @Test
+    void storeStaysBoundedWhenNoKeyHasExpired() {
+        for (int i = 0; i < MAX_ENTRIES * 10; i++) {
+            execute("key-" + i);
+        }
+
+        assertThat(service.size()).isLessThanOrEqualTo(MAX_ENTRIES);
+    }
+
+    @Test
+    void oldestKeysAreEvictedFirst() {
+        for (int i = 0; i <= MAX_ENTRIES; i++) {
+            execute("key-" + i);
+        }
+        int afterFill = executions.get();
+
+        // La clave más reciente se conserva y se reproduce; la más antigua se descartó y vuelve a ejecutarse
+        assertThat(execute("key-" + MAX_ENTRIES).replayed()).isTrue();
+        assertThat(execute("key-0").replayed()).isFalse();
+        assertThat(executions.get()).isEqualTo(afterFill + 1);
+    }
+
+    private IdempotencyService.Result<Integer> execute(String key) {
+        return service.execute(OPERATION, key, key, executions::incrementAndGet);
+    }
+}
@@ -0,0 +1,76 @@
+package com.barbershop.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica el dimensionado del filtro de Bloom, la ausencia de falsos negativos y la tasa de
+ * falsos positivos con el filtro lleno hasta la capacidad configurada.
+ */
+class BloomFilterTest {
+
+    private static final int CAPACITY = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void addedValuesAreAlwaysReported() {
+        BloomFilter filter = BloomFilter.create(CAPACITY, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < CAPACITY; i++) {
+            filter.put(email(i));
+        }
+
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThat(filter.mightContain(email(i))).as(email(i)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateAtCapacityStaysNearConfiguredRate() {
+        BloomFilter filter = BloomFilter.create(CAPACITY, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < CAPACITY; i++) {
+            filter.put(email(i));
+        }
+
+        int falsePositives = 0;
+        for (int i = CAPACITY; i < CAPACITY * 2; i++) {
+            if (filter.mightContain(email(i))) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / CAPACITY).isLessThan(FALSE_POSITIVE_RATE * 1.5);
+    }
+
+    @Test
+    void sizingFollowsTheOptimalBitAndHashCounts() {
+        // m = -n ln p / (ln 2)^2 = 9586 bits; k = m / n ln 2 = 6.6 -> 7 funciones
+        BloomFilter filter = BloomFilter.create(1_000, FALSE_POSITIVE_RATE);
+        assertThat(filter.getBitCount()).isEqualTo(9_586);
+        assertThat(filter.getHashFunctions()).isEqualTo(7);
+
+        BloomFilter tiny = BloomFilter.create(1, 0.5);
+        assertThat(tiny.getBitCount()).isEqualTo(64);
+        assertThat(tiny.getHashFunctions()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = BloomFilter.create(CAPACITY, FALSE_POSITIVE_RATE);
+
+        assertThat(filter.mightContain(email(0))).isFalse();
+        assertThat(filter.mightContain("")).isFalse();
+    }
+
+    @Test
+    void invalidParametersAreRejected() {
+        assertThatThrownBy(() -> BloomFilter.create(0, FALSE_POSITIVE_RATE)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.create(CAPACITY, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.create(CAPACITY, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String email(int i) {
+        return "user" + i + "@example.com";
+    }
+}
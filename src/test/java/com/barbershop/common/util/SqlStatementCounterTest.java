@@ -0,0 +1,73 @@
+package com.barbershop.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import static com.barbershop.support.SqlStatementAssertions.assertMaxStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica la agrupación de sentencias por forma y el presupuesto de sentencias por llamada.
+ */
+class SqlStatementCounterTest {
+
+    @Test
+    void inListsOfDifferentSizesShareOneShape() {
+        SqlStatementCounter.Stats previous = SqlStatementCounter.start();
+        SqlStatementCounter.recordStatement("select * from barbers where barber_id in (?)");
+        SqlStatementCounter.recordStatement("select * from barbers where barber_id in (?, ?, ?)");
+        SqlStatementCounter.recordStatement("select *\n  from barbers\twhere barber_id in (?,?)");
+        SqlStatementCounter.recordStatement("select * from users where user_id = ?");
+        SqlStatementCounter.Stats stats = SqlStatementCounter.stop(previous);
+
+        assertThat(stats.getStatementCount()).isEqualTo(4);
+        assertThat(stats.getStatements()).containsOnly(
+                entry("select * from barbers where barber_id in (?)", 3),
+                entry("select * from users where user_id = ?", 1));
+        assertThat(stats.getMostRepeated().getValue()).isEqualTo(3);
+    }
+
+    @Test
+    void nestedMeasurementIsAddedToTheOuterOne() {
+        SqlStatementCounter.Stats outer = SqlStatementCounter.start();
+        SqlStatementCounter.recordStatement("select 1");
+        SqlStatementCounter.Stats inner = SqlStatementCounter.start();
+        SqlStatementCounter.recordStatement("select 2");
+        assertThat(SqlStatementCounter.stop(inner).getStatementCount()).isEqualTo(1);
+        SqlStatementCounter.Stats total = SqlStatementCounter.stop(outer);
+
+        assertThat(total.getStatementCount()).isEqualTo(2);
+        assertThat(SqlStatementCounter.current()).isNull();
+    }
+
+    @Test
+    void statementsOutsideAMeasurementAreIgnored() {
+        SqlStatementCounter.recordStatement("select 1");
+
+        assertThat(SqlStatementCounter.current()).isNull();
+    }
+
+    @Test
+    void budgetAssertionFailsWhenTheCallExceedsIt() {
+        assertThatThrownBy(() -> assertMaxStatements(2, () -> {
+            for (int i = 0; i < 3; i++) {
+                SqlStatementCounter.recordStatement("select * from services where service_id = ?");
+            }
+        }))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("como máximo 2")
+                .hasMessageContaining("se ejecutaron 3");
+        assertThat(SqlStatementCounter.current()).isNull();
+    }
+
+    @Test
+    void budgetAssertionReturnsTheResultWithinBudget() {
+        String result = assertMaxStatements(1, () -> {
+            SqlStatementCounter.recordStatement("select 1");
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+    }
+}
@@ -0,0 +1,73 @@
+package com.barbershop.common.util;
+
+import com.barbershop.support.EmbeddedPostgresDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica la conversión String ↔ uuid de UuidStringType contra una columna uuid real de PostgreSQL
+ * y los formateadores de literales que Hibernate usa para la carga de varias entidades por id.
+ */
+class UuidStringTypeTest {
+
+    private final UuidStringType type = new UuidStringType();
+
+    @Test
+    void stringRoundTripsThroughNativeUuidColumn() throws SQLException {
+        String id = UuidV7Generator.generate().toString();
+
+        assertThat(roundTrip(id)).containsExactly("uuid", id);
+    }
+
+    @Test
+    void upperCaseInputIsStoredAndReadBackCanonical() throws SQLException {
+        String id = UUID.randomUUID().toString();
+
+        assertThat(roundTrip(id.toUpperCase())).containsExactly("uuid", id);
+    }
+
+    @Test
+    void nullRoundTripsAsNull() throws SQLException {
+        assertThat(roundTrip(null)).containsExactly("uuid", null);
+    }
+
+    @Test
+    void literalsAreQuotedCanonicalUuids() {
+        String id = UUID.randomUUID().toString();
+
+        assertThat(type.toSqlLiteral(id.toUpperCase())).isEqualTo("'" + id + "'");
+        assertThat(type.fromStringValue(id.toUpperCase())).isEqualTo(id);
+        assertThat(type.toString(id)).isEqualTo(id);
+    }
+
+    @Test
+    void malformedIdentifierIsRejected() {
+        assertThatThrownBy(() -> type.toSqlLiteral("no-es-un-uuid"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no-es-un-uuid");
+    }
+
+    /**
+     * Escribe el valor con nullSafeSet en un parámetro uuid y lo lee con nullSafeGet
+     * @return Tipo del parámetro en PostgreSQL y valor leído
+     */
+    private Object[] roundTrip(String value) throws SQLException {
+        try (Connection connection = EmbeddedPostgresDatabase.instance().getPostgresDatabase().getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_typeof(CAST(? AS uuid))::text, CAST(? AS uuid)")) {
+            type.nullSafeSet(statement, value, 1, null);
+            type.nullSafeSet(statement, value, 2, null);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return new Object[]{rs.getString(1), type.nullSafeGet(rs, 2, null, null)};
+            }
+        }
+    }
+}
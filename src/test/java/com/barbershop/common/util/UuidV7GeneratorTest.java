@@ -0,0 +1,68 @@
+package com.barbershop.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica el formato RFC 9562 de los UUIDv7 generados: marca de tiempo de 48 bits, nibble de versión,
+ * bits de variante y orden por tiempo tanto en texto como en bytes (el orden del tipo uuid de PostgreSQL).
+ */
+class UuidV7GeneratorTest {
+
+    @Test
+    void versionAndVariantBitsFollowRfc9562() {
+        for (int i = 0; i < 1_000; i++) {
+            UUID uuid = UuidV7Generator.generate();
+
+            assertThat(uuid.version()).isEqualTo(7);
+            assertThat(uuid.variant()).isEqualTo(2);
+            // Nibble de versión en el texto: primer carácter del tercer grupo
+            assertThat(uuid.toString().charAt(14)).isEqualTo('7');
+            assertThat(uuid.toString().charAt(19)).isIn('8', '9', 'a', 'b');
+        }
+    }
+
+    @Test
+    void first48BitsAreTheCurrentUnixMillis() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7Generator.generate();
+        long after = System.currentTimeMillis();
+
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+
+        assertThat(timestamp).isBetween(before, after);
+    }
+
+    @Test
+    void idsFromLaterMillisecondsSortAfterEarlierOnes() throws InterruptedException {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(UuidV7Generator.generate());
+            Thread.sleep(2);
+        }
+
+        List<String> asText = ids.stream().map(UUID::toString).toList();
+        assertThat(asText).isSorted();
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(Long.compareUnsigned(ids.get(i - 1).getMostSignificantBits(), ids.get(i).getMostSignificantBits()))
+                    .isNegative();
+        }
+    }
+
+    @Test
+    void idsGeneratedInTheSameMillisecondAreUnique() {
+        Set<UUID> ids = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(UuidV7Generator.generate());
+        }
+
+        assertThat(ids).hasSize(100_000);
+    }
+}
@@ -0,0 +1,199 @@
+package com.barbershop.config;
+
+import com.barbershop.features.user.model.User;
+import com.barbershop.support.EmbeddedPostgresDatabase;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica el enrutamiento entre dos instancias de PostgreSQL embebido: la compartida hace de principal
+ * y una segunda de réplica. Una instancia embebida no está en recuperación, así que la réplica ve en su
+ * search_path unas funciones de monitorización simuladas (esquema lag_sim) que la consulta de retraso
+ * resuelve antes que las de pg_catalog; así se controla el retraso que mide la comprobación de salud.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_REPLICATION_LAG = 5_000;
+    private static final long STICKY_WINDOW = 60_000;
+
+    private static final String LAG_SIMULATION = """
+            CREATE SCHEMA IF NOT EXISTS lag_sim;
+            CREATE TABLE IF NOT EXISTS lag_sim.state (lag interval NOT NULL);
+            TRUNCATE lag_sim.state;
+            INSERT INTO lag_sim.state VALUES (interval '0');
+            CREATE OR REPLACE FUNCTION lag_sim.pg_is_in_recovery() RETURNS boolean
+                LANGUAGE sql AS 'SELECT true';
+            CREATE OR REPLACE FUNCTION lag_sim.pg_last_wal_replay_lsn() RETURNS pg_lsn
+                LANGUAGE sql AS 'SELECT pg_catalog.pg_lsn(''0/10'')';
+            CREATE OR REPLACE FUNCTION lag_sim.pg_last_wal_receive_lsn() RETURNS pg_lsn
+                LANGUAGE sql AS 'SELECT CASE WHEN (SELECT lag FROM lag_sim.state) = interval ''0''
+                                        THEN pg_catalog.pg_lsn(''0/10'') ELSE pg_catalog.pg_lsn(''0/20'') END';
+            CREATE OR REPLACE FUNCTION lag_sim.pg_last_xact_replay_timestamp() RETURNS timestamptz
+                LANGUAGE sql AS 'SELECT pg_catalog.now() - (SELECT lag FROM lag_sim.state)';
+            """;
+
+    private static EmbeddedPostgres primaryInstance;
+    private static EmbeddedPostgres replicaInstance;
+
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeAll
+    static void startInstances() throws IOException {
+        primaryInstance = EmbeddedPostgresDatabase.instance();
+        replicaInstance = EmbeddedPostgres.start();
+        new JdbcTemplate(replicaInstance.getPostgresDatabase()).execute(LAG_SIMULATION);
+    }
+
+    @AfterAll
+    static void stopReplica() throws IOException {
+        replicaInstance.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl(primaryInstance.getJdbcUrl("postgres", "postgres"));
+        dataSourceProperties.setUsername("postgres");
+        dataSourceProperties.setPassword("");
+
+        DataSourceRoutingProperties.Replica replica = new DataSourceRoutingProperties.Replica();
+        replica.setUrl(replicaInstance.getJdbcUrl("postgres", "postgres") + "&currentSchema=lag_sim,pg_catalog");
+        DataSourceRoutingProperties routingProperties = new DataSourceRoutingProperties();
+        routingProperties.setReplicas(List.of(replica));
+        routingProperties.setMaxReplicationLag(MAX_REPLICATION_LAG);
+        routingProperties.setStickyWindow(STICKY_WINDOW);
+
+        DataSourceRoutingConfig config = new DataSourceRoutingConfig();
+        routing = config.replicaRoutingDataSource(dataSourceProperties, routingProperties);
+        routing.afterPropertiesSet();
+        use(config.dataSource(routing));
+        simulateLag("0");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        routing.close();
+    }
+
+    @Test
+    void replicasStartUnavailableUntilFirstCheck() {
+        assertThat(readOnlyPort()).isEqualTo(primaryInstance.getPort());
+
+        routing.checkReplicas();
+
+        assertThat(readOnlyPort()).isEqualTo(replicaInstance.getPort());
+    }
+
+    @Test
+    void writesAndNonTransactionalAccessGoToPrimary() {
+        routing.checkReplicas();
+
+        assertThat(readWritePort()).isEqualTo(primaryInstance.getPort());
+        assertThat(port()).isEqualTo(primaryInstance.getPort());
+        assertThat(readOnlyPort()).isEqualTo(replicaInstance.getPort());
+    }
+
+    @Test
+    void readsStayOnPrimaryWithinStickyWindowAfterOwnWrite() {
+        routing.checkReplicas();
+
+        authenticate("writer");
+        assertThat(readWritePort()).isEqualTo(primaryInstance.getPort());
+        assertThat(readOnlyPort()).isEqualTo(primaryInstance.getPort());
+
+        authenticate("other-user");
+        assertThat(readOnlyPort()).isEqualTo(replicaInstance.getPort());
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimaryUntilItCatchesUp() {
+        routing.checkReplicas();
+        assertThat(readOnlyPort()).isEqualTo(replicaInstance.getPort());
+
+        simulateLag("1 minute");
+        routing.checkReplicas();
+        assertThat(readOnlyPort()).isEqualTo(primaryInstance.getPort());
+
+        simulateLag("0");
+        routing.checkReplicas();
+        assertThat(readOnlyPort()).isEqualTo(replicaInstance.getPort());
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() throws IOException {
+        routing.close();
+        EmbeddedPostgres unreachable = EmbeddedPostgres.start();
+        HikariDataSource primary = pool(primaryInstance.getJdbcUrl("postgres", "postgres"));
+        HikariDataSource replica = pool(unreachable.getJdbcUrl("postgres", "postgres"));
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica), MAX_REPLICATION_LAG, STICKY_WINDOW);
+        routing.afterPropertiesSet();
+        use(new LazyConnectionDataSourceProxy(routing));
+
+        routing.checkReplicas();
+        assertThat(readOnlyPort()).isEqualTo(unreachable.getPort());
+
+        unreachable.close();
+        routing.checkReplicas();
+        assertThat(readOnlyPort()).isEqualTo(primaryInstance.getPort());
+    }
+
+    private void use(DataSource dataSource) {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    private int readOnlyPort() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> port());
+    }
+
+    private int readWritePort() {
+        return new TransactionTemplate(transactionManager).execute(status -> port());
+    }
+
+    private int port() {
+        return Integer.parseInt(jdbcTemplate.queryForObject("SHOW port", String.class));
+    }
+
+    private static void simulateLag(String lag) {
+        new JdbcTemplate(replicaInstance.getPostgresDatabase())
+                .update("UPDATE lag_sim.state SET lag = CAST(? AS interval)", lag);
+    }
+
+    private static void authenticate(String userId) {
+        User user = User.builder().userId(userId).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    // Tiempo de espera corto para que la comprobación contra una réplica caída no espere los 30 s por defecto
+    private static HikariDataSource pool(String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setConnectionTimeout(1_000);
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+}
@@ -0,0 +1,118 @@
+package com.barbershop.db;
+
+import com.barbershop.support.EmbeddedPostgresDatabase;
+import com.barbershop.support.TestFixtures;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica las funciones de V5 para mantener las particiones mensuales de appointments:
+ * create_appointment_partition mueve las filas desde la partición por defecto y crea la restricción
+ * de no solapamiento de la partición; detach_appointment_partitions la separa sin borrar las filas.
+ */
+class AppointmentPartitionMigrationTest {
+
+    // Mes lejano sin partición propia: sus citas caen en appointments_default
+    private static final LocalDate MONTH = LocalDate.of(2099, 1, 1);
+    private static final String PARTITION = "appointments_2099_01";
+
+    private JdbcTemplate jdbcTemplate;
+    private TestFixtures fixtures;
+    private String clientId;
+    private String barberId;
+    private String barbershopId;
+    private String serviceId;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = EmbeddedPostgresDatabase.createDatabase();
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        fixtures = new TestFixtures(jdbcTemplate);
+
+        barbershopId = fixtures.barbershop();
+        clientId = fixtures.user("ROLE_CLIENT");
+        barberId = fixtures.barber(barbershopId);
+        serviceId = fixtures.service(barbershopId);
+    }
+
+    @Test
+    void createPartitionMovesRowsFromDefaultAndAddsOverlapConstraint() {
+        String appointmentId = appointment(MONTH.atTime(10, 0));
+        String nextMonthId = appointment(MONTH.plusMonths(1).atTime(10, 0));
+        assertThat(partitionOf(appointmentId)).isEqualTo("appointments_default");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT create_appointment_partition(CAST(? AS date))",
+                Boolean.class, MONTH)).isTrue();
+
+        assertThat(partitionOf(appointmentId)).isEqualTo(PARTITION);
+        assertThat(partitionOf(nextMonthId)).isEqualTo("appointments_default");
+        assertThat(countIn("appointments_default", appointmentId)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_constraint WHERE conname = ? AND contype = 'x' " +
+                "AND conrelid = CAST(? AS regclass)", Integer.class,
+                "ex_appointments_barber_no_overlap_2099_01", PARTITION)).isEqualTo(1);
+        assertThatThrownBy(() -> appointment(MONTH.atTime(10, 15)))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("ex_appointments_barber_no_overlap_2099_01");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT create_appointment_partition(CAST(? AS date))",
+                Boolean.class, MONTH)).isFalse();
+    }
+
+    @Test
+    void detachPartitionsKeepsRowsInTheDetachedTable() {
+        String appointmentId = appointment(MONTH.atTime(10, 0));
+        jdbcTemplate.queryForObject("SELECT create_appointment_partition(CAST(? AS date))", Boolean.class, MONTH);
+        jdbcTemplate.queryForObject("SELECT create_appointment_partition(CAST(? AS date))", Boolean.class, MONTH.plusMonths(1));
+        int attached = attachedPartitions();
+
+        // Separa todas las mensuales que terminan antes de febrero de 2099, incluidas las creadas por la migración
+        Integer detached = jdbcTemplate.queryForObject("SELECT detach_appointment_partitions(CAST(? AS date))",
+                Integer.class, MONTH.plusMonths(1));
+
+        assertThat(detached).isEqualTo(attached - 1);
+        assertThat(isAttached(PARTITION)).isFalse();
+        assertThat(isAttached("appointments_2099_02")).isTrue();
+        assertThat(isAttached("appointments_default")).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM appointments WHERE appointment_id = CAST(? AS uuid)",
+                Integer.class, appointmentId)).isZero();
+        assertThat(countIn(PARTITION, appointmentId)).isEqualTo(1);
+    }
+
+    private String appointment(LocalDateTime start) {
+        return fixtures.appointment(clientId, barberId, barbershopId, serviceId, start);
+    }
+
+    private String partitionOf(String appointmentId) {
+        return jdbcTemplate.queryForObject("SELECT CAST(tableoid AS regclass)::text FROM appointments " +
+                "WHERE appointment_id = CAST(? AS uuid)", String.class, appointmentId);
+    }
+
+    private int countIn(String table, String appointmentId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE appointment_id = CAST(? AS uuid)",
+                Integer.class, appointmentId);
+    }
+
+    // Particiones mensuales (sin contar la por defecto) adjuntas a appointments
+    private int attachedPartitions() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = CAST('appointments' AS regclass) AND c.relname ~ '^appointments_[0-9]{4}_[0-9]{2}$'",
+                Integer.class);
+    }
+
+    private boolean isAttached(String partition) {
+        return jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_inherits " +
+                "WHERE inhparent = CAST('appointments' AS regclass) AND inhrelid = CAST(? AS regclass))",
+                Boolean.class, partition);
+    }
+}
@@ -0,0 +1,76 @@
+package com.barbershop.db;
+
+import com.barbershop.support.EmbeddedPostgresDatabase;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica las migraciones sobre una base nueva y sobre una base existente marcada como baseline en V1,
+ * con la configuración de Flyway de application-dev/prod.
+ */
+class FlywayMigrationTest {
+
+    private static final List<String> SERIES_TABLES = List.of(
+            "payment_aggregates", "refresh_tokens", "revenue_rollups", "rollup_watermarks", "token_revocations");
+
+    @Test
+    void migratesEmptyDatabase() {
+        DataSource dataSource = EmbeddedPostgresDatabase.createDatabase();
+
+        flyway(dataSource).migrate();
+
+        assertThat(flyway(dataSource).validateWithResult().validationSuccessful).isTrue();
+        assertSeriesSchema(dataSource);
+    }
+
+    @Test
+    void migratesBaselinedDatabaseCreatedByHibernate() throws SQLException {
+        // Base anterior a Flyway: el esquema de V1 existe pero no hay historial de migraciones
+        DataSource dataSource = EmbeddedPostgresDatabase.createDatabase();
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__baseline_schema.sql"));
+        }
+        // V1 solo contiene lo que ya existía antes de Flyway; las bases marcadas como baseline no lo ejecutan
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String table : SERIES_TABLES) {
+            assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class, table)).as(table).isTrue();
+        }
+
+        MigrateResult result = flyway(dataSource).migrate();
+
+        assertThat(result.migrations).first().extracting(migration -> migration.version).isEqualTo("1.1");
+        assertThat(flyway(dataSource).validateWithResult().validationSuccessful).isTrue();
+        assertSeriesSchema(dataSource);
+    }
+
+    private static Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+    }
+
+    private static void assertSeriesSchema(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String table : SERIES_TABLES) {
+            assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table))
+                    .as(table).isTrue();
+        }
+        assertThat(jdbcTemplate.queryForList("SELECT column_name FROM information_schema.columns " +
+                "WHERE table_name = 'payments'", String.class))
+                .contains("client_id", "barber_id", "barbershop_id");
+    }
+}
@@ -0,0 +1,172 @@
+package com.barbershop.features.appointment.controller;
+
+import com.barbershop.common.dto.ApiResponseDto;
+import com.barbershop.common.dto.CursorPageDto;
+import com.barbershop.common.service.IdempotencyService;
+import com.barbershop.common.util.FieldSelection;
+import com.barbershop.config.FieldSelectionConfig;
+import com.barbershop.config.SqlStatementBudgetFilter;
+import com.barbershop.features.appointment.dto.AppointmentResponseDto;
+import com.barbershop.features.appointment.dto.request.AppointmentSearchRequestDto;
+import com.barbershop.features.appointment.model.enums.AppointmentStatus;
+import com.barbershop.features.appointment.service.AppointmentService;
+import com.barbershop.features.auth.security.JwtAuthenticationFilter;
+import com.barbershop.features.barber.dto.BarberResponseDto;
+import com.barbershop.features.service.dto.ServiceResponseDto;
+import com.barbershop.features.user.dto.UserResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifica la serialización de fields= en los listados de citas: los campos no seleccionados no aparecen en el JSON
+ * aunque el DTO los tenga, las relaciones seleccionadas se escriben completas y un campo desconocido responde 400
+ * sin llegar al servicio. El servicio se simula con DTOs completos para que el recorte sea solo de la serialización.
+ */
+@WebMvcTest(controllers = AppointmentController.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                classes = {JwtAuthenticationFilter.class, SqlStatementBudgetFilter.class}))
+@AutoConfigureMockMvc(addFilters = false)
+@Import(FieldSelectionConfig.class)
+@TestPropertySource(properties = "server.port=0")
+class AppointmentControllerFieldSelectionTest {
+
+    private static final String TOKEN = "Bearer token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AppointmentService appointmentService;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        ApiResponseDto<CursorPageDto<AppointmentResponseDto>> response = ApiResponseDto.<CursorPageDto<AppointmentResponseDto>>builder()
+                .status(200)
+                .message("Citas obtenidas exitosamente")
+                .data(CursorPageDto.<AppointmentResponseDto>builder()
+                        .content(List.of(appointment()))
+                        .size(1)
+                        .hasNext(true)
+                        .nextCursor("siguiente")
+                        .build())
+                .timestamp(LocalDateTime.now())
+                .build();
+        when(appointmentService.getAllAppointmentsByCursor(any(), anyInt(), anyString(), anyString(), any(), anyString()))
+                .thenReturn(response);
+        when(appointmentService.searchAppointments(any(), any(), anyString())).thenReturn(response);
+    }
+
+    @Test
+    void unselectedFieldsAreLeftOutOfTheJson() throws Exception {
+        mockMvc.perform(get("/api/v1/appointments/all/cursor").param("fields", "id,status").header("Authorization", TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").exists())
+                .andExpect(jsonPath("$.data.nextCursor").value("siguiente"))
+                .andExpect(jsonPath("$.data.content[0].appointmentId").value("cita-1"))
+                .andExpect(jsonPath("$.data.content[0].status").value("SCHEDULED"))
+                .andExpect(jsonPath("$.data.content[0].price").doesNotExist())
+                .andExpect(jsonPath("$.data.content[0].notes").doesNotExist())
+                .andExpect(jsonPath("$.data.content[0].barber").doesNotExist())
+                .andExpect(jsonPath("$.data.content[0].user").doesNotExist())
+                .andExpect(jsonPath("$.data.content[0].service").doesNotExist());
+
+        ArgumentCaptor<FieldSelection> selection = ArgumentCaptor.forClass(FieldSelection.class);
+        verify(appointmentService).getAllAppointmentsByCursor(any(), anyInt(), anyString(), anyString(), selection.capture(), eq("token"));
+        assertThat(selection.getValue().getFields()).containsExactly("appointmentId", "status");
+    }
+
+    @Test
+    void selectedRelationsAreWrittenComplete() throws Exception {
+        mockMvc.perform(get("/api/v1/appointments/search").param("fields", "id,barber,user").header("Authorization", TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].appointmentId").value("cita-1"))
+                .andExpect(jsonPath("$.data.content[0].barber.barberId").value("barbero-1"))
+                .andExpect(jsonPath("$.data.content[0].barber.specialization").value("Degradados"))
+                .andExpect(jsonPath("$.data.content[0].user.email").value("ana@example.com"))
+                .andExpect(jsonPath("$.data.content[0].service").doesNotExist())
+                .andExpect(jsonPath("$.data.content[0].status").doesNotExist());
+    }
+
+    @Test
+    void withoutFieldsEverythingIsWritten() throws Exception {
+        mockMvc.perform(get("/api/v1/appointments/search").header("Authorization", TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].price").value(25.5))
+                .andExpect(jsonPath("$.data.content[0].notes").value("Corte clásico"))
+                .andExpect(jsonPath("$.data.content[0].barber.barberId").value("barbero-1"))
+                .andExpect(jsonPath("$.data.content[0].user.userId").value("cliente-1"))
+                .andExpect(jsonPath("$.data.content[0].service.name").value("Corte"));
+
+        verify(appointmentService).searchAppointments(any(AppointmentSearchRequestDto.class), eq(FieldSelection.all()), eq("token"));
+    }
+
+    @Test
+    void unknownFieldIsRejectedBeforeReachingTheService() throws Exception {
+        mockMvc.perform(get("/api/v1/appointments/search").param("fields", "id,password").header("Authorization", TOKEN))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("password")));
+        mockMvc.perform(get("/api/v1/appointments/all/cursor").param("fields", "barber.userId").header("Authorization", TOKEN))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(appointmentService);
+    }
+
+    private static AppointmentResponseDto appointment() {
+        BarberResponseDto barber = new BarberResponseDto();
+        barber.setBarberId("barbero-1");
+        barber.setSpecialization("Degradados");
+
+        UserResponseDto user = new UserResponseDto();
+        user.setUserId("cliente-1");
+        user.setEmail("ana@example.com");
+
+        ServiceResponseDto service = new ServiceResponseDto();
+        service.setServiceId("servicio-1");
+        service.setName("Corte");
+
+        AppointmentResponseDto appointment = new AppointmentResponseDto();
+        appointment.setAppointmentId("cita-1");
+        appointment.setBarberId("barbero-1");
+        appointment.setUserId("cliente-1");
+        appointment.setServiceId("servicio-1");
+        appointment.setAppointmentDateTime(LocalDateTime.of(2024, 2, 15, 14, 30));
+        appointment.setPrice(new BigDecimal("25.50"));
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setNotes("Corte clásico");
+        appointment.setVersion(0L);
+        appointment.setBarber(barber);
+        appointment.setUser(user);
+        appointment.setService(service);
+        return appointment;
+    }
+}
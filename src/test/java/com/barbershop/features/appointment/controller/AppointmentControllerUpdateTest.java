@@ -0,0 +1,96 @@
+package com.barbershop.features.appointment.controller;
+
+import com.barbershop.common.dto.ApiResponseDto;
+import com.barbershop.common.service.IdempotencyService;
+import com.barbershop.config.FieldSelectionConfig;
+import com.barbershop.config.SqlStatementBudgetFilter;
+import com.barbershop.features.appointment.dto.AppointmentResponseDto;
+import com.barbershop.features.appointment.service.AppointmentService;
+import com.barbershop.features.auth.security.JwtAuthenticationFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifica PUT /appointments/update con y sin versión: sin versión se acepta como última escritura con un aviso
+ * de obsolescencia en el encabezado Warning, y una versión desactualizada responde 409.
+ */
+@WebMvcTest(controllers = AppointmentController.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                classes = {JwtAuthenticationFilter.class, SqlStatementBudgetFilter.class}))
+@AutoConfigureMockMvc(addFilters = false)
+@Import(FieldSelectionConfig.class)
+@TestPropertySource(properties = "server.port=0")
+class AppointmentControllerUpdateTest {
+
+    private static final String TOKEN = "Bearer token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AppointmentService appointmentService;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        when(appointmentService.updateAppointment(eq("cita-1"), any(), anyString())).thenReturn(
+                ApiResponseDto.<AppointmentResponseDto>builder()
+                        .status(200)
+                        .message("Cita actualizada exitosamente")
+                        .data(new AppointmentResponseDto())
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
+    @Test
+    void updateWithoutVersionIsAcceptedWithDeprecationWarning() throws Exception {
+        mockMvc.perform(put("/api/v1/appointments/update").param("appointmentId", "cita-1").header("Authorization", TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"notes\": \"Sin versión\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.WARNING, startsWith("299 - ")));
+    }
+
+    @Test
+    void updateWithVersionHasNoWarning() throws Exception {
+        mockMvc.perform(put("/api/v1/appointments/update").param("appointmentId", "cita-1").header("Authorization", TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"notes\": \"Con versión\", \"version\": 3}"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.WARNING));
+    }
+
+    @Test
+    void updateWithStaleVersionIsConflict() throws Exception {
+        when(appointmentService.updateAppointment(eq("cita-1"), argThat(request -> Long.valueOf(2L).equals(request.getVersion())), anyString()))
+                .thenThrow(new ObjectOptimisticLockingFailureException("Appointment", "cita-1"));
+
+        mockMvc.perform(put("/api/v1/appointments/update").param("appointmentId", "cita-1").header("Authorization", TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"notes\": \"Versión antigua\", \"version\": 2}"))
+                .andExpect(status().isConflict());
+    }
+}
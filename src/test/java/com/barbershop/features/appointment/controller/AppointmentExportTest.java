@@ -0,0 +1,190 @@
+package com.barbershop.features.appointment.controller;
+
+import com.barbershop.common.service.IdempotencyService;
+import com.barbershop.common.service.StreamingExportService;
+import com.barbershop.common.util.ExportFormat;
+import com.barbershop.features.appointment.service.AppointmentService;
+import com.barbershop.support.AppointmentServicePostgresTest;
+import com.barbershop.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifica sobre PostgreSQL embebido la exportación de citas por GET /appointments/export con despacho asíncrono:
+ * el CSV lleva encabezado aunque no haya filas, las filas salen ordenadas por clave primaria y el cuerpo se escribe
+ * desde un cursor con fetch size acotado, volcándose por bloques en lugar de acumularse entero.
+ * El cuerpo se escribe en otro hilo, así que las filas se confirman y se borran al terminar cada prueba.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AppointmentExportTest extends AppointmentServicePostgresTest {
+
+    private static final int ROWS = 3000;
+    private static final LocalDateTime FIRST_START = LocalDateTime.of(2091, 3, 1, 8, 0);
+    private static final String HEADER = "appointmentId,barbershopId,clientId,barberId,serviceId,appointmentDateTimeStart," +
+            "appointmentDateTimeEnd,status,priceAtBooking,notes,createdAt,updatedAt";
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private MockMvc mockMvc;
+    private String adminToken;
+    private String barbershopId;
+    private List<String> userIds;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new AppointmentController(appointmentService, mock(IdempotencyService.class)))
+                .build();
+        adminToken = token("admin", "ROLE_ADMIN");
+
+        barbershopId = fixtures.barbershop();
+        String clientId = fixtures.user("ROLE_CLIENT");
+        String barberId = fixtures.barber(barbershopId);
+        String serviceId = fixtures.service(barbershopId);
+        userIds = List.of(clientId, fixtures.jdbc().queryForObject(
+                "SELECT CAST(user_id AS varchar) FROM barbers WHERE barber_id = CAST(? AS uuid)", String.class, barberId));
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            LocalDateTime start = FIRST_START.plusHours(i);
+            rows.add(new Object[]{UUID.randomUUID().toString(), Timestamp.valueOf(start), Timestamp.valueOf(start.plusMinutes(30)),
+                    barberId, barbershopId, clientId, serviceId});
+        }
+        fixtures.jdbc().batchUpdate("INSERT INTO appointments (appointment_id, appointment_datetime_start, appointment_datetime_end, " +
+                "barber_id, barbershop_id, client_id, created_at, price_at_booking, service_id, status, updated_at) " +
+                "VALUES (CAST(? AS uuid), ?, ?, CAST(? AS uuid), CAST(? AS uuid), CAST(? AS uuid), now(), 10.00, " +
+                "CAST(? AS uuid), 'SCHEDULED', now())", rows);
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTemplate jdbc = fixtures.jdbc();
+        jdbc.update("DELETE FROM appointments WHERE barbershop_id = CAST(? AS uuid)", barbershopId);
+        jdbc.update("DELETE FROM services WHERE barbershop_id = CAST(? AS uuid)", barbershopId);
+        jdbc.update("DELETE FROM barbers WHERE barbershop_id = CAST(? AS uuid)", barbershopId);
+        jdbc.update("DELETE FROM barbershops WHERE barbershop_id = CAST(? AS uuid)", barbershopId);
+        userIds.forEach(userId -> jdbc.update("DELETE FROM users WHERE user_id = CAST(? AS uuid)", userId));
+    }
+
+    @Test
+    void streamsEveryRowOrderedByPrimaryKey() throws Exception {
+        String csv = export(FIRST_START, FIRST_START.plusHours(ROWS));
+
+        List<String> lines = csv.lines().toList();
+        assertThat(lines).hasSize(ROWS + 1);
+        assertThat(lines.get(0)).isEqualTo(HEADER);
+
+        // PostgreSQL compara uuid byte a byte, el mismo orden que su texto hexadecimal en minúsculas
+        List<String> ids = lines.subList(1, lines.size()).stream().map(line -> line.substring(0, line.indexOf(','))).toList();
+        assertThat(ids).doesNotHaveDuplicates().isSortedAccordingTo(Comparator.naturalOrder());
+        assertThat(lines.get(1)).contains(barbershopId, ",SCHEDULED,10.00,,");
+
+        assertThat(export(FIRST_START, FIRST_START.plusHours(ROWS))).isEqualTo(csv);
+    }
+
+    @Test
+    void emptyResultStillHasHeader() throws Exception {
+        assertThat(export(FIRST_START.minusYears(1), FIRST_START)).isEqualTo(HEADER + "\n");
+    }
+
+    @Test
+    void bodyIsReadFromCursorAndFlushedInBlocks() throws Exception {
+        // Fetch size, tipo de cursor y autocommit de cada consulta, leídos antes de ejecutarla
+        List<List<Object>> cursors = new ArrayList<>();
+        JdbcTemplate recordingTemplate = new JdbcTemplate(dataSource) {
+            @Override
+            public <T> T query(PreparedStatementCreator psc, ResultSetExtractor<T> rse) throws DataAccessException {
+                return super.query(connection -> {
+                    PreparedStatement statement = psc.createPreparedStatement(connection);
+                    cursors.add(List.of(statement.getFetchSize(), statement.getResultSetType(), connection.getAutoCommit()));
+                    return statement;
+                }, rse);
+            }
+        };
+        StreamingExportService exportService = new StreamingExportService(recordingTemplate, transactionManager);
+
+        List<Integer> flushedSizes = new ArrayList<>();
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushedSizes.add(size());
+            }
+        };
+        exportService.export("appointments", ExportFormat.CSV,
+                        "SELECT a.appointment_id AS \"appointmentId\" FROM appointments a " +
+                                "WHERE a.barbershop_id = CAST(? AS uuid) ORDER BY a.appointment_id",
+                        List.of(UUID.fromString(barbershopId)))
+                .getBody().writeTo(output);
+
+        // PostgreSQL solo lee por bloques con fetch size dentro de una transacción (sin autocommit)
+        assertThat(cursors).containsExactly(List.of(1000, ResultSet.TYPE_FORWARD_ONLY, false));
+
+        // Un volcado cada 1000 filas: el primero lleva un tercio del archivo, no el archivo entero
+        int total = output.size();
+        assertThat(output.toString().lines()).hasSize(ROWS + 1);
+        assertThat(flushedSizes.stream().distinct().filter(size -> size > 0).toList()).hasSizeGreaterThanOrEqualTo(3);
+        assertThat(flushedSizes.get(0)).isGreaterThan(0).isLessThan(total / 2);
+        assertThat(flushedSizes.get(flushedSizes.size() - 1)).isEqualTo(total);
+    }
+
+    /**
+     * Exporta en CSV las citas del rango indicado siguiendo el despacho asíncrono de StreamingResponseBody
+     * @return Cuerpo completo de la respuesta
+     */
+    private String export(LocalDateTime from, LocalDateTime to) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/v1/appointments/export")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, containsString("text/csv")))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("appointments-")))
+                .andReturn().getResponse().getContentAsString();
+    }
+}
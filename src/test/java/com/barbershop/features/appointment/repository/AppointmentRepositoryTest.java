@@ -0,0 +1,193 @@
+package com.barbershop.features.appointment.repository;
+
+import com.barbershop.common.util.FieldSelection;
+import com.barbershop.common.util.KeysetCursor;
+import com.barbershop.features.appointment.dto.request.AppointmentSearchRequestDto;
+import com.barbershop.features.appointment.dto.AppointmentResponseDto;
+import com.barbershop.features.appointment.mapper.AppointmentMapper;
+import com.barbershop.features.appointment.mapper.AppointmentMapperImpl;
+import com.barbershop.features.appointment.model.Appointment;
+import com.barbershop.features.appointment.model.enums.AppointmentStatus;
+import com.barbershop.features.barber.mapper.BarberMapperImpl;
+import com.barbershop.features.service.mapper.ServiceMapperImpl;
+import com.barbershop.features.user.mapper.UserMapperImpl;
+import com.barbershop.support.PostgresRepositoryTest;
+import com.barbershop.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.barbershop.support.SqlStatementAssertions.assertMaxStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Acota las sentencias SQL de los listados de citas que se mapean a AppointmentResponseDto.
+ * Cada cita tiene cliente, barbero y servicio distintos, así que una relación sin @EntityGraph
+ * añade una consulta por cita y la prueba falla.
+ */
+@Import({AppointmentMapperImpl.class, BarberMapperImpl.class, UserMapperImpl.class, ServiceMapperImpl.class})
+class AppointmentRepositoryTest extends PostgresRepositoryTest {
+
+    private static final int APPOINTMENTS = 6;
+    private static final PageRequest PAGE = PageRequest.of(0, 20, Sort.by("appointmentDatetimeStart"));
+
+    // Consulta de la página más, como mucho, la de conteo
+    private static final int PAGE_BUDGET = 2;
+    private static final int LIST_BUDGET = 1;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentMapper appointmentMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private final List<String> clientIds = new ArrayList<>();
+    private final List<String> barberIds = new ArrayList<>();
+    private String barbershopId;
+
+    @BeforeEach
+    void setUp() {
+        barbershopId = fixtures.barbershop();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            String clientId = fixtures.user("ROLE_CLIENT");
+            String barberId = fixtures.barber(barbershopId);
+            clientIds.add(clientId);
+            barberIds.add(barberId);
+            fixtures.appointment(clientId, barberId, barbershopId, fixtures.service(barbershopId), start.plusHours(i));
+        }
+        // Un cliente y un barbero con varias citas para los listados filtrados
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            fixtures.appointment(clientIds.get(0), barberIds.get(0), barbershopId, fixtures.service(barbershopId),
+                    start.plusDays(1).plusHours(i));
+        }
+    }
+
+    @Test
+    void findAllLoadsRelationsInOneQuery() {
+        assertThat(mapped(PAGE_BUDGET, () -> appointmentRepository.findAll(PAGE).getContent()))
+                .hasSize(APPOINTMENTS * 2);
+    }
+
+    @Test
+    void findByClientIdLoadsRelationsInOneQuery() {
+        assertThat(mapped(PAGE_BUDGET, () -> appointmentRepository.findByClientId(clientIds.get(0), PAGE).getContent()))
+                .hasSize(APPOINTMENTS + 1);
+    }
+
+    @Test
+    void findByBarberIdLoadsRelationsInOneQuery() {
+        assertThat(mapped(PAGE_BUDGET, () -> appointmentRepository.findByBarberId(barberIds.get(0), PAGE).getContent()))
+                .hasSize(APPOINTMENTS + 1);
+    }
+
+    @Test
+    void findByStatusLoadsRelationsInOneQuery() {
+        assertThat(mapped(PAGE_BUDGET, () -> appointmentRepository.findByStatus(AppointmentStatus.SCHEDULED, PAGE).getContent()))
+                .hasSize(APPOINTMENTS * 2);
+    }
+
+    @Test
+    void upcomingListingsLoadRelationsInOneQuery() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(mapped(LIST_BUDGET, () -> appointmentRepository.findUpcomingByClientId(clientIds.get(0), now)))
+                .hasSize(APPOINTMENTS + 1);
+        assertThat(mapped(LIST_BUDGET, () -> appointmentRepository.findUpcomingByBarberId(barberIds.get(0), now)))
+                .hasSize(APPOINTMENTS + 1);
+    }
+
+    @Test
+    void cursorPagesLoadSelectedRelationsInOneQuery() {
+        AppointmentSearchRequestDto filter = new AppointmentSearchRequestDto();
+        filter.setBarbershopId(barbershopId);
+        int pageSize = APPOINTMENTS - 1;
+
+        List<AppointmentResponseDto> seen = new ArrayList<>();
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<Appointment> window;
+        do {
+            ScrollPosition current = position;
+            window = measured(LIST_BUDGET, () -> scroll(filter, List.of("client", "barber", "service"), pageSize, current));
+            seen.addAll(mapped(0, window::getContent));
+            String next = KeysetCursor.next(window, "appointmentDatetimeStart", Sort.Direction.ASC);
+            position = next != null
+                    ? KeysetCursor.decode(next, "appointmentDatetimeStart", Sort.Direction.ASC, Appointment.class)
+                    : null;
+        } while (window.hasNext());
+
+        assertThat(seen).hasSize(APPOINTMENTS * 2);
+        assertThat(seen).allSatisfy(dto -> {
+            assertThat(dto.getUser()).isNotNull();
+            assertThat(dto.getBarber()).isNotNull();
+            assertThat(dto.getService()).isNotNull();
+        });
+    }
+
+    @Test
+    void cursorPageWithoutRelationsDoesNotLoadThem() {
+        AppointmentSearchRequestDto filter = new AppointmentSearchRequestDto();
+        filter.setBarbershopId(barbershopId);
+        FieldSelection fields = FieldSelection.parse("id,status", AppointmentResponseDto.class, "appointmentId");
+
+        List<AppointmentResponseDto> page = assertMaxStatements(LIST_BUDGET, () -> {
+            clearCaches();
+            return scroll(filter, List.of(), APPOINTMENTS * 2, ScrollPosition.keyset()).getContent().stream()
+                    .map(appointment -> appointmentMapper.toResponseDto(appointment, fields))
+                    .toList();
+        });
+
+        assertThat(page).hasSize(APPOINTMENTS * 2).allSatisfy(dto -> assertThat(dto.getUser()).isNull());
+    }
+
+    private Window<Appointment> scroll(AppointmentSearchRequestDto filter, List<String> relations, int limit,
+                                       ScrollPosition position) {
+        return appointmentRepository.findBy(AppointmentSpecifications.search(filter).and(AppointmentSpecifications.fetch(relations)), query -> query
+                .sortBy(Sort.by(Sort.Direction.ASC, "appointmentDatetimeStart", "appointmentId"))
+                .limit(limit)
+                .scroll(position));
+    }
+
+    /**
+     * Ejecuta el listado y lo mapea a DTOs dentro del presupuesto, partiendo de cachés vacías
+     */
+    private List<AppointmentResponseDto> mapped(int maxStatements, Supplier<List<Appointment>> listing) {
+        return assertMaxStatements(maxStatements, () -> {
+            if (maxStatements > 0) {
+                clearCaches();
+            }
+            return listing.get().stream().map(appointmentMapper::toResponseDto).toList();
+        });
+    }
+
+    private <T> T measured(int maxStatements, Supplier<T> call) {
+        return assertMaxStatements(maxStatements, () -> {
+            clearCaches();
+            return call.get();
+        });
+    }
+
+    // Sin entidades en la sesión ni en la caché de segundo nivel, toda carga perezosa llega a la base de datos
+    private void clearCaches() {
+        entityManager.flush();
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+    }
+}
@@ -0,0 +1,139 @@
+package com.barbershop.features.appointment.service;
+
+import com.barbershop.features.appointment.dto.BatchStatusTransitionResultDto;
+import com.barbershop.features.appointment.dto.request.BatchStatusTransitionRequestDto;
+import com.barbershop.features.appointment.model.Appointment;
+import com.barbershop.features.appointment.model.enums.AppointmentStatus;
+import com.barbershop.support.AppointmentServicePostgresTest;
+import com.barbershop.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica el cierre por lotes sobre PostgreSQL embebido con un lote mixto: cada cita recibe su propio resultado
+ * y solo las transiciones válidas sobre la versión leída se aplican y aumentan la versión.
+ */
+class AppointmentBatchTransitionTest extends AppointmentServicePostgresTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private String barbershopId;
+    private String clientId;
+    private String serviceId;
+    private String barberId;
+    private String barberToken;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        barbershopId = fixtures.barbershop();
+        clientId = fixtures.user("ROLE_CLIENT");
+        serviceId = fixtures.service(barbershopId);
+        barberId = fixtures.barber(barbershopId);
+        String barberUserId = fixtures.jdbc().queryForObject(
+                "SELECT CAST(user_id AS varchar) FROM barbers WHERE barber_id = CAST(? AS uuid)", String.class, barberId);
+        barberToken = token(barberUserId, "ROLE_BARBER");
+        start = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    void mixedBatchReportsEachAppointmentAndBumpsOnlyUpdatedVersions() {
+        String missing = UUID.randomUUID().toString();
+        String otherBarbers = appointment(fixtures.barber(barbershopId), 0);
+        String cancelled = appointment(barberId, 1);
+        setStatus(cancelled, AppointmentStatus.CANCELLED);
+        String stale = appointment(barberId, 2);
+        String updated = appointment(barberId, 3);
+
+        // La cita queda gestionada con la versión 0 y otra operación la modifica antes del lote
+        entityManager.find(Appointment.class, stale);
+        fixtures.jdbc().update("UPDATE appointments SET version = version + 1 WHERE appointment_id = CAST(? AS uuid)", stale);
+
+        List<BatchStatusTransitionResultDto> results = transition(AppointmentStatus.CONFIRMED,
+                missing, otherBarbers, cancelled, stale, updated.toUpperCase());
+        Map<String, BatchStatusTransitionResultDto> byId = results.stream()
+                .collect(Collectors.toMap(BatchStatusTransitionResultDto::getAppointmentId, Function.identity()));
+
+        assertThat(results).extracting(BatchStatusTransitionResultDto::getAppointmentId)
+                .containsExactly(missing, otherBarbers, cancelled, stale, updated);
+        assertThat(byId.get(missing).isUpdated()).isFalse();
+        assertThat(byId.get(missing).getMessage()).isEqualTo("Cita no encontrada");
+        assertThat(byId.get(otherBarbers).isUpdated()).isFalse();
+        assertThat(byId.get(otherBarbers).getMessage()).contains("permisos");
+        assertThat(byId.get(cancelled).isUpdated()).isFalse();
+        assertThat(byId.get(cancelled).getMessage()).contains("Transición de estado inválida");
+        assertThat(byId.get(stale).isUpdated()).isFalse();
+        assertThat(byId.get(stale).getMessage()).contains("modificada por otra operación");
+        assertThat(byId.get(updated).isUpdated()).isTrue();
+        assertThat(byId.get(updated).getPreviousStatus()).isEqualTo(AppointmentStatus.SCHEDULED);
+        assertThat(byId.get(updated).getStatus()).isEqualTo(AppointmentStatus.CONFIRMED);
+
+        assertThat(stored(updated)).containsExactly("CONFIRMED", 1L);
+        assertThat(stored(stale)).containsExactly("SCHEDULED", 1L);
+        assertThat(stored(otherBarbers)).containsExactly("SCHEDULED", 0L);
+        assertThat(stored(cancelled)).containsExactly("CANCELLED", 0L);
+    }
+
+    @Test
+    void duplicateIdsInDifferentCaseAreTransitionedOnce() {
+        String appointmentId = appointment(barberId, 0);
+
+        List<BatchStatusTransitionResultDto> results = transition(AppointmentStatus.CONFIRMED,
+                appointmentId, appointmentId.toUpperCase());
+
+        assertThat(results).singleElement().satisfies(result -> assertThat(result.isUpdated()).isTrue());
+        assertThat(stored(appointmentId)).containsExactly("CONFIRMED", 1L);
+    }
+
+    @Test
+    void malformedIdIsRejectedAsBadRequest() {
+        String appointmentId = appointment(barberId, 0);
+
+        assertThatThrownBy(() -> transition(AppointmentStatus.CONFIRMED, appointmentId, "no-es-un-uuid"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no-es-un-uuid");
+        assertThatThrownBy(() -> transition(AppointmentStatus.CONFIRMED, "1-2-3-4-5"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(stored(appointmentId)).containsExactly("SCHEDULED", 0L);
+    }
+
+    private List<BatchStatusTransitionResultDto> transition(AppointmentStatus targetStatus, String... appointmentIds) {
+        BatchStatusTransitionRequestDto request = new BatchStatusTransitionRequestDto();
+        request.setAppointmentIds(List.of(appointmentIds));
+        request.setTargetStatus(targetStatus);
+        return appointmentService.transitionAppointmentsStatus(request, barberToken).getData();
+    }
+
+    private String appointment(String barber, int hour) {
+        return fixtures.appointment(clientId, barber, barbershopId, serviceId, start.plusHours(hour));
+    }
+
+    private void setStatus(String appointmentId, AppointmentStatus status) {
+        fixtures.jdbc().update("UPDATE appointments SET status = ? WHERE appointment_id = CAST(? AS uuid)",
+                status.name(), appointmentId);
+    }
+
+    private List<Object> stored(String appointmentId) {
+        return fixtures.jdbc().queryForObject("SELECT status, version FROM appointments WHERE appointment_id = CAST(? AS uuid)",
+                (rs, rowNum) -> List.of(rs.getString("status"), rs.getLong("version")), appointmentId);
+    }
+}
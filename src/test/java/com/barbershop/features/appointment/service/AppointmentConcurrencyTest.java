@@ -0,0 +1,167 @@
+package com.barbershop.features.appointment.service;
+
+import com.barbershop.ScheduledAppointmentService;
+import com.barbershop.common.exception.GlobalExceptionHandler;
+import com.barbershop.features.appointment.dto.request.UpdateAppointmentRequestDto;
+import com.barbershop.features.appointment.model.Appointment;
+import com.barbershop.support.AppointmentServicePostgresTest;
+import com.barbershop.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * Verifica sobre PostgreSQL embebido que los cambios de estado condicionales detecten una transición concurrente:
+ * la operación que leyó la cita antes de que otra transacción la confirmara no escribe y termina en 409.
+ * Las pruebas con dos transacciones no usan la transacción de prueba, así que las fixtures quedan confirmadas.
+ */
+@Import(ScheduledAppointmentService.class)
+class AppointmentConcurrencyTest extends AppointmentServicePostgresTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private ScheduledAppointmentService scheduledAppointmentService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private String barbershopId;
+    private String clientId;
+    private String barberId;
+    private String serviceId;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        barbershopId = fixtures.barbershop();
+        clientId = fixtures.user("ROLE_CLIENT");
+        barberId = fixtures.barber(barbershopId);
+        serviceId = fixtures.service(barbershopId);
+        adminToken = token(fixtures.user("ROLE_ADMIN"), "ROLE_ADMIN");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void transitionReadBeforeConcurrentCancelLosesWithConflict() {
+        String appointmentId = appointment(LocalDateTime.now().plusDays(1).withNano(0));
+
+        Throwable conflict = loserAfterWinner(appointmentId,
+                () -> appointmentService.cancelAppointment(appointmentId, adminToken),
+                () -> appointmentService.confirmAppointment(appointmentId, adminToken));
+
+        assertThat(conflict).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(httpStatus(conflict)).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(stored(appointmentId)).containsExactly("CANCELLED", 1L);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void transitionReadBeforeNoShowJobLosesWithConflict() {
+        LocalDateTime start = LocalDateTime.now().minusHours(2).withNano(0);
+        String appointmentId = appointment(start);
+
+        Throwable conflict = loserAfterWinner(appointmentId,
+                () -> scheduledAppointmentService.markMissedAppointmentsAsNoShow(),
+                () -> appointmentService.confirmAppointment(appointmentId, adminToken));
+
+        assertThat(conflict).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(httpStatus(conflict)).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(stored(appointmentId)).containsExactly("NO_SHOW", 1L);
+    }
+
+    @Test
+    void updateWithStaleVersionIsRejected() {
+        String appointmentId = appointment(LocalDateTime.now().plusDays(1).withNano(0));
+        bumpVersion(appointmentId);
+
+        UpdateAppointmentRequestDto request = new UpdateAppointmentRequestDto();
+        request.setNotes("Calculado sobre la versión 0");
+        request.setVersion(0L);
+
+        assertThatThrownBy(() -> appointmentService.updateAppointment(appointmentId, request, adminToken))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        entityManager.flush();
+        assertThat(notes(appointmentId)).isNull();
+    }
+
+    @Test
+    void updateWithoutVersionIsAppliedAsLastWrite() {
+        String appointmentId = appointment(LocalDateTime.now().plusDays(1).withNano(0));
+        bumpVersion(appointmentId);
+
+        UpdateAppointmentRequestDto request = new UpdateAppointmentRequestDto();
+        request.setNotes("Cliente sin versión");
+
+        assertThat(appointmentService.updateAppointment(appointmentId, request, adminToken).getData().getVersion())
+                .isEqualTo(2L);
+        assertThat(notes(appointmentId)).isEqualTo("Cliente sin versión");
+    }
+
+    /**
+     * El perdedor lee la cita en su transacción, el ganador cambia el estado en otra transacción confirmada
+     * y después el perdedor intenta su transición con la versión leída
+     * @return Excepción del perdedor
+     */
+    private Throwable loserAfterWinner(String appointmentId, Runnable winner, Runnable loser) {
+        TransactionTemplate loserTransaction = new TransactionTemplate(transactionManager);
+        TransactionTemplate winnerTransaction = new TransactionTemplate(transactionManager);
+        winnerTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        return loserTransaction.execute(status -> {
+            assertThat(entityManager.find(Appointment.class, appointmentId).getVersion()).isZero();
+            winnerTransaction.executeWithoutResult(winnerStatus -> winner.run());
+            Throwable thrown = catchThrowable(loser::run);
+            status.setRollbackOnly();
+            return thrown;
+        });
+    }
+
+    private HttpStatus httpStatus(Throwable conflict) {
+        return HttpStatus.valueOf(new GlobalExceptionHandler()
+                .handleOptimisticLockingFailureException((OptimisticLockingFailureException) conflict, new MockHttpServletRequest())
+                .getStatusCode().value());
+    }
+
+    private String appointment(LocalDateTime start) {
+        return fixtures.appointment(clientId, barberId, barbershopId, serviceId, start);
+    }
+
+    private void bumpVersion(String appointmentId) {
+        fixtures.jdbc().update("UPDATE appointments SET version = version + 1 WHERE appointment_id = CAST(? AS uuid)", appointmentId);
+    }
+
+    private String notes(String appointmentId) {
+        return fixtures.jdbc().queryForObject("SELECT notes FROM appointments WHERE appointment_id = CAST(? AS uuid)",
+                String.class, appointmentId);
+    }
+
+    private List<Object> stored(String appointmentId) {
+        return fixtures.jdbc().queryForObject("SELECT status, version FROM appointments WHERE appointment_id = CAST(? AS uuid)",
+                (rs, rowNum) -> List.of(rs.getString("status"), rs.getLong("version")), appointmentId);
+    }
+}
@@ -0,0 +1,126 @@
+package com.barbershop.features.appointment.service;
+
+import com.barbershop.common.exception.BusinessLogicException;
+import com.barbershop.features.payment.service.PaymentAggregateService;
+import com.barbershop.support.AppointmentServicePostgresTest;
+import com.barbershop.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica que eliminar una cita no borre pagos que ya forman parte de los ingresos registrados
+ * y que los pagos que sí se eliminan con ella no queden huérfanos ni descuadren los agregados de pagos.
+ */
+class AppointmentDeletionTest extends AppointmentServicePostgresTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private PaymentAggregateService paymentAggregateService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private String clientId;
+    private String barberId;
+    private String barbershopId;
+    private String appointmentId;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        barbershopId = fixtures.barbershop();
+        clientId = fixtures.user("ROLE_CLIENT");
+        barberId = fixtures.barber(barbershopId);
+        appointmentId = fixtures.appointment(clientId, barberId, barbershopId, fixtures.service(barbershopId),
+                LocalDateTime.now().plusDays(1).withNano(0));
+        adminToken = token(fixtures.user("ROLE_ADMIN"), "ROLE_ADMIN");
+    }
+
+    @Test
+    void appointmentWithCompletedPaymentIsNotDeleted() {
+        String completed = payment("COMPLETED", "25.00");
+        String pending = payment("PENDING", "5.00");
+
+        assertThatThrownBy(() -> appointmentService.deleteAppointment(appointmentId, adminToken))
+                .isInstanceOf(BusinessLogicException.class);
+        entityManager.flush();
+
+        assertThat(countPayments(completed)).isEqualTo(1);
+        assertThat(countPayments(pending)).isEqualTo(1);
+        assertThat(countAppointments()).isEqualTo(1);
+    }
+
+    @Test
+    void appointmentWithRefundedPaymentIsNotDeleted() {
+        payment("REFUNDED", "25.00");
+
+        assertThatThrownBy(() -> appointmentService.deleteAppointment(appointmentId, adminToken))
+                .isInstanceOf(BusinessLogicException.class);
+        entityManager.flush();
+
+        assertThat(countAppointments()).isEqualTo(1);
+    }
+
+    @Test
+    void deletingAppointmentRemovesItsOpenPayments() {
+        String pending = payment("PENDING", "25.00");
+        String failed = payment("FAILED", "10.00");
+
+        appointmentService.deleteAppointment(appointmentId, adminToken);
+        entityManager.flush();
+
+        assertThat(countAppointments()).isZero();
+        assertThat(countPayments(pending)).isZero();
+        assertThat(countPayments(failed)).isZero();
+    }
+
+    /**
+     * Sin transacción de prueba: la conciliación abre la suya (REQUIRES_NEW) y solo ve datos confirmados
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void deletingAppointmentKeepsPaymentAggregatesInSyncWithPayments() {
+        payment("PENDING", "25.00");
+        payment("FAILED", "10.00");
+        payment("CANCELLED", "7.50");
+        // Los pagos de las fixtures no pasan por recordCreated; la primera conciliación los incorpora
+        paymentAggregateService.reconcile();
+
+        appointmentService.deleteAppointment(appointmentId, adminToken);
+
+        PaymentAggregateService.ReconciliationReport report = paymentAggregateService.reconcile();
+        assertThat(report.getDrifts()).isEmpty();
+    }
+
+    private String payment(String status, String amount) {
+        String paymentId = fixtures.payment(appointmentId, clientId, barberId, barbershopId, new BigDecimal(amount));
+        fixtures.jdbc().update("UPDATE payments SET payment_status = ?, payment_date = now() WHERE payment_id = CAST(? AS uuid)",
+                status, paymentId);
+        return paymentId;
+    }
+
+    private int countPayments(String paymentId) {
+        return fixtures.jdbc().queryForObject("SELECT COUNT(*) FROM payments WHERE payment_id = CAST(? AS uuid)",
+                Integer.class, paymentId);
+    }
+
+    private int countAppointments() {
+        return fixtures.jdbc().queryForObject("SELECT COUNT(*) FROM appointments WHERE appointment_id = CAST(? AS uuid)",
+                Integer.class, appointmentId);
+    }
+}
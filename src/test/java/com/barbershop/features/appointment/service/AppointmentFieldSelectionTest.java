@@ -0,0 +1,146 @@
+package com.barbershop.features.appointment.service;
+
+import com.barbershop.common.dto.CursorPageDto;
+import com.barbershop.common.util.FieldSelection;
+import com.barbershop.common.util.SqlStatementCounter;
+import com.barbershop.features.appointment.dto.AppointmentResponseDto;
+import com.barbershop.features.appointment.dto.request.AppointmentSearchRequestDto;
+import com.barbershop.support.AppointmentServicePostgresTest;
+import com.barbershop.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que los listados por cursor y la búsqueda de citas solo unan en la consulta las relaciones
+ * seleccionadas con fields= y que el mapper deje sin leer los campos no seleccionados.
+ * Cada página es una sola sentencia; se inspecciona su SQL para ver qué tablas se unieron.
+ */
+class AppointmentFieldSelectionTest extends AppointmentServicePostgresTest {
+
+    private static final int APPOINTMENTS = 3;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private final List<String> appointmentIds = new ArrayList<>();
+    private String barbershopId;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        barbershopId = fixtures.barbershop();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        // Cliente, barbero y servicio distintos por cita: una relación perezosa añadiría una consulta por cita
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            appointmentIds.add(fixtures.appointment(fixtures.user("ROLE_CLIENT"), fixtures.barber(barbershopId),
+                    barbershopId, fixtures.service(barbershopId), start.plusHours(i)));
+        }
+        adminToken = token(fixtures.user("ROLE_ADMIN"), "ROLE_ADMIN");
+    }
+
+    @Test
+    void searchWithoutRelationsQueriesOnlyAppointments() {
+        Page page = search("id,status");
+
+        assertThat(page.sql()).doesNotContain("join users", "join barbers", "join services");
+        assertThat(page.content()).hasSize(APPOINTMENTS).allSatisfy(dto -> {
+            assertThat(dto.getAppointmentId()).isNotNull();
+            assertThat(dto.getStatus()).isNotNull();
+            assertThat(dto.getPrice()).isNull();
+            assertThat(dto.getBarberId()).isNull();
+            assertThat(dto.getUser()).isNull();
+            assertThat(dto.getBarber()).isNull();
+            assertThat(dto.getService()).isNull();
+        });
+    }
+
+    @Test
+    void searchJoinsOnlySelectedRelation() {
+        Page page = search("id,barber");
+
+        assertThat(page.sql()).contains("join barbers").doesNotContain("join users", "join services");
+        assertThat(page.content()).hasSize(APPOINTMENTS).allSatisfy(dto -> {
+            assertThat(dto.getBarber()).isNotNull();
+            assertThat(dto.getUser()).isNull();
+            assertThat(dto.getService()).isNull();
+        });
+    }
+
+    @Test
+    void searchWithAllFieldsJoinsEveryRelationInOneQuery() {
+        Page page = search(null);
+
+        assertThat(page.sql()).contains("join users", "join barbers", "join services");
+        assertThat(page.content()).hasSize(APPOINTMENTS).allSatisfy(dto -> {
+            assertThat(dto.getPrice()).isNotNull();
+            assertThat(dto.getUser()).isNotNull();
+            assertThat(dto.getBarber()).isNotNull();
+            assertThat(dto.getService()).isNotNull();
+        });
+    }
+
+    @Test
+    void allByCursorSkipsUnselectedRelations() {
+        Page withoutRelations = measured(fields -> appointmentService
+                .getAllAppointmentsByCursor(null, 100, "appointmentDatetimeStart", "asc", fields, adminToken).getData(),
+                "id,status,service");
+
+        assertThat(withoutRelations.sql()).contains("join services").doesNotContain("join users", "join barbers");
+        assertThat(withoutRelations.content())
+                .filteredOn(dto -> appointmentIds.contains(dto.getAppointmentId()))
+                .hasSize(APPOINTMENTS)
+                .allSatisfy(dto -> {
+                    assertThat(dto.getService()).isNotNull();
+                    assertThat(dto.getUser()).isNull();
+                    assertThat(dto.getBarber()).isNull();
+                });
+    }
+
+    private Page search(String fields) {
+        AppointmentSearchRequestDto filter = new AppointmentSearchRequestDto();
+        filter.setBarbershopId(barbershopId);
+        return measured(selection -> appointmentService.searchAppointments(filter, selection, adminToken).getData(), fields);
+    }
+
+    /**
+     * Ejecuta la página con cachés vacías y comprueba que sea una sola sentencia
+     */
+    private Page measured(Function<FieldSelection, CursorPageDto<AppointmentResponseDto>> call, String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, AppointmentResponseDto.class, "appointmentId");
+        entityManager.flush();
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+
+        SqlStatementCounter.Stats previous = SqlStatementCounter.start();
+        CursorPageDto<AppointmentResponseDto> page;
+        SqlStatementCounter.Stats stats;
+        try {
+            page = call.apply(selection);
+        } finally {
+            stats = SqlStatementCounter.stop(previous);
+        }
+
+        Set<String> statements = stats.getStatements().keySet();
+        assertThat(stats.getStatementCount()).as("sentencias: %s", statements).isEqualTo(1);
+        return new Page(page.getContent(), statements.iterator().next().toLowerCase());
+    }
+
+    private record Page(List<AppointmentResponseDto> content, String sql) {
+    }
+}
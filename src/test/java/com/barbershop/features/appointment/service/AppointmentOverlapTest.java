@@ -0,0 +1,134 @@
+package com.barbershop.features.appointment.service;
+
+import com.barbershop.common.exception.BusinessLogicException;
+import com.barbershop.features.appointment.dto.AppointmentResponseDto;
+import com.barbershop.features.appointment.dto.request.CreateAppointmentRequestDto;
+import com.barbershop.features.appointment.dto.request.UpdateAppointmentRequestDto;
+import com.barbershop.support.AppointmentServicePostgresTest;
+import com.barbershop.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica que la restricción de exclusión ex_appointments_barber_no_overlap* se traduzca en el error de negocio
+ * de barbero no disponible y que los rangos [) permitan citas consecutivas. Las citas que cruzan el cambio de mes
+ * se rechazan porque la restricción solo compara citas de una misma partición mensual.
+ */
+class AppointmentOverlapTest extends AppointmentServicePostgresTest {
+
+    private static final int DURATION_MINUTES = 30;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private String clientId;
+    private String barberId;
+    private String serviceId;
+    private String barbershopId;
+    private String adminToken;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        barbershopId = fixtures.barbershop();
+        clientId = fixtures.user("ROLE_CLIENT");
+        barberId = fixtures.barber(barbershopId);
+        serviceId = fixtures.service(barbershopId);
+        adminToken = token(fixtures.user("ROLE_ADMIN"), "ROLE_ADMIN");
+        start = LocalDateTime.now().plusDays(2).withHour(10).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    void overlappingAppointmentForSameBarberIsRejected() {
+        create(barberId, start);
+
+        assertThatThrownBy(() -> create(barberId, start.plusMinutes(DURATION_MINUTES / 2)))
+                .isInstanceOf(BusinessLogicException.class)
+                .hasMessageContaining("no está disponible");
+    }
+
+    @Test
+    void adjacentAppointmentsAreAllowed() {
+        AppointmentResponseDto first = create(barberId, start);
+        AppointmentResponseDto second = create(barberId, start.plusMinutes(DURATION_MINUTES));
+        AppointmentResponseDto before = create(barberId, start.minusMinutes(DURATION_MINUTES));
+
+        assertThat(first.getAppointmentId()).isNotNull();
+        assertThat(second.getAppointmentId()).isNotNull();
+        assertThat(before.getAppointmentId()).isNotNull();
+    }
+
+    @Test
+    void cancelledAppointmentDoesNotBlockTheSlot() {
+        AppointmentResponseDto cancelled = create(barberId, start);
+        appointmentService.cancelAppointment(cancelled.getAppointmentId(), adminToken);
+
+        AppointmentResponseDto replacement = create(barberId, start);
+
+        assertThat(replacement.getAppointmentId()).isNotEqualTo(cancelled.getAppointmentId());
+    }
+
+    @Test
+    void overlapWithAnotherBarberIsAllowed() {
+        create(barberId, start);
+
+        AppointmentResponseDto other = create(fixtures.barber(barbershopId), start);
+
+        assertThat(other.getAppointmentId()).isNotNull();
+    }
+
+    @Test
+    void movingAnAppointmentOntoAnotherIsRejected() {
+        create(barberId, start);
+        AppointmentResponseDto later = create(barberId, start.plusHours(2));
+
+        UpdateAppointmentRequestDto request = new UpdateAppointmentRequestDto();
+        request.setAppointmentDateTime(start.plusMinutes(10));
+        request.setVersion(later.getVersion());
+
+        assertThatThrownBy(() -> appointmentService.updateAppointment(later.getAppointmentId(), request, adminToken))
+                .isInstanceOf(BusinessLogicException.class)
+                .hasMessageContaining("no está disponible");
+    }
+
+    @Test
+    void appointmentCrossingTheMonthBoundaryIsRejected() {
+        LocalDateTime nextMonthStart = start.toLocalDate().withDayOfMonth(1).plusMonths(1).atStartOfDay();
+
+        assertThatThrownBy(() -> create(barberId, nextMonthStart.minusMinutes(DURATION_MINUTES / 2)))
+                .isInstanceOf(BusinessLogicException.class)
+                .hasMessageContaining("mes");
+    }
+
+    @Test
+    void appointmentEndingExactlyAtTheMonthBoundaryIsAllowed() {
+        LocalDateTime nextMonthStart = start.toLocalDate().withDayOfMonth(1).plusMonths(1).atStartOfDay();
+
+        AppointmentResponseDto lastSlot = create(barberId, nextMonthStart.minusMinutes(DURATION_MINUTES));
+        AppointmentResponseDto firstSlot = create(barberId, nextMonthStart);
+
+        assertThat(lastSlot.getAppointmentId()).isNotNull();
+        assertThat(firstSlot.getAppointmentId()).isNotNull();
+    }
+
+    private AppointmentResponseDto create(String barber, LocalDateTime appointmentStart) {
+        CreateAppointmentRequestDto request = new CreateAppointmentRequestDto();
+        request.setBarberId(barber);
+        request.setUserId(clientId);
+        request.setServiceId(serviceId);
+        request.setAppointmentDateTime(appointmentStart);
+        request.setDurationMinutes(DURATION_MINUTES);
+        request.setPrice(new BigDecimal("10.00"));
+        return appointmentService.createAppointment(request, adminToken).getData();
+    }
+}
@@ -0,0 +1,276 @@
+package com.barbershop.features.appointment.service;
+
+import com.barbershop.common.dto.CursorPageDto;
+import com.barbershop.common.exception.BusinessLogicException;
+import com.barbershop.common.util.FieldSelection;
+import com.barbershop.features.appointment.dto.AppointmentResponseDto;
+import com.barbershop.features.appointment.dto.request.AppointmentSearchRequestDto;
+import com.barbershop.features.appointment.model.enums.AppointmentStatus;
+import com.barbershop.support.AppointmentServicePostgresTest;
+import com.barbershop.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static com.barbershop.support.SqlStatementAssertions.assertMaxStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica GET /appointments/search sobre PostgreSQL embebido: combinaciones de filtros, la restricción de
+ * barberos y clientes a sus propias citas y la continuación por cursor sin saltos ni repeticiones.
+ * Cada página se resuelve en una sola consulta con las relaciones unidas.
+ */
+class AppointmentSearchTest extends AppointmentServicePostgresTest {
+
+    // Usuario y barbero del token más la página
+    private static final int CALLER_BUDGET = 3;
+    private static final int PAGE_BUDGET = 1;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private String barbershopId;
+    private String barberA;
+    private String barberB;
+    private String clientOne;
+    private String clientTwo;
+    private String haircut;
+    private String shave;
+    private LocalDateTime start;
+
+    private String a1;
+    private String a2;
+    private String a3;
+    private String a4;
+    private String a5;
+    private String a6;
+    private String otherShop;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        barbershopId = fixtures.barbershop();
+        barberA = fixtures.barber(barbershopId);
+        barberB = fixtures.barber(barbershopId);
+        clientOne = fixtures.user("ROLE_CLIENT");
+        clientTwo = fixtures.user("ROLE_CLIENT");
+        haircut = fixtures.service(barbershopId);
+        shave = fixtures.service(barbershopId);
+        start = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+        a1 = appointment(clientOne, barberA, haircut, 0, AppointmentStatus.SCHEDULED, "10.00");
+        a2 = appointment(clientOne, barberA, shave, 1, AppointmentStatus.CONFIRMED, "25.00");
+        a3 = appointment(clientTwo, barberA, haircut, 2, AppointmentStatus.CANCELLED, "10.00");
+        // Misma hora que a1: el orden lo decide appointmentId
+        a4 = appointment(clientTwo, barberB, shave, 0, AppointmentStatus.SCHEDULED, "40.00");
+        a5 = appointment(clientOne, barberB, haircut, 3, AppointmentStatus.COMPLETED, "15.00");
+        a6 = appointment(clientTwo, barberB, haircut, 4, AppointmentStatus.SCHEDULED, "10.00");
+
+        String shopTwo = fixtures.barbershop();
+        otherShop = fixtures.appointment(clientOne, fixtures.barber(shopTwo), shopTwo, fixtures.service(shopTwo), start);
+
+        adminToken = token(fixtures.user("ROLE_ADMIN"), "ROLE_ADMIN");
+    }
+
+    @Test
+    void filtersCombineWithAnd() {
+        assertThat(ids(adminToken, f -> f.setBarberId(barberA))).containsExactly(a1, a2, a3);
+        assertThat(ids(adminToken, f -> f.setStatus(Set.of(AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED))))
+                .containsExactlyInAnyOrder(a1, a2, a4, a6);
+        assertThat(ids(adminToken, f -> {
+            f.setClientId(clientTwo);
+            f.setServiceId(haircut);
+        })).containsExactly(a3, a6);
+        assertThat(ids(adminToken, f -> {
+            f.setBarberId(barberB);
+            f.setStatus(Set.of(AppointmentStatus.SCHEDULED));
+        })).containsExactly(a4, a6);
+        assertThat(ids(adminToken, f -> {
+            f.setMinPrice(new BigDecimal("15.00"));
+            f.setMaxPrice(new BigDecimal("25.00"));
+        })).containsExactly(a2, a5);
+    }
+
+    @Test
+    void dateRangeIsHalfOpen() {
+        assertThat(ids(adminToken, f -> {
+            f.setFrom(start.plusHours(1));
+            f.setTo(start.plusHours(3));
+        })).containsExactly(a2, a3);
+        assertThat(ids(adminToken, f -> f.setFrom(start.plusHours(3)))).containsExactly(a5, a6);
+    }
+
+    @Test
+    void barbershopFilterExcludesOtherShops() {
+        AppointmentSearchRequestDto filter = new AppointmentSearchRequestDto();
+        filter.setClientId(clientOne);
+
+        assertThat(search(filter, adminToken, PAGE_BUDGET).getContent())
+                .extracting(AppointmentResponseDto::getAppointmentId)
+                .containsExactlyInAnyOrder(a1, a2, a5, otherShop);
+        assertThat(ids(adminToken, f -> f.setClientId(clientOne))).containsExactly(a1, a2, a5);
+    }
+
+    @Test
+    void invalidRangesAreRejected() {
+        AppointmentSearchRequestDto dates = filter();
+        dates.setFrom(start.plusHours(2));
+        dates.setTo(start.plusHours(2));
+        AppointmentSearchRequestDto prices = filter();
+        prices.setMinPrice(new BigDecimal("30.00"));
+        prices.setMaxPrice(new BigDecimal("20.00"));
+
+        assertThatThrownBy(() -> search(dates, adminToken, 0)).isInstanceOf(BusinessLogicException.class);
+        assertThatThrownBy(() -> search(prices, adminToken, 0)).isInstanceOf(BusinessLogicException.class);
+    }
+
+    @Test
+    void barberSeesOnlyOwnAppointments() {
+        String token = barberToken(barberA);
+
+        assertThat(ids(token, CALLER_BUDGET, f -> { })).containsExactly(a1, a2, a3);
+        // Un filtro de cliente se combina con el barbero fijado, no lo reemplaza
+        assertThat(ids(token, CALLER_BUDGET, f -> f.setClientId(clientTwo))).containsExactly(a3);
+        assertThat(ids(token, CALLER_BUDGET, f -> f.setBarberId(barberA))).containsExactly(a1, a2, a3);
+
+        AppointmentSearchRequestDto otherBarber = filter();
+        otherBarber.setBarberId(barberB);
+        assertThatThrownBy(() -> search(otherBarber, token, CALLER_BUDGET))
+                .isInstanceOf(AccessDeniedException.class)
+                .hasMessageContaining("barbero");
+    }
+
+    @Test
+    void clientSeesOnlyOwnAppointments() {
+        String token = token(clientOne, "ROLE_CLIENT");
+
+        assertThat(ids(token, CALLER_BUDGET, f -> { })).containsExactly(a1, a2, a5);
+        assertThat(ids(token, CALLER_BUDGET, f -> f.setBarberId(barberB))).containsExactly(a5);
+
+        AppointmentSearchRequestDto otherClient = filter();
+        otherClient.setClientId(clientTwo);
+        assertThatThrownBy(() -> search(otherClient, token, CALLER_BUDGET))
+                .isInstanceOf(AccessDeniedException.class)
+                .hasMessageContaining("cliente");
+    }
+
+    @Test
+    void otherRolesAreDenied() {
+        // El rol del token no es de barbero, cliente ni administrador
+        String token = token(fixtures.user("ROLE_CLIENT"), "ROLE_GUEST");
+
+        assertThatThrownBy(() -> search(filter(), token, CALLER_BUDGET)).isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void cursorWalksEveryAppointmentOnceInBothDirections() {
+        List<String> ascending = walk("asc", 2, f -> { });
+        List<String> descending = walk("desc", 2, f -> { });
+
+        List<String> expected = new ArrayList<>(sameStart());
+        expected.addAll(List.of(a2, a3, a5, a6));
+        assertThat(ascending).containsExactlyElementsOf(expected);
+        assertThat(descending).containsExactlyElementsOf(expected.reversed());
+    }
+
+    @Test
+    void cursorKeepsFiltersAcrossPages() {
+        assertThat(walk("asc", 1, f -> f.setBarberId(barberA))).containsExactly(a1, a2, a3);
+        List<String> expected = new ArrayList<>(List.of(a6));
+        expected.addAll(sameStart().reversed());
+        assertThat(walk("desc", 1, f -> f.setStatus(Set.of(AppointmentStatus.SCHEDULED))))
+                .containsExactlyElementsOf(expected);
+    }
+
+    /**
+     * a1 y a4 empiezan a la misma hora: el keyset los ordena por appointmentId, que en texto sigue el orden de uuid
+     */
+    private List<String> sameStart() {
+        return List.of(a1, a4).stream().sorted(Comparator.naturalOrder()).toList();
+    }
+
+    /**
+     * Recorre todas las páginas siguiendo nextCursor con el mismo filtro
+     */
+    private List<String> walk(String sortDir, int size, Consumer<AppointmentSearchRequestDto> criteria) {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        CursorPageDto<AppointmentResponseDto> page;
+        do {
+            AppointmentSearchRequestDto filter = filter();
+            criteria.accept(filter);
+            filter.setSortDir(sortDir);
+            filter.setSize(size);
+            filter.setCursor(cursor);
+            page = search(filter, adminToken, PAGE_BUDGET);
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(size);
+            page.getContent().forEach(dto -> seen.add(dto.getAppointmentId()));
+            cursor = page.getNextCursor();
+            assertThat(++pages).as("páginas").isLessThanOrEqualTo(10);
+        } while (page.isHasNext());
+        return seen;
+    }
+
+    private List<String> ids(String token, Consumer<AppointmentSearchRequestDto> criteria) {
+        return ids(token, PAGE_BUDGET, criteria);
+    }
+
+    private List<String> ids(String token, int maxStatements, Consumer<AppointmentSearchRequestDto> criteria) {
+        AppointmentSearchRequestDto filter = filter();
+        criteria.accept(filter);
+        return search(filter, token, maxStatements).getContent().stream()
+                .map(AppointmentResponseDto::getAppointmentId)
+                .toList();
+    }
+
+    private CursorPageDto<AppointmentResponseDto> search(AppointmentSearchRequestDto filter, String token, int maxStatements) {
+        return assertMaxStatements(maxStatements, () -> {
+            clearCaches();
+            return appointmentService.searchAppointments(filter, FieldSelection.all(), token).getData();
+        });
+    }
+
+    private AppointmentSearchRequestDto filter() {
+        AppointmentSearchRequestDto filter = new AppointmentSearchRequestDto();
+        filter.setBarbershopId(barbershopId);
+        return filter;
+    }
+
+    private String barberToken(String barberId) {
+        String userId = fixtures.jdbc().queryForObject(
+                "SELECT CAST(user_id AS varchar) FROM barbers WHERE barber_id = CAST(? AS uuid)", String.class, barberId);
+        return token(userId, "ROLE_BARBER");
+    }
+
+    private String appointment(String clientId, String barberId, String serviceId, int hour, AppointmentStatus status, String price) {
+        String appointmentId = fixtures.appointment(clientId, barberId, barbershopId, serviceId, start.plusHours(hour));
+        fixtures.jdbc().update("UPDATE appointments SET status = ?, price_at_booking = ? WHERE appointment_id = CAST(? AS uuid)",
+                status.name(), new BigDecimal(price), appointmentId);
+        return appointmentId;
+    }
+
+    // Sin entidades en la sesión ni en la caché de segundo nivel, toda carga llega a la base de datos
+    private void clearCaches() {
+        entityManager.flush();
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+    }
+}
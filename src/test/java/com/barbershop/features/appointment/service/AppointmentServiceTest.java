@@ -0,0 +1,113 @@
+package com.barbershop.features.appointment.service;
+
+import com.barbershop.common.service.EmailService;
+import com.barbershop.common.service.StreamingExportService;
+import com.barbershop.features.appointment.dto.AppointmentResponseDto;
+import com.barbershop.features.appointment.dto.request.UpdateAppointmentRequestDto;
+import com.barbershop.features.appointment.mapper.AppointmentMapper;
+import com.barbershop.features.appointment.model.Appointment;
+import com.barbershop.features.appointment.model.enums.AppointmentStatus;
+import com.barbershop.features.appointment.repository.AppointmentRepository;
+import com.barbershop.features.auth.security.JwtService;
+import com.barbershop.features.barber.repository.BarberAvailabilityRepository;
+import com.barbershop.features.barber.repository.BarberRepository;
+import com.barbershop.features.barbershop.repository.BarbershopOperatingHoursRepository;
+import com.barbershop.features.barbershop.repository.BarbershopRepository;
+import com.barbershop.features.payment.repository.PaymentRepository;
+import com.barbershop.features.payment.service.PaymentAggregateService;
+import com.barbershop.features.service.repository.ServiceRepository;
+import com.barbershop.features.user.model.User;
+import com.barbershop.features.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifica que la actualización de una cita se rechace si se calculó sobre una versión que ya no es la actual.
+ */
+class AppointmentServiceTest {
+
+    private static final String APPOINTMENT_ID = "appointment-1";
+    private static final String TOKEN = "token";
+
+    private AppointmentRepository appointmentRepository;
+    private AppointmentMapper appointmentMapper;
+    private AppointmentService service;
+    private Appointment appointment;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository = mock(AppointmentRepository.class);
+        appointmentMapper = mock(AppointmentMapper.class);
+        JwtService jwtService = mock(JwtService.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        service = new AppointmentService(appointmentRepository, appointmentMapper, jwtService, userRepository,
+                mock(BarberRepository.class), mock(ServiceRepository.class), mock(BarbershopRepository.class),
+                mock(BarbershopOperatingHoursRepository.class), mock(BarberAvailabilityRepository.class),
+                mock(PaymentRepository.class), mock(PaymentAggregateService.class), mock(EmailService.class), mock(StreamingExportService.class));
+
+        appointment = new Appointment();
+        appointment.setAppointmentId(APPOINTMENT_ID);
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setAppointmentDatetimeStart(LocalDateTime.now().plusDays(1));
+        appointment.setAppointmentDatetimeEnd(LocalDateTime.now().plusDays(1).plusMinutes(30));
+        appointment.setVersion(3L);
+
+        when(appointmentRepository.findById(APPOINTMENT_ID)).thenReturn(Optional.of(appointment));
+        when(jwtService.extractRole(TOKEN)).thenReturn("ROLE_ADMIN");
+        when(jwtService.getUsernameFromToken(TOKEN)).thenReturn("admin@barbershop.com");
+        when(userRepository.findByEmail("admin@barbershop.com"))
+                .thenReturn(Optional.of(User.builder().userId("admin-1").build()));
+    }
+
+    @Test
+    void updateWithStaleVersionIsRejectedWithoutWriting() {
+        UpdateAppointmentRequestDto request = new UpdateAppointmentRequestDto();
+        request.setNotes("Cambio calculado sobre la versión 2");
+        request.setVersion(2L);
+
+        assertThatThrownBy(() -> service.updateAppointment(APPOINTMENT_ID, request, TOKEN))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        verify(appointmentMapper, never()).updateEntity(any(), any());
+        verify(appointmentRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void updateWithCurrentVersionIsApplied() {
+        UpdateAppointmentRequestDto request = new UpdateAppointmentRequestDto();
+        request.setNotes("Cambio calculado sobre la versión 3");
+        request.setVersion(3L);
+        when(appointmentRepository.saveAndFlush(appointment)).thenReturn(appointment);
+        when(appointmentMapper.toResponseDto(appointment)).thenReturn(new AppointmentResponseDto());
+
+        assertThat(service.updateAppointment(APPOINTMENT_ID, request, TOKEN).getData()).isNotNull();
+
+        verify(appointmentMapper).updateEntity(appointment, request);
+        verify(appointmentRepository).saveAndFlush(appointment);
+    }
+
+    @Test
+    void updateWithoutVersionIsAppliedAsLastWrite() {
+        UpdateAppointmentRequestDto request = new UpdateAppointmentRequestDto();
+        request.setNotes("Cliente anterior que no envía la versión");
+        when(appointmentRepository.saveAndFlush(appointment)).thenReturn(appointment);
+        when(appointmentMapper.toResponseDto(appointment)).thenReturn(new AppointmentResponseDto());
+
+        assertThat(service.updateAppointment(APPOINTMENT_ID, request, TOKEN).getData()).isNotNull();
+
+        verify(appointmentMapper).updateEntity(appointment, request);
+        verify(appointmentRepository).saveAndFlush(appointment);
+    }
+}
@@ -0,0 +1,126 @@
+package com.barbershop.features.auth.controller;
+
+import com.barbershop.config.FieldSelectionConfig;
+import com.barbershop.config.SqlStatementBudgetFilter;
+import com.barbershop.features.auth.config.AuthProperties;
+import com.barbershop.features.auth.dto.CheckAuthResponseDto;
+import com.barbershop.features.auth.security.JwtAuthenticationFilter;
+import com.barbershop.features.auth.service.AuthService;
+import com.barbershop.features.auth.service.CheckAuthCache;
+import com.barbershop.features.auth.service.TokenCleanupService;
+import com.barbershop.features.user.model.enums.RoleEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifica el ETag de GET /auth/check-auth con la caché real: 304 sin cuerpo mientras la sesión no cambia,
+ * y 200 con un ETag nuevo tras invalidar los datos del usuario o cambiar la versión de token.
+ */
+@WebMvcTest(controllers = AuthController.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                classes = {JwtAuthenticationFilter.class, SqlStatementBudgetFilter.class}))
+@AutoConfigureMockMvc(addFilters = false)
+@Import(FieldSelectionConfig.class)
+@TestPropertySource(properties = "server.port=0")
+class AuthControllerCheckAuthTest {
+
+    private static final String URL = "/api/v1/auth/check-auth";
+    private static final String USER_ID = "user-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AuthService authService;
+
+    @MockitoBean
+    private TokenCleanupService tokenCleanupService;
+
+    private final CheckAuthCache cache = new CheckAuthCache(new AuthProperties());
+    private CheckAuthResponseDto current;
+    private long tokenVersion;
+
+    @BeforeEach
+    void setUp() {
+        current = response("ana@example.com");
+        tokenVersion = System.currentTimeMillis();
+        when(authService.checkAuth("token")).thenAnswer(invocation -> cache.get(USER_ID, tokenVersion, () -> current));
+    }
+
+    @Test
+    void unchangedSessionAnswersNotModified() throws Exception {
+        String etag = checkAuth(null);
+
+        mockMvc.perform(get(URL).header("Authorization", "Bearer token").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void invalidatedUserGetsFreshResponse() throws Exception {
+        String etag = checkAuth(null);
+
+        current = response("ana@example.org");
+        cache.invalidate(USER_ID);
+
+        String refreshed = checkAuth(etag);
+        assertThat(refreshed).isNotEqualTo(etag);
+        mockMvc.perform(get(URL).header("Authorization", "Bearer token").header(HttpHeaders.IF_NONE_MATCH, refreshed))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void newTokenVersionGetsFreshResponse() throws Exception {
+        String etag = checkAuth(null);
+
+        // Solo cambian los 32 bits altos de la versión
+        tokenVersion += 1L << 40;
+
+        assertThat(checkAuth(etag)).isNotEqualTo(etag);
+    }
+
+    /**
+     * Llama a check-auth esperando un 200 con la respuesta actual
+     * @return ETag de la respuesta
+     */
+    private String checkAuth(String ifNoneMatch) throws Exception {
+        var request = get(URL).header("Authorization", "Bearer token");
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.email").value(current.getEmail()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private static CheckAuthResponseDto response(String email) {
+        return CheckAuthResponseDto.builder()
+                .userId(USER_ID)
+                .email(email)
+                .role(RoleEnum.ROLE_CLIENT)
+                .fullName("Ana Pérez")
+                .isActive(true)
+                .isTokenValid(true)
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.barbershop.features.auth.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que SecurityConfig (permitAllMatcher) y JwtAuthenticationFilter (isPublic) resuelvan igual
+ * cada ruta registrada, y que el trie compilado coincida con la lista declarada de políticas.
+ */
+class RoutePolicyRegistryTest {
+
+    private static final List<String> METHODS = List.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS");
+
+    // Rutas protegidas y casi coincidencias que no deben resolverse como públicas
+    private static final List<String> PROTECTED_PATHS = List.of(
+            "/api/v1/appointments/all",
+            "/api/v1/appointments/search",
+            "/api/v1/appointments/status/batch",
+            "/api/v1/payments",
+            "/api/v1/auth/change-password",
+            "/api/v1/auth/sign-in/extra",
+            "/api/v1/barbers/deleted",
+            "/api/v1/barbersx",
+            "/api/v1/health/details",
+            "/v3/api-docsx",
+            "/");
+
+    private final RoutePolicyRegistry registry = new RoutePolicyRegistry();
+
+    @Test
+    void permitAllMatcherAndFilterAgreeForEveryRegisteredRoute() {
+        RequestMatcher permitAll = registry.permitAllMatcher();
+
+        for (String path : candidatePaths()) {
+            for (String method : METHODS) {
+                MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+                RouteAccess expected = expectedAccess(method, path);
+
+                assertThat(registry.resolve(method, path))
+                        .as("resolve %s %s", method, path)
+                        .isEqualTo(expected);
+                assertThat(permitAll.matches(request))
+                        .as("permitAllMatcher %s %s", method, path)
+                        .isEqualTo(expected != null);
+                assertThat(registry.isPublic(request))
+                        .as("isPublic %s %s", method, path)
+                        .isEqualTo(expected == RouteAccess.PUBLIC);
+            }
+        }
+    }
+
+    @Test
+    void everyPolicyIsReachable() {
+        for (RoutePolicyRegistry.RoutePolicy policy : registry.getPolicies()) {
+            String method = policy.method() != null ? policy.method().name() : HttpMethod.GET.name();
+            assertThat(registry.resolve(method, concretePath(policy.pattern())))
+                    .as("%s %s", method, policy.pattern())
+                    .isEqualTo(policy.access());
+        }
+    }
+
+    @Test
+    void protectedRoutesRequireAuthentication() {
+        RequestMatcher permitAll = registry.permitAllMatcher();
+
+        for (String path : PROTECTED_PATHS) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+            assertThat(permitAll.matches(request)).as(path).isFalse();
+            assertThat(registry.isPublic(request)).as(path).isFalse();
+        }
+    }
+
+    private Set<String> candidatePaths() {
+        Set<String> paths = new LinkedHashSet<>(PROTECTED_PATHS);
+        for (RoutePolicyRegistry.RoutePolicy policy : registry.getPolicies()) {
+            paths.add(concretePath(policy.pattern()));
+            if (policy.pattern().endsWith("/**")) {
+                paths.add(policy.pattern().substring(0, policy.pattern().length() - 3) + "/a/b");
+            }
+        }
+        return paths;
+    }
+
+    private static String concretePath(String pattern) {
+        return pattern.endsWith("/**") ? pattern.substring(0, pattern.length() - 3) : pattern;
+    }
+
+    /**
+     * Resolución de referencia sobre la lista declarada con PathPattern de Spring:
+     * la coincidencia exacta tiene prioridad sobre un prefijo "/**"
+     */
+    private RouteAccess expectedAccess(String method, String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        RouteAccess prefixMatch = null;
+        for (RoutePolicyRegistry.RoutePolicy policy : registry.getPolicies()) {
+            if (policy.method() != null && !policy.method().name().equals(method)) {
+                continue;
+            }
+            if (!PathPatternParser.defaultInstance.parse(policy.pattern()).matches(container)) {
+                continue;
+            }
+            if (!policy.pattern().endsWith("/**")) {
+                return policy.access();
+            }
+            if (prefixMatch == null) {
+                prefixMatch = policy.access();
+            }
+        }
+        return prefixMatch;
+    }
+}
@@ -0,0 +1,126 @@
+package com.barbershop.features.auth.service;
+
+import com.barbershop.features.auth.config.AuthProperties;
+import com.barbershop.features.auth.dto.CheckAuthResponseDto;
+import com.barbershop.features.user.model.enums.RoleEnum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que el ETag de check-auth cambie con cualquier diferencia de versión de token o de respuesta
+ * y que la caché se recargue tras una invalidación o un cambio de versión.
+ */
+class CheckAuthCacheTest {
+
+    private static final String USER_ID = "user-1";
+
+    private CheckAuthCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+    private CheckAuthResponseDto current;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CheckAuthCache(new AuthProperties());
+        current = response("ana@example.com", RoleEnum.ROLE_CLIENT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void etagDependsOnEveryBitOfTheTokenVersion() {
+        long version = System.currentTimeMillis();
+
+        // Versiones que solo difieren en los 32 bits altos
+        assertThat(CheckAuthCache.buildEtag(version, current))
+                .isNotEqualTo(CheckAuthCache.buildEtag(version + (1L << 40), current));
+        assertThat(CheckAuthCache.buildEtag(0L, current))
+                .isNotEqualTo(CheckAuthCache.buildEtag(1L << 32, current));
+    }
+
+    @Test
+    void etagDependsOnTheResponse() {
+        long version = 7L;
+        String etag = CheckAuthCache.buildEtag(version, current);
+
+        assertThat(CheckAuthCache.buildEtag(version, response("ana@example.com", RoleEnum.ROLE_CLIENT))).isEqualTo(etag);
+        assertThat(CheckAuthCache.buildEtag(version, response("ana@example.org", RoleEnum.ROLE_CLIENT))).isNotEqualTo(etag);
+        assertThat(CheckAuthCache.buildEtag(version, response("ana@example.com", RoleEnum.ROLE_BARBER))).isNotEqualTo(etag);
+        assertThat(etag).matches("\"[0-9a-f]{64}\"");
+    }
+
+    @Test
+    void sameVersionIsServedFromCache() {
+        CheckAuthCache.Entry first = cache.get(USER_ID, 7L, loader());
+        CheckAuthCache.Entry second = cache.get(USER_ID, 7L, loader());
+
+        assertThat(loads).hasValue(1);
+        assertThat(second.etag()).isEqualTo(first.etag());
+    }
+
+    @Test
+    void newTokenVersionReloads() {
+        CheckAuthCache.Entry first = cache.get(USER_ID, 7L, loader());
+        CheckAuthCache.Entry second = cache.get(USER_ID, 8L, loader());
+
+        assertThat(loads).hasValue(2);
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+    }
+
+    @Test
+    void invalidationReloadsChangedData() {
+        CheckAuthCache.Entry first = cache.get(USER_ID, 7L, loader());
+        current = response("ana@example.org", RoleEnum.ROLE_CLIENT);
+
+        cache.invalidate(USER_ID);
+        CheckAuthCache.Entry second = cache.get(USER_ID, 7L, loader());
+
+        assertThat(loads).hasValue(2);
+        assertThat(second.response().getEmail()).isEqualTo("ana@example.org");
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+    }
+
+    @Test
+    void invalidationInsideTransactionAppliesAfterCommit() {
+        cache.get(USER_ID, 7L, loader());
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidate(USER_ID);
+        cache.get(USER_ID, 7L, loader());
+        assertThat(loads).hasValue(1);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        cache.get(USER_ID, 7L, loader());
+        assertThat(loads).hasValue(2);
+    }
+
+    private Supplier<CheckAuthResponseDto> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return current;
+        };
+    }
+
+    private static CheckAuthResponseDto response(String email, RoleEnum role) {
+        return CheckAuthResponseDto.builder()
+                .userId(USER_ID)
+                .email(email)
+                .role(role)
+                .fullName("Ana Pérez")
+                .isActive(true)
+                .isTokenValid(true)
+                .build();
+    }
+}
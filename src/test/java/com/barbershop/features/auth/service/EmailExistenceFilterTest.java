@@ -0,0 +1,68 @@
+package com.barbershop.features.auth.service;
+
+import com.barbershop.features.auth.config.AuthProperties;
+import com.barbershop.features.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifica que las eliminaciones solo marquen el filtro como desactualizado y que la reconstrucción
+ * quede a cargo de la tarea programada, no de la petición que elimina el email.
+ */
+class EmailExistenceFilterTest {
+
+    private static final int REBUILD_AFTER_REMOVALS = 3;
+
+    private UserRepository userRepository;
+    private EmailExistenceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        AuthProperties properties = new AuthProperties();
+        properties.getEmailFilter().setExpectedInsertions(1_000);
+        properties.getEmailFilter().setRebuildAfterRemovals(REBUILD_AFTER_REMOVALS);
+        when(userRepository.countActiveEmails()).thenReturn(2L);
+        when(userRepository.findAllActiveEmails()).thenReturn(List.of("ana@example.com", "luis@example.com"));
+
+        filter = new EmailExistenceFilter(userRepository, properties);
+        filter.warmUp();
+        clearInvocations(userRepository);
+    }
+
+    @Test
+    void removalsPastThresholdMarkStaleWithoutRebuilding() {
+        for (int i = 0; i < REBUILD_AFTER_REMOVALS * 2; i++) {
+            filter.remove("ana@example.com");
+        }
+
+        assertThat(filter.isStale()).isTrue();
+        verifyNoInteractions(userRepository);
+        assertThat(filter.mightExist("ana@example.com")).isTrue();
+    }
+
+    @Test
+    void scheduledCheckRebuildsOnlyWhenStale() {
+        filter.rebuildIfStale();
+        verifyNoInteractions(userRepository);
+
+        when(userRepository.findAllActiveEmails()).thenReturn(List.of("luis@example.com"));
+        for (int i = 0; i < REBUILD_AFTER_REMOVALS; i++) {
+            filter.remove("ana@example.com");
+        }
+        filter.rebuildIfStale();
+
+        verify(userRepository).findAllActiveEmails();
+        assertThat(filter.isStale()).isFalse();
+        assertThat(filter.mightExist("luis@example.com")).isTrue();
+    }
+}
@@ -0,0 +1,94 @@
+package com.barbershop.features.auth.service;
+
+import com.barbershop.features.auth.config.AuthProperties;
+import com.barbershop.features.auth.model.TokenRevocation;
+import com.barbershop.features.auth.repository.TokenRevocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifica la depuración de revocaciones expiradas y que las versiones emitidas tras ella sigan revocando los tokens vigentes.
+ */
+class TokenRevocationServiceTest {
+
+    private static final long ACCESS_LIFETIME = 3_600_000L;
+    private static final long REFRESH_LIFETIME = 604_800_000L;
+
+    private TokenRevocationRepository repository;
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TokenRevocationRepository.class);
+        AuthProperties properties = new AuthProperties();
+        properties.getJwt().setExpirationTime(ACCESS_LIFETIME);
+        properties.getRefreshToken().setExpirationTime(REFRESH_LIFETIME);
+        service = new TokenRevocationService(repository, properties);
+    }
+
+    @Test
+    void syncDeletesRevocationsOlderThanTheLongestTokenLifetime() {
+        LocalDateTime now = LocalDateTime.now();
+        when(repository.findAll()).thenReturn(List.of(
+                revocation("expired", 3L, now.minusDays(8)),
+                revocation("recent", 5L, now.minusDays(6))));
+        service.loadRevocations();
+
+        service.syncRevocations();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).deleteRevokedBefore(cutoff.capture());
+        assertThat(cutoff.getValue()).isBetween(now.minusDays(7).minusMinutes(1), now.minusDays(7).plusMinutes(1));
+        assertThat(service.getCurrentVersion("expired")).isZero();
+        assertThat(service.getCurrentVersion("recent")).isEqualTo(5L);
+        assertThat(service.isRevoked("recent", 4L)).isTrue();
+    }
+
+    @Test
+    void revocationAfterPruneStillRevokesTokensIssuedWithTheOldVersion() {
+        when(repository.findAll()).thenReturn(List.of(revocation("user", 3L, LocalDateTime.now().minusDays(8))));
+        service.loadRevocations();
+        service.syncRevocations();
+        when(repository.findById("user")).thenReturn(Optional.empty());
+
+        service.revokeAll("user", "PASSWORD_CHANGED");
+
+        ArgumentCaptor<TokenRevocation> saved = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().getTokenVersion()).isGreaterThan(3L);
+        assertThat(service.isRevoked("user", 3L)).isTrue();
+        assertThat(service.isRevoked("user", service.getCurrentVersion("user"))).isFalse();
+    }
+
+    @Test
+    void revocationVersionsNeverDecrease() {
+        when(repository.findById(any())).thenReturn(Optional.empty());
+
+        service.revokeAll("user", "LOGOUT_ALL");
+        long first = service.getCurrentVersion("user");
+        service.revokeAll("user", "LOGOUT_ALL");
+
+        assertThat(service.getCurrentVersion("user")).isGreaterThan(first);
+        assertThat(service.isRevoked("user", first)).isTrue();
+    }
+
+    private static TokenRevocation revocation(String userId, long version, LocalDateTime revokedAt) {
+        return TokenRevocation.builder()
+                .userId(userId)
+                .tokenVersion(version)
+                .reason("TEST")
+                .revokedAt(revokedAt)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.barbershop.features.payment.repository;
+
+import com.barbershop.features.appointment.mapper.AppointmentMapperImpl;
+import com.barbershop.features.barber.mapper.BarberMapperImpl;
+import com.barbershop.features.payment.dto.PaymentResponseDto;
+import com.barbershop.features.payment.mapper.PaymentMapper;
+import com.barbershop.features.payment.mapper.PaymentMapperImpl;
+import com.barbershop.features.payment.model.Payment;
+import com.barbershop.features.service.mapper.ServiceMapperImpl;
+import com.barbershop.features.user.mapper.UserMapperImpl;
+import com.barbershop.support.PostgresRepositoryTest;
+import com.barbershop.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.barbershop.support.SqlStatementAssertions.assertMaxStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Acota las sentencias SQL de la lectura por cursor de pagos mapeada a PaymentResponseDto.
+ */
+@Import({PaymentMapperImpl.class, AppointmentMapperImpl.class, BarberMapperImpl.class, UserMapperImpl.class, ServiceMapperImpl.class})
+class PaymentRepositoryTest extends PostgresRepositoryTest {
+
+    private static final int PAYMENTS = 6;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentMapper paymentMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        String barbershopId = fixtures.barbershop();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < PAYMENTS; i++) {
+            String clientId = fixtures.user("ROLE_CLIENT");
+            String barberId = fixtures.barber(barbershopId);
+            String appointmentId = fixtures.appointment(clientId, barberId, barbershopId, fixtures.service(barbershopId), start.plusHours(i));
+            fixtures.payment(appointmentId, clientId, barberId, barbershopId, BigDecimal.TEN);
+        }
+    }
+
+    @Test
+    void cursorPageLoadsAppointmentDetailsInOneQuery() {
+        Specification<Payment> all = (root, query, cb) -> cb.conjunction();
+
+        List<PaymentResponseDto> page = assertMaxStatements(1, () -> {
+            entityManager.clear();
+            entityManager.getEntityManagerFactory().getCache().evictAll();
+            return paymentRepository.findBy(all.and(PaymentSpecifications.fetchAppointmentDetails()), query -> query
+                            .sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "paymentId"))
+                            .limit(PAYMENTS * 2)
+                            .scroll(ScrollPosition.keyset()))
+                    .getContent().stream()
+                    .map(paymentMapper::toResponseDto)
+                    .toList();
+        });
+
+        assertThat(page).hasSize(PAYMENTS).allSatisfy(dto -> {
+            assertThat(dto.getAppointment()).isNotNull();
+            assertThat(dto.getAppointment().getUser()).isNotNull();
+            assertThat(dto.getAppointment().getBarber()).isNotNull();
+            assertThat(dto.getAppointment().getService()).isNotNull();
+        });
+    }
+}
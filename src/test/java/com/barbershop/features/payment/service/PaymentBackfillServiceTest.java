@@ -0,0 +1,94 @@
+package com.barbershop.features.payment.service;
+
+import com.barbershop.support.PostgresRepositoryTest;
+import com.barbershop.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que el backfill recorra los pagos por payment_id sin detenerse en pagos cuya cita no existe.
+ */
+@Import(PaymentBackfillService.class)
+class PaymentBackfillServiceTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private PaymentBackfillService paymentBackfillService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private String clientId;
+    private String barberId;
+    private String barbershopId;
+    private String serviceId;
+    private int appointments;
+
+    @BeforeEach
+    void setUp() {
+        barbershopId = fixtures.barbershop();
+        barberId = fixtures.barber(barbershopId);
+        serviceId = fixtures.service(barbershopId);
+        clientId = fixtures.user("ROLE_CLIENT");
+    }
+
+    @Test
+    void orphanPaymentsDoNotStopTheBackfill() {
+        // El pago huérfano ordena primero y cada bloque revisa un solo pago
+        String orphan = fixtures.legacyPayment("00000000-0000-0000-0000-000000000001", UUID.randomUUID().toString(), BigDecimal.TEN);
+        String first = fixtures.legacyPayment("00000000-0000-0000-0000-000000000002", appointment(), BigDecimal.TEN);
+        String second = fixtures.legacyPayment("00000000-0000-0000-0000-000000000003", appointment(), BigDecimal.ONE);
+
+        List<PaymentBackfillService.Chunk> chunks = runBackfill(1);
+
+        assertThat(chunks).extracting(PaymentBackfillService.Chunk::updated).containsExactly(0, 1, 1);
+        assertThat(clientOf(first)).isEqualTo(clientId);
+        assertThat(clientOf(second)).isEqualTo(clientId);
+        assertThat(barberOf(second)).isEqualTo(barberId);
+        assertThat(clientOf(orphan)).isNull();
+    }
+
+    @Test
+    void nothingPendingOnceEveryPaymentIsFilled() {
+        fixtures.legacyPayment(UUID.randomUUID().toString(), appointment(), BigDecimal.TEN);
+        assertThat(paymentBackfillService.hasPendingPayments()).isTrue();
+
+        runBackfill(1000);
+
+        assertThat(paymentBackfillService.hasPendingPayments()).isFalse();
+    }
+
+    private List<PaymentBackfillService.Chunk> runBackfill(int chunkSize) {
+        List<PaymentBackfillService.Chunk> chunks = new ArrayList<>();
+        String lastPaymentId = PaymentBackfillService.FIRST_PAYMENT_ID;
+        PaymentBackfillService.Chunk chunk;
+        while ((chunk = paymentBackfillService.backfillChunk(lastPaymentId, chunkSize)).lastPaymentId() != null) {
+            chunks.add(chunk);
+            lastPaymentId = chunk.lastPaymentId();
+        }
+        return chunks;
+    }
+
+    private String appointment() {
+        return fixtures.appointment(clientId, barberId, barbershopId, serviceId, LocalDateTime.now().plusDays(1).plusHours(appointments++));
+    }
+
+    private String clientOf(String paymentId) {
+        return fixtures.jdbc().queryForObject("SELECT CAST(client_id AS varchar) FROM payments WHERE payment_id = CAST(? AS uuid)",
+                String.class, paymentId);
+    }
+
+    private String barberOf(String paymentId) {
+        return fixtures.jdbc().queryForObject("SELECT CAST(barber_id AS varchar) FROM payments WHERE payment_id = CAST(? AS uuid)",
+                String.class, paymentId);
+    }
+}
@@ -0,0 +1,129 @@
+package com.barbershop.features.user.repository;
+
+import com.barbershop.common.util.SqlStatementCounter;
+import com.barbershop.features.user.model.User;
+import com.barbershop.support.PostgresRepositoryTest;
+import com.barbershop.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica sobre PostgreSQL embebido la caché de segundo nivel de usuarios (regiones user y user-email):
+ * una lectura repetida por id o por email no emite SQL, un cambio de email deja de resolver el email anterior
+ * y una escritura invalida la entrada. Cada paso corre en su propia transacción confirmada, como en la aplicación,
+ * así que el usuario se borra y la caché se vacía al terminar.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserSecondLevelCacheTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private TransactionTemplate transaction;
+    private String userId;
+    private String email;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        transaction = new TransactionTemplate(transactionManager);
+        userId = fixtures.user("ROLE_CLIENT");
+        email = userId + "@test.local";
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.jdbc().update("DELETE FROM users WHERE user_id = CAST(? AS uuid)", userId);
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void repeatedLookupsByIdAndEmailIssueNoSql() {
+        // Primera lectura en otra transacción: carga la entidad y la resolución email -> id
+        assertThat(statements(() -> userRepository.findById(userId))).isPositive();
+
+        assertThat(statements(() -> userRepository.findById(userId))).isZero();
+        assertThat(statements(() -> userRepository.findByEmail(email))).isZero();
+        assertThat(read(() -> userRepository.findByEmail(email))).get()
+                .extracting(User::getUserId).isEqualTo(userId);
+    }
+
+    @Test
+    void emailChangeStopsResolvingThePreviousEmail() {
+        String newEmail = "nuevo-" + email;
+        assertThat(read(() -> userRepository.findByEmail(email))).isPresent();
+
+        write(() -> userRepository.findById(userId).orElseThrow().setEmail(newEmail));
+
+        // La resolución del email anterior se desalojó: la búsqueda va a la BD y no encuentra a nadie
+        assertThat(statements(() -> userRepository.findByEmail(email))).isPositive();
+        assertThat(read(() -> userRepository.findByEmail(email))).isEmpty();
+        assertThat(read(() -> userRepository.findByEmail(newEmail))).get()
+                .extracting(User::getUserId).isEqualTo(userId);
+    }
+
+    @Test
+    void writesInvalidateTheCachedUser() {
+        assertThat(read(() -> userRepository.findByEmail(email))).isPresent();
+
+        write(() -> userRepository.findById(userId).orElseThrow().setFirstName("Cambiado"));
+        assertThat(read(() -> userRepository.findById(userId))).get()
+                .extracting(User::getFirstName).isEqualTo("Cambiado");
+
+        // Una actualización masiva no pasa por la entidad: debe desalojarla para que la siguiente lectura vaya a la BD
+        write(() -> userRepository.softDeleteById(userId, LocalDateTime.now()));
+
+        assertThat(statements(() -> userRepository.findById(userId))).isPositive();
+        assertThat(read(() -> userRepository.findById(userId))).get()
+                .extracting(User::getIsDeleted).isEqualTo(true);
+        assertThat(read(() -> userRepository.findByEmail(email))).isEmpty();
+    }
+
+    /**
+     * Lee en una transacción propia, como una petición de la aplicación
+     */
+    private Optional<User> read(Supplier<Optional<User>> call) {
+        return transaction.execute(status -> call.get());
+    }
+
+    private void write(Runnable call) {
+        transaction.executeWithoutResult(status -> call.run());
+    }
+
+    /**
+     * Lee en una transacción propia
+     * @return Sentencias SQL emitidas por la lectura
+     */
+    private int statements(Supplier<Optional<User>> call) {
+        SqlStatementCounter.Stats previous = SqlStatementCounter.start();
+        SqlStatementCounter.Stats stats;
+        try {
+            read(call);
+        } finally {
+            stats = SqlStatementCounter.stop(previous);
+        }
+        return stats.getStatementCount();
+    }
+}
@@ -0,0 +1,43 @@
+package com.barbershop.support;
+
+import com.barbershop.common.service.EmailService;
+import com.barbershop.common.service.StreamingExportService;
+import com.barbershop.features.appointment.mapper.AppointmentMapperImpl;
+import com.barbershop.features.appointment.service.AppointmentService;
+import com.barbershop.features.auth.security.JwtService;
+import com.barbershop.features.barber.mapper.BarberMapperImpl;
+import com.barbershop.features.payment.service.PaymentAggregateService;
+import com.barbershop.features.service.mapper.ServiceMapperImpl;
+import com.barbershop.features.user.mapper.UserMapperImpl;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Base de las pruebas de AppointmentService sobre PostgreSQL embebido. El servicio, los mappers y la exportación
+ * son los reales; solo se simulan el JWT y el correo, que no intervienen en las operaciones probadas.
+ */
+@Import({AppointmentService.class, PaymentAggregateService.class, StreamingExportService.class, AppointmentMapperImpl.class,
+        BarberMapperImpl.class, UserMapperImpl.class, ServiceMapperImpl.class})
+public abstract class AppointmentServicePostgresTest extends PostgresRepositoryTest {
+
+    @MockitoBean
+    protected JwtService jwtService;
+
+    @MockitoBean
+    protected EmailService emailService;
+
+    /**
+     * Simula un token del usuario indicado con el rol indicado
+     * @param userId Usuario creado con {@link TestFixtures#user}
+     * @param role Rol del token, por ejemplo ROLE_ADMIN
+     * @return Token a pasar al servicio
+     */
+    protected String token(String userId, String role) {
+        String token = "token-" + userId;
+        when(jwtService.extractRole(token)).thenReturn(role);
+        when(jwtService.getUsernameFromToken(token)).thenReturn(userId + "@test.local");
+        return token;
+    }
+}
@@ -0,0 +1,47 @@
+package com.barbershop.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * PostgreSQL embebido compartido por todas las pruebas de la JVM.
+ */
+public final class EmbeddedPostgresDatabase {
+
+    private static EmbeddedPostgres postgres;
+
+    private EmbeddedPostgresDatabase() {
+    }
+
+    public static synchronized EmbeddedPostgres instance() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo iniciar PostgreSQL embebido", e);
+            }
+        }
+        return postgres;
+    }
+
+    /**
+     * Crea una base de datos vacía y devuelve su DataSource
+     */
+    public static DataSource createDatabase() {
+        String name = "db_" + UUID.randomUUID().toString().replace("-", "");
+        try (Connection connection = instance().getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + name);
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo crear la base de datos " + name, e);
+        }
+        return instance().getDatabase("postgres", name);
+    }
+}
@@ -0,0 +1,34 @@
+package com.barbershop.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Base de las pruebas de repositorio sobre PostgreSQL embebido con el esquema de las migraciones de Flyway.
+ * La instancia se arranca una vez por JVM y la comparten todas las clases de prueba; cada prueba se
+ * revierte al terminar. El inspector de sentencias queda registrado para medir con SqlStatementCounter.
+ */
+@DataJpaTest(showSql = false)
+@Import(TestFixtures.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.barbershop.config.SqlStatementInspector"
+})
+public abstract class PostgresRepositoryTest {
+
+    private static final EmbeddedPostgres POSTGRES = EmbeddedPostgresDatabase.instance();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+}
@@ -0,0 +1,42 @@
+package com.barbershop.support;
+
+import com.barbershop.common.util.SqlStatementCounter;
+
+import java.util.function.Supplier;
+
+/**
+ * Aserciones sobre las sentencias SQL que emite una llamada, medidas con {@link SqlStatementCounter}.
+ * Requieren que el inspector de sentencias esté registrado en Hibernate (ver {@link PostgresRepositoryTest}).
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    /**
+     * Ejecuta la llamada y falla si emite más sentencias que el máximo indicado.
+     * Acota el número de consultas de un método y detecta N+1.
+     */
+    public static <T> T assertMaxStatements(int maxStatements, Supplier<T> call) {
+        SqlStatementCounter.Stats previous = SqlStatementCounter.start();
+        T result;
+        SqlStatementCounter.Stats stats;
+        try {
+            result = call.get();
+        } finally {
+            stats = SqlStatementCounter.stop(previous);
+        }
+        if (stats.getStatementCount() > maxStatements) {
+            throw new AssertionError("Se esperaban como máximo " + maxStatements
+                    + " sentencias SQL y se ejecutaron " + stats.getStatementCount() + ": " + stats.getStatements());
+        }
+        return result;
+    }
+
+    public static void assertMaxStatements(int maxStatements, Runnable call) {
+        assertMaxStatements(maxStatements, () -> {
+            call.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package com.barbershop.support;
+
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Inserta con SQL directo las filas mínimas que necesitan las pruebas de repositorio,
+ * sin pasar por las entidades ni la caché de segundo nivel.
+ */
+@TestComponent
+public class TestFixtures {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TestFixtures(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public String user(String role) {
+        String userId = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO users (user_id, created_at, email, first_name, is_active, is_deleted, last_name, " +
+                        "password_hash, role, updated_at) VALUES (CAST(? AS uuid), now(), ?, 'Test', true, false, 'User', 'x', ?, now())",
+                userId, userId + "@test.local", role);
+        return userId;
+    }
+
+    public String barbershop() {
+        String barbershopId = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO barbershops (barbershop_id, address_text, created_at, is_deleted, name, updated_at) " +
+                "VALUES (CAST(? AS uuid), 'Calle 1', now(), false, 'Barbería', now())", barbershopId);
+        return barbershopId;
+    }
+
+    public String barber(String barbershopId) {
+        String barberId = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO barbers (barber_id, barbershop_id, created_at, is_active, updated_at, user_id) " +
+                        "VALUES (CAST(? AS uuid), CAST(? AS uuid), now(), true, now(), CAST(? AS uuid))",
+                barberId, barbershopId, user("ROLE_BARBER"));
+        return barberId;
+    }
+
+    public String service(String barbershopId) {
+        String serviceId = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO services (service_id, barbershop_id, created_at, duration_minutes, is_active, name, price, updated_at) " +
+                "VALUES (CAST(? AS uuid), CAST(? AS uuid), now(), 30, true, 'Corte', 10.00, now())", serviceId, barbershopId);
+        return serviceId;
+    }
+
+    public String appointment(String clientId, String barberId, String barbershopId, String serviceId, LocalDateTime start) {
+        String appointmentId = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO appointments (appointment_id, appointment_datetime_start, appointment_datetime_end, " +
+                        "barber_id, barbershop_id, client_id, created_at, price_at_booking, service_id, status, updated_at) " +
+                        "VALUES (CAST(? AS uuid), ?, ?, CAST(? AS uuid), CAST(? AS uuid), CAST(? AS uuid), now(), 10.00, " +
+                        "CAST(? AS uuid), 'SCHEDULED', now())",
+                appointmentId, Timestamp.valueOf(start), Timestamp.valueOf(start.plusMinutes(30)),
+                barberId, barbershopId, clientId, serviceId);
+        return appointmentId;
+    }
+
+    public String payment(String appointmentId, String clientId, String barberId, String barbershopId, BigDecimal amount) {
+        String paymentId = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO payments (payment_id, amount, appointment_id, client_id, barber_id, barbershop_id, created_at, " +
+                        "payment_method, payment_status, updated_at) VALUES (CAST(? AS uuid), ?, CAST(? AS uuid), CAST(? AS uuid), " +
+                        "CAST(? AS uuid), CAST(? AS uuid), now(), 'CASH', 'PENDING', now())",
+                paymentId, amount, appointmentId, clientId, barberId, barbershopId);
+        return paymentId;
+    }
+
+    /**
+     * Pago creado antes de las columnas desnormalizadas: sin cliente, barbero ni barbería
+     */
+    public String legacyPayment(String paymentId, String appointmentId, BigDecimal amount) {
+        jdbcTemplate.update("INSERT INTO payments (payment_id, amount, appointment_id, created_at, payment_method, " +
+                        "payment_status, updated_at) VALUES (CAST(? AS uuid), ?, CAST(? AS uuid), now(), 'CASH', 'PENDING', now())",
+                paymentId, amount, appointmentId);
+        return paymentId;
+    }
+
+    public JdbcTemplate jdbc() {
+        return jdbcTemplate;
+    }
+}